@@ -0,0 +1,52 @@
+package org.vajradevam.tetris;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Decision throughput of the bot: one full beam search for the current piece of a
+ * fixed board, with and without a hold piece to consider, and with and without a
+ * cache of board scores. Deciding the same board again and again flatters the cache;
+ * BatchSimulator's {@code --cache-mb} shows its effect over real games.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class AutoPlayerBenchmark {
+    @Param({"4", "12"})
+    public int stackHeight;
+
+    @Param({"8", "32"})
+    public int beamWidth;
+
+    @Param({"0", "8"})
+    public int cacheMb;
+
+    private AutoPlayer bot;
+    private GameBoard board;
+    private GameBoard heldBoard;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        TranspositionCache cache = cacheMb > 0 ? new TranspositionCache(cacheMb * 1024L * 1024L) : null;
+        bot = new AutoPlayer(ForkJoinPool.commonPool(), beamWidth, cache);
+        board = BoardFixtures.withStack(stackHeight, 42L);
+        heldBoard = BoardFixtures.withStack(stackHeight, 42L);
+        heldBoard.holdPiece();
+    }
+
+    @Benchmark
+    public AutoPlayer.Placement decide() {
+        return bot.decide(board);
+    }
+
+    @Benchmark
+    public AutoPlayer.Placement decideWithHold() {
+        return bot.decide(heldBoard);
+    }
+}
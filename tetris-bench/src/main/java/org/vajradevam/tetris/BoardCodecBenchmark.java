@@ -0,0 +1,48 @@
+package org.vajradevam.tetris;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Snapshotting a board with {@link BoardCodec} and reading it back into another
+ * board dealt by the same generator.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class BoardCodecBenchmark {
+    @Param({"0", "8", "16"})
+    public int stackHeight;
+
+    private GameBoard board;
+    private GameBoard target;
+    private ByteBuffer buffer;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        board = BoardFixtures.withStack(stackHeight, 42L);
+        board.holdPiece();
+        target = new GameBoard(new UniformGenerator(42L));
+        buffer = ByteBuffer.allocateDirect(BoardCodec.MAX_BYTES);
+        BoardCodec.write(board, buffer);
+    }
+
+    @Benchmark
+    public int write() {
+        buffer.clear();
+        BoardCodec.write(board, buffer);
+        return buffer.position();
+    }
+
+    @Benchmark
+    public int read() {
+        buffer.rewind();
+        BoardCodec.read(buffer, target);
+        return target.getBoardVersion();
+    }
+}
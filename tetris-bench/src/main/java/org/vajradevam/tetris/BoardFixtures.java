@@ -0,0 +1,42 @@
+package org.vajradevam.tetris;
+
+import java.util.SplittableRandom;
+
+/**
+ * Builds reproducible board positions for the benchmarks.
+ */
+final class BoardFixtures {
+    private BoardFixtures() {}
+
+    /**
+     * Fills the bottom {@code height} rows with random garbage. Every row keeps at
+     * least one hole so nothing clears on its own. The seed also fixes the pieces the
+     * board deals.
+     */
+    static GameBoard withStack(int height, long seed) {
+        GameBoard board = new GameBoard(new UniformGenerator(seed));
+        fillStack(board, height, seed);
+        return board;
+    }
+
+    static void fillStack(GameBoard board, int height, long seed) {
+        SplittableRandom random = new SplittableRandom(seed);
+        int rows = GameBoard.getRows();
+        int cols = GameBoard.getCols();
+
+        for (int i = rows - height; i < rows; i++) {
+            int hole = random.nextInt(cols);
+            for (int j = 0; j < cols; j++) {
+                if (j != hole && random.nextInt(10) < 7) {
+                    board.setCell(i, j, 1 + random.nextInt(Tetromino.Type.values().length));
+                }
+            }
+        }
+    }
+
+    static void fillRow(GameBoard board, int row) {
+        for (int j = 0; j < GameBoard.getCols(); j++) {
+            board.setCell(row, j, 1 + j % Tetromino.Type.values().length);
+        }
+    }
+}
@@ -0,0 +1,119 @@
+package org.vajradevam.tetris;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Single operations on a board at a given stack height. Benchmarks that mutate the
+ * board restore it from a template first; compare them against {@link #restore()}
+ * to isolate the cost of the operation itself.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class GameBoardBenchmark {
+    private static final int PROBE_COLUMNS = 13;
+
+    @Param({"0", "4", "8", "12"})
+    public int stackHeight;
+
+    private GameBoard template;
+    private GameBoard board;
+    private Tetromino piece;
+    private Tetromino[] probes;
+    private Tetromino wallKickStart;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        template = BoardFixtures.withStack(stackHeight, 42L);
+        board = BoardFixtures.withStack(stackHeight, 42L);
+        board.copyFrom(template);
+        piece = board.getCurrentPiece();
+
+        // A vertical I against the left wall only turns flat on the last kick (+2, 0)
+        wallKickStart = new Tetromino(Tetromino.Type.I);
+        wallKickStart.rotate();
+        wallKickStart.setX(-2);
+
+        probes = new Tetromino[4];
+        for (int r = 0; r < probes.length; r++) {
+            probes[r] = new Tetromino(Tetromino.Type.T);
+            for (int k = 0; k < r; k++) {
+                probes[r].rotate();
+            }
+        }
+    }
+
+    @Benchmark
+    public void restore() {
+        board.copyFrom(template);
+    }
+
+    @Benchmark
+    public boolean moveDown() {
+        int y = piece.getY();
+        boolean moved = board.moveDown();
+        piece.setY(y);
+        return moved;
+    }
+
+    @Benchmark
+    public int rotate() {
+        board.rotate();
+        int rotation = piece.getRotation();
+        piece.rotateCounterClockwise();
+        return rotation;
+    }
+
+    @Benchmark
+    public int rotateWallKick() {
+        piece.copyFrom(wallKickStart);
+        board.rotate();
+        return piece.getX();
+    }
+
+    @Benchmark
+    public int hardDrop() {
+        board.copyFrom(template);
+        board.hardDrop();
+        return board.getScore();
+    }
+
+    @Benchmark
+    public int ghostY() {
+        return board.getGhostY();
+    }
+
+    @Benchmark
+    public Tetromino holdPiece() {
+        board.copyFrom(template);
+        board.holdPiece();
+        return board.getCurrentPiece();
+    }
+
+    @Benchmark
+    public Tetromino copy() {
+        return piece.copy();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(4 * PROBE_COLUMNS)
+    public int placementTest() {
+        int valid = 0;
+        int y = GameBoard.getRows() - stackHeight - 2;
+        for (Tetromino probe : probes) {
+            probe.setY(y);
+            for (int x = -2; x < PROBE_COLUMNS - 2; x++) {
+                probe.setX(x);
+                if (board.isValidPosition(probe)) {
+                    valid++;
+                }
+            }
+        }
+        return valid;
+    }
+}
@@ -0,0 +1,47 @@
+package org.vajradevam.tetris;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Clearing 1 to 4 full rows at the bottom of a stack. Each invocation restores the
+ * board first; {@link #restore()} measures that part on its own.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class LineClearBenchmark {
+    @Param({"1", "2", "3", "4"})
+    public int lines;
+
+    @Param({"4", "12"})
+    public int stackHeight;
+
+    private GameBoard template;
+    private GameBoard board;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        template = BoardFixtures.withStack(stackHeight, 42L);
+        for (int i = 0; i < lines; i++) {
+            BoardFixtures.fillRow(template, GameBoard.getRows() - 1 - i);
+        }
+        board = new GameBoard();
+        board.copyFrom(template);
+    }
+
+    @Benchmark
+    public void restore() {
+        board.copyFrom(template);
+    }
+
+    @Benchmark
+    public int clearLines() {
+        board.copyFrom(template);
+        return board.clearLines();
+    }
+}
@@ -0,0 +1,41 @@
+package org.vajradevam.tetris;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Finding every reachable resting place of a piece, tucks and spins included, for
+ * each of the seven piece types on a fixed board. Reported per piece.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class PlacementFinderBenchmark {
+    private static final Tetromino.Type[] TYPES = Tetromino.Type.values();
+
+    @Param({"0", "8", "14"})
+    public int stackHeight;
+
+    private GameBoard board;
+    private PlacementFinder finder;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        board = BoardFixtures.withStack(stackHeight, 42L);
+        finder = new PlacementFinder();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(7)
+    public int find() {
+        int total = 0;
+        for (Tetromino.Type type : TYPES) {
+            total += finder.find(board, type, 0, 3, 0);
+        }
+        return total;
+    }
+}
@@ -0,0 +1,57 @@
+package org.vajradevam.tetris;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Complete games played by a random policy: every piece gets a random rotation and
+ * column and is hard dropped, until the board tops out. Piece sequences come from
+ * seeded generators, so every run plays the same games.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class RandomGameBenchmark {
+    private SplittableRandom random;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        random = new SplittableRandom(42L);
+    }
+
+    @Benchmark
+    public int randomGame() {
+        GameBoard board = new GameBoard(new UniformGenerator(random.nextLong()));
+        int pieces = 0;
+
+        while (!board.isGameOver()) {
+            int rotations = random.nextInt(4);
+            for (int r = 0; r < rotations; r++) {
+                board.rotate();
+            }
+
+            int shift = random.nextInt(-4, 6);
+            for (int s = 0; s < Math.abs(shift); s++) {
+                if (shift < 0) {
+                    board.moveLeft();
+                } else {
+                    board.moveRight();
+                }
+            }
+
+            if (random.nextInt(8) == 0) {
+                board.holdPiece();
+            }
+
+            board.hardDrop();
+            pieces++;
+        }
+
+        return pieces + board.getScore();
+    }
+}
@@ -0,0 +1,459 @@
+package org.vajradevam.tetris;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Bot that picks where to put the current piece.
+ *
+ * <p>Every rotation and column the piece can be hard dropped into is tried, then the
+ * best of those positions are expanded again with the next piece (a beam search),
+ * including the options of swapping with or filling the hold slot. Positions are
+ * scored with Pierre Dellacherie's heuristics, using the weights tuned by El-Tetris.
+ * Each search level is evaluated in parallel on a {@link ForkJoinPool}.
+ *
+ * <p>Different move orders often build the same stack, within one search and from one
+ * piece to the next, so board scores can be memoized in a {@link TranspositionCache}
+ * under the stack's Zobrist key. Unless given one, bots share a cache of
+ * {@code -Dtetris.bot.cacheMb} megabytes. It is off by default: about a quarter of
+ * lookups hit, and a board score is cheap enough that the lookups cost more than the
+ * scoring they save.
+ *
+ * <p>{@link #decide} only reads the board, so it can be used from a controller that
+ * feeds moves in one at a time; {@link #play} decides and drops the piece at once
+ * for headless games.
+ */
+public class AutoPlayer {
+    public static final int DEFAULT_BEAM_WIDTH = 32;
+    public static final int DEFAULT_CACHE_MB = 0;
+
+    private static final int ROWS = GameBoard.getRows();
+    private static final int COLS = GameBoard.getCols();
+    private static final int FULL_ROW = (1 << COLS) - 1;
+    // Columns a new piece spawns into; stacking there is heavily penalised
+    private static final int SPAWN_MASK = 0b1111 << 3;
+    // Candidates evaluated per fork/join leaf task
+    private static final int SPLIT_THRESHOLD = 16;
+
+    private static final double LANDING_HEIGHT = -4.500158825082766;
+    private static final double ERODED_CELLS = 3.4181268101392694;
+    private static final double ROW_TRANSITIONS = -3.2178882868487753;
+    private static final double COLUMN_TRANSITIONS = -9.348695305445199;
+    private static final double HOLES = -7.899265427351652;
+    private static final double WELLS = -3.3855972247263626;
+    private static final double TOP_OUT = -1_000_000;
+
+    // Rotations that give a distinct shape; O has one, I, S and Z have two
+    private static final int[][] DISTINCT_ROTATIONS = new int[Tetromino.Type.values().length][];
+
+    static {
+        for (Tetromino.Type type : Tetromino.Type.values()) {
+            List<int[]> seen = new ArrayList<>();
+            int[] rotations = new int[4];
+            int count = 0;
+            for (int r = 0; r < 4; r++) {
+                int[] shape = normalize(type.getState(r));
+                if (seen.stream().noneMatch(s -> Arrays.equals(s, shape))) {
+                    seen.add(shape);
+                    rotations[count++] = r;
+                }
+            }
+            DISTINCT_ROTATIONS[type.ordinal()] = Arrays.copyOf(rotations, count);
+        }
+    }
+
+    /**
+     * Where to put the current piece: whether to hold first, then the rotation and
+     * column, and the row it comes to rest at when dropped straight down.
+     */
+    public static final class Placement {
+        private final boolean hold;
+        private final int rotation;
+        private final int x;
+        // Set once the placement has been evaluated
+        private int y;
+
+        Placement(boolean hold, int rotation, int x) {
+            this.hold = hold;
+            this.rotation = rotation;
+            this.x = x;
+        }
+
+        public boolean isHold() { return hold; }
+        public int getRotation() { return rotation; }
+        public int getX() { return x; }
+        public int getY() { return y; }
+    }
+
+    // Board scores depend on nothing but the rows, so every bot can use the same cache
+    private static final TranspositionCache SHARED_CACHE;
+
+    static {
+        int megabytes = Integer.getInteger("tetris.bot.cacheMb", DEFAULT_CACHE_MB);
+        SHARED_CACHE = megabytes > 0 ? new TranspositionCache(megabytes * 1024L * 1024L) : null;
+    }
+
+    private final ForkJoinPool pool;
+    private final int beamWidth;
+    private final TranspositionCache cache;
+
+    public AutoPlayer() {
+        this(ForkJoinPool.commonPool(), DEFAULT_BEAM_WIDTH);
+    }
+
+    public AutoPlayer(ForkJoinPool pool, int beamWidth) {
+        this(pool, beamWidth, SHARED_CACHE);
+    }
+
+    /** A bot memoizing board scores in {@code cache}, or scoring every position when it is null. */
+    public AutoPlayer(ForkJoinPool pool, int beamWidth, TranspositionCache cache) {
+        this.pool = pool;
+        this.beamWidth = beamWidth;
+        this.cache = cache;
+    }
+
+    /** The cache shared by bots that are not given one, or null while it is turned off. */
+    public static TranspositionCache getSharedCache() {
+        return SHARED_CACHE;
+    }
+
+    /** Best placement for the board's current piece, or null if the piece fits nowhere. */
+    public Placement decide(GameBoard board) {
+        Tetromino.Type[] queue = {board.getCurrentPiece().getType(), board.getNextPiece().getType()};
+        Tetromino held = board.getHeldPiece();
+
+        Node root = new Node(null, null, 0, 0, held == null ? null : held.getType(), 0, false);
+        root.rows = new int[ROWS];
+        board.copyRows(root.rows);
+        root.key = board.getStackKey();
+        root.heights = new int[COLS];
+        board.getSurface().copyHeights(root.heights);
+        root.canHold = board.canHold();
+
+        List<Node> beam = new ArrayList<>();
+        beam.add(root);
+        Node best = null;
+
+        while (!beam.isEmpty()) {
+            List<Node> children = new ArrayList<>();
+            for (Node node : beam) {
+                expand(node, queue, children);
+            }
+            Node[] candidates = children.toArray(new Node[0]);
+            pool.invoke(new Evaluate(candidates, 0, candidates.length, cache, queue.length));
+
+            beam = new ArrayList<>();
+            for (Node node : candidates) {
+                if (!node.valid) continue;
+                if (node.depth < queue.length) {
+                    beam.add(node);
+                } else if (best == null || node.value > best.value) {
+                    best = node;
+                }
+            }
+            beam.sort(Comparator.comparingDouble((Node n) -> n.value).reversed());
+            if (beam.size() > beamWidth) {
+                beam = new ArrayList<>(beam.subList(0, beamWidth));
+            }
+            // Only nodes that will be expanded need their column heights
+            for (Node node : beam) {
+                node.heights = columnHeights(node.rows);
+            }
+        }
+
+        return best == null ? null : best.first;
+    }
+
+    /**
+     * Decides and plays one piece immediately. Returns false once the game is over.
+     */
+    public boolean play(GameBoard board) {
+        if (board.isGameOver()) return false;
+
+        Placement placement = decide(board);
+        if (placement != null) {
+            if (placement.isHold()) {
+                board.holdPiece();
+            }
+            for (int r = 0; r < 3 && board.getCurrentPiece().getRotation() != placement.getRotation(); r++) {
+                board.rotate();
+            }
+            Tetromino piece = board.getCurrentPiece();
+            while (piece.getX() != placement.getX()) {
+                int x = piece.getX();
+                if (x < placement.getX()) {
+                    board.moveRight();
+                } else {
+                    board.moveLeft();
+                }
+                if (piece.getX() == x) break; // blocked
+            }
+        }
+        board.hardDrop();
+        return !board.isGameOver();
+    }
+
+    // Adds every placement of the node's next piece, with and without using the hold slot
+    private void expand(Node node, Tetromino.Type[] queue, List<Node> out) {
+        Tetromino.Type piece = queue[node.depth];
+        addPlacements(node, piece, node.held, false, node.depth + 1, out);
+
+        if (node.canHold) {
+            if (node.held != null) {
+                addPlacements(node, node.held, piece, true, node.depth + 1, out);
+            } else if (node.depth + 1 < queue.length) {
+                // An empty hold slot takes the piece and the one after it comes in
+                addPlacements(node, queue[node.depth + 1], piece, true, node.depth + 2, out);
+            }
+        }
+    }
+
+    private void addPlacements(Node parent, Tetromino.Type type, Tetromino.Type held, boolean hold,
+                               int depth, List<Node> out) {
+        for (int rotation : DISTINCT_ROTATIONS[type.ordinal()]) {
+            Tetromino.State state = type.getState(rotation);
+            for (int x = -state.getMinCol(); x + state.getMaxCol() < COLS; x++) {
+                out.add(new Node(parent, type, rotation, x, held, depth, hold));
+            }
+        }
+    }
+
+    private static final class Node {
+        final Node parent;
+        final Tetromino.Type type;
+        final int rotation;
+        final int x;
+        final Tetromino.Type held;
+        final int depth;
+        final Placement first;
+
+        int[] rows;
+        long key;
+        int[] heights;
+        boolean canHold = true;
+        boolean valid;
+        int placed;
+        double moveTotal;
+        double value;
+
+        Node(Node parent, Tetromino.Type type, int rotation, int x, Tetromino.Type held, int depth, boolean hold) {
+            this.parent = parent;
+            this.type = type;
+            this.rotation = rotation;
+            this.x = x;
+            this.held = held;
+            this.depth = depth;
+            if (parent == null) {
+                first = null;
+            } else if (parent.first == null) {
+                first = new Placement(hold, rotation, x);
+            } else {
+                first = parent.first;
+            }
+        }
+
+        // Drops the piece onto a copy of the parent's rows, clears lines and scores the result
+        void evaluate(TranspositionCache cache, boolean leaf) {
+            Tetromino.State state = type.getState(rotation);
+            int[] masks = state.getRowMasks();
+            int[] from = parent.rows;
+
+            // Dropped straight down, the piece stops on the highest block of one of its columns
+            int[] bottoms = state.getColumnBottoms();
+            int y = ROWS;
+            for (int j = 0; j < bottoms.length; j++) {
+                if (bottoms[j] >= 0) {
+                    y = Math.min(y, ROWS - parent.heights[x + j] - 1 - bottoms[j]);
+                }
+            }
+            if (y < 0) {
+                // Some column's top block is level with the spawn rows; step down the slow way
+                if (!fits(from, masks, x, 0)) return;
+                y = 0;
+                while (fits(from, masks, x, y + 1)) {
+                    y++;
+                }
+            }
+
+            if (parent.first == null) {
+                first.y = y;
+            }
+
+            // Lines the piece completes, counting its own cells in them
+            int cleared = 0, eroded = 0;
+            for (int i = 0; i < masks.length; i++) {
+                if (masks[i] != 0 && (from[y + i] | shift(masks[i], x)) == FULL_ROW) {
+                    cleared |= 1 << (y + i);
+                    eroded += Integer.bitCount(masks[i]);
+                }
+            }
+
+            int lines = Integer.bitCount(cleared);
+            double landingHeight = ROWS - y - (state.getMinRow() + state.getMaxRow()) / 2.0;
+            placed = parent.placed + 1;
+            moveTotal = parent.moveTotal + LANDING_HEIGHT * landingHeight + ERODED_CELLS * lines * eroded;
+
+            // A leaf found in the cache never needs its rows built
+            double score = Double.NaN;
+            if (cache != null) {
+                key = stackKey(masks, y, cleared);
+                score = cache.get(key);
+            }
+            if (Double.isNaN(score) || !leaf) {
+                rows = new int[ROWS];
+                int write = ROWS - 1;
+                for (int read = ROWS - 1; read >= 0; read--) {
+                    if ((cleared & (1 << read)) == 0) {
+                        rows[write--] = placedRow(from, masks, x, y, read);
+                    }
+                }
+            }
+            if (Double.isNaN(score)) {
+                score = boardScore(rows);
+                if (cache != null) {
+                    cache.put(key, score);
+                }
+            }
+            value = score + moveTotal / placed;
+            valid = true;
+        }
+
+        // Key of the resulting stack, worked out from the parent's: the rows the piece
+        // lands in change, and rows above a cleared line move down
+        private long stackKey(int[] masks, int y, int cleared) {
+            int[] from = parent.rows;
+            long key = parent.key;
+            for (int i = 0; i < masks.length; i++) {
+                if (masks[i] != 0) {
+                    key ^= Zobrist.row(y + i, from[y + i]) ^ Zobrist.row(y + i, placedRow(from, masks, x, y, y + i));
+                }
+            }
+            if (cleared == 0) return key;
+
+            int write = ROWS - 1;
+            for (int read = ROWS - 1; read >= 0; read--) {
+                if ((cleared & (1 << read)) != 0) {
+                    key ^= Zobrist.row(read, FULL_ROW);
+                    continue;
+                }
+                if (write != read) {
+                    int row = placedRow(from, masks, x, y, read);
+                    key ^= Zobrist.row(read, row) ^ Zobrist.row(write, row);
+                }
+                write--;
+            }
+            return key;
+        }
+    }
+
+    private static final class Evaluate extends RecursiveAction {
+        private final Node[] nodes;
+        private final int from, to;
+        private final TranspositionCache cache;
+        private final int leafDepth;
+
+        Evaluate(Node[] nodes, int from, int to, TranspositionCache cache, int leafDepth) {
+            this.nodes = nodes;
+            this.from = from;
+            this.to = to;
+            this.cache = cache;
+            this.leafDepth = leafDepth;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= SPLIT_THRESHOLD) {
+                for (int i = from; i < to; i++) {
+                    nodes[i].evaluate(cache, nodes[i].depth >= leafDepth);
+                }
+                return;
+            }
+            int mid = (from + to) >>> 1;
+            invokeAll(new Evaluate(nodes, from, mid, cache, leafDepth),
+                      new Evaluate(nodes, mid, to, cache, leafDepth));
+        }
+    }
+
+    private static int[] columnHeights(int[] rows) {
+        int[] heights = new int[COLS];
+        int covered = 0;
+        for (int i = 0; i < ROWS && covered != FULL_ROW; i++) {
+            for (int top = rows[i] & ~covered; top != 0; top &= top - 1) {
+                heights[Integer.numberOfTrailingZeros(top)] = ROWS - i;
+            }
+            covered |= rows[i];
+        }
+        return heights;
+    }
+
+    private static double boardScore(int[] rows) {
+        int rowTransitions = 0, columnTransitions = 0, holes = 0, wells = 0;
+        int above = 0, covered = 0, aboveWell = 0;
+        int[] wellDepth = new int[COLS];
+
+        for (int i = 0; i < ROWS; i++) {
+            int row = rows[i];
+            if (row != 0) {
+                // The walls count as filled cells
+                int walled = (row << 1) | 1 | (1 << (COLS + 1));
+                rowTransitions += Integer.bitCount((walled ^ (walled >>> 1)) & ((1 << (COLS + 1)) - 1));
+            }
+            columnTransitions += Integer.bitCount(row ^ above);
+            holes += Integer.bitCount(covered & ~row);
+            above = row;
+            covered |= row;
+
+            // Only well cells are visited; a well's depth restarts where the one above it ended
+            int well = ~row & ((row << 1) | 1) & ((row >>> 1) | (1 << (COLS - 1))) & FULL_ROW;
+            for (int bits = well; bits != 0; bits &= bits - 1) {
+                int j = Integer.numberOfTrailingZeros(bits);
+                wellDepth[j] = (aboveWell & (1 << j)) != 0 ? wellDepth[j] + 1 : 1;
+                wells += wellDepth[j];
+            }
+            aboveWell = well;
+        }
+        columnTransitions += Integer.bitCount(~above & FULL_ROW);
+
+        double score = ROW_TRANSITIONS * rowTransitions + COLUMN_TRANSITIONS * columnTransitions
+                     + HOLES * holes + WELLS * wells;
+        if (((rows[0] | rows[1]) & SPAWN_MASK) != 0) {
+            score += TOP_OUT;
+        }
+        return score;
+    }
+
+    // Row of the parent's stack with the piece's cells added
+    private static int placedRow(int[] rows, int[] masks, int x, int y, int row) {
+        int i = row - y;
+        return i >= 0 && i < masks.length ? rows[row] | shift(masks[i], x) : rows[row];
+    }
+
+    private static boolean fits(int[] rows, int[] masks, int x, int y) {
+        for (int i = 0; i < masks.length; i++) {
+            if (masks[i] == 0) continue;
+            int boardY = y + i;
+            if (boardY >= ROWS || (rows[boardY] & shift(masks[i], x)) != 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static int shift(int mask, int x) {
+        return x >= 0 ? mask << x : mask >>> -x;
+    }
+
+    // Row masks of a state moved to the top-left corner, for spotting rotations with the same shape
+    private static int[] normalize(Tetromino.State state) {
+        int[] masks = state.getRowMasks();
+        int[] shape = new int[state.getMaxRow() - state.getMinRow() + 1];
+        for (int i = 0; i < shape.length; i++) {
+            shape[i] = masks[state.getMinRow() + i] >>> state.getMinCol();
+        }
+        return shape;
+    }
+}
@@ -0,0 +1,239 @@
+package org.vajradevam.tetris;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+
+/**
+ * Command line entry point that plays many complete headless games in parallel and
+ * reports how they went.
+ *
+ * <pre>
+ * java -cp tetris-core.jar org.vajradevam.tetris.BatchSimulator \
+ *     --games 10000 --threads 8 --policy random --seed 1 --csv results.csv
+ * </pre>
+ *
+ * <p>Games run as independent tasks on a work-stealing {@link ForkJoinPool}. Each one
+ * has its own board, seeded piece generator and policy, so nothing is shared between
+ * threads while playing. Finished games are collected on the main thread, which writes
+ * one CSV row per game and prints running totals.
+ */
+public class BatchSimulator {
+    private static final long PROGRESS_INTERVAL_NANOS = 1_000_000_000L;
+
+    /** Plays one piece on a board; returns false once the game is over. */
+    public interface Policy {
+        boolean play(GameBoard board);
+    }
+
+    /** Outcome of one game. */
+    public static final class Result {
+        public final int game;
+        public final long seed;
+        public final int score;
+        public final int lines;
+        public final int level;
+        public final int pieces;
+        public final long nanos;
+
+        Result(int game, long seed, GameBoard board, int pieces, long nanos) {
+            this.game = game;
+            this.seed = seed;
+            this.score = board.getScore();
+            this.lines = board.getLinesCleared();
+            this.level = board.getLevel();
+            this.pieces = pieces;
+            this.nanos = nanos;
+        }
+    }
+
+    private int games = 1000;
+    private int threads = Runtime.getRuntime().availableProcessors();
+    private String policy = "random";
+    private String generator = "uniform";
+    private long seed = 1;
+    private int maxPieces = 1000;
+    private int beamWidth = 8;
+    private int cacheMb = AutoPlayer.DEFAULT_CACHE_MB;
+    private String csv;
+
+    public static void main(String[] args) throws Exception {
+        BatchSimulator simulator = new BatchSimulator();
+        if (!simulator.parse(args)) {
+            System.err.println("Usage: BatchSimulator [--games N] [--threads N] [--policy random|bot]");
+            System.err.println("                      [--generator uniform|bag] [--seed N] [--max-pieces N]");
+            System.err.println("                      [--beam N] [--cache-mb N] [--csv FILE]");
+            System.exit(2);
+        }
+        simulator.run();
+    }
+
+    private boolean parse(String[] args) {
+        try {
+            for (int i = 0; i < args.length; i += 2) {
+                String value = args[i + 1];
+                switch (args[i]) {
+                    case "--games": games = Integer.parseInt(value); break;
+                    case "--threads": threads = Integer.parseInt(value); break;
+                    case "--policy": policy = value; break;
+                    case "--generator": generator = value; break;
+                    case "--seed": seed = Long.parseLong(value); break;
+                    case "--max-pieces": maxPieces = Integer.parseInt(value); break;
+                    case "--beam": beamWidth = Integer.parseInt(value); break;
+                    case "--cache-mb": cacheMb = Integer.parseInt(value); break;
+                    case "--csv": csv = value; break;
+                    default: return false;
+                }
+            }
+        } catch (ArrayIndexOutOfBoundsException | NumberFormatException e) {
+            return false;
+        }
+        return (policy.equals("random") || policy.equals("bot"))
+            && (generator.equals("uniform") || generator.equals("bag"))
+            && games > 0 && threads > 0 && maxPieces > 0 && beamWidth > 0 && cacheMb >= 0;
+    }
+
+    private void run() throws IOException, InterruptedException, ExecutionException {
+        System.out.printf("Playing %d games on %d threads: policy %s, generator %s, seed %d, at most %d pieces%n",
+                          games, threads, policy, generator, seed, maxPieces);
+
+        ForkJoinPool pool = new ForkJoinPool(threads);
+        ExecutorCompletionService<Result> completion = new ExecutorCompletionService<>(pool);
+        // One score cache for every game's bot
+        TranspositionCache cache = cacheMb > 0 ? new TranspositionCache(cacheMb * 1024L * 1024L) : null;
+
+        // Game seeds are drawn up front so results do not depend on scheduling
+        SplittableRandom seeds = new SplittableRandom(seed);
+        for (int g = 0; g < games; g++) {
+            int game = g;
+            long gameSeed = seeds.nextLong();
+            completion.submit(() -> play(game, gameSeed, pool, cache));
+        }
+
+        int[] scores = new int[games];
+        long totalLines = 0, totalPieces = 0;
+        long start = System.nanoTime();
+        long nextProgress = start + PROGRESS_INTERVAL_NANOS;
+
+        BufferedWriter out = csv == null ? null : Files.newBufferedWriter(Paths.get(csv));
+        try {
+            if (out != null) {
+                out.write("game,seed,score,lines,level,pieces,millis");
+                out.newLine();
+            }
+
+            for (int done = 0; done < games; done++) {
+                Future<Result> future = completion.take();
+                Result result = future.get();
+                scores[done] = result.score;
+                totalLines += result.lines;
+                totalPieces += result.pieces;
+
+                if (out != null) {
+                    out.write(result.game + "," + result.seed + "," + result.score + "," + result.lines + ","
+                              + result.level + "," + result.pieces + "," + result.nanos / 1_000_000);
+                    out.newLine();
+                }
+
+                long now = System.nanoTime();
+                if (now >= nextProgress) {
+                    printProgress(done + 1, scores, totalLines, totalPieces, now - start);
+                    nextProgress = now + PROGRESS_INTERVAL_NANOS;
+                }
+            }
+        } finally {
+            if (out != null) {
+                out.close();
+            }
+            pool.shutdown();
+        }
+
+        long elapsed = System.nanoTime() - start;
+        printProgress(games, scores, totalLines, totalPieces, elapsed);
+        printSummary(scores, totalLines, totalPieces, elapsed);
+        if (cache != null && policy.equals("bot")) {
+            System.out.printf("Cache  %.1f%% hits, %d evictions, %d entries in %.1f MB%n",
+                              cache.getHitRate() * 100, cache.getEvictions(), cache.getCapacity(),
+                              cache.getMemoryBytes() / (1024.0 * 1024.0));
+        }
+    }
+
+    private Result play(int game, long gameSeed, ForkJoinPool pool, TranspositionCache cache) {
+        PieceGenerator pieces = generator.equals("bag") ? new SevenBagGenerator(gameSeed)
+                                                        : new UniformGenerator(gameSeed);
+        GameBoard board = new GameBoard(pieces);
+        // The bot forks its own search tasks into the same pool the games run on
+        Policy player = policy.equals("bot") ? new AutoPlayer(pool, beamWidth, cache)::play
+                                             : randomPolicy(new SplittableRandom(gameSeed));
+
+        long start = System.nanoTime();
+        int played = 0;
+        while (played < maxPieces) {
+            boolean alive = player.play(board);
+            played++;
+            if (!alive) break;
+        }
+        return new Result(game, gameSeed, board, played, System.nanoTime() - start);
+    }
+
+    /** Random rotation and column for every piece, with the occasional hold. */
+    public static Policy randomPolicy(SplittableRandom random) {
+        return board -> {
+            if (board.isGameOver()) return false;
+
+            int rotations = random.nextInt(4);
+            for (int r = 0; r < rotations; r++) {
+                board.rotate();
+            }
+            int shift = random.nextInt(-4, 6);
+            for (int s = 0; s < Math.abs(shift); s++) {
+                if (shift < 0) {
+                    board.moveLeft();
+                } else {
+                    board.moveRight();
+                }
+            }
+            if (random.nextInt(8) == 0) {
+                board.holdPiece();
+            }
+
+            board.hardDrop();
+            return !board.isGameOver();
+        };
+    }
+
+    private static void printProgress(int done, int[] scores, long lines, long pieces, long nanos) {
+        double seconds = nanos / 1e9;
+        long total = 0;
+        for (int i = 0; i < done; i++) {
+            total += scores[i];
+        }
+        System.out.printf("%d games  %.1f games/s  %.0f pieces/s  mean score %.1f  mean lines %.1f%n",
+                          done, done / seconds, pieces / seconds, (double) total / done, (double) lines / done);
+    }
+
+    private static void printSummary(int[] scores, long lines, long pieces, long nanos) {
+        int[] sorted = scores.clone();
+        Arrays.sort(sorted);
+        System.out.println();
+        System.out.printf("Score  min %d  p10 %d  p50 %d  p90 %d  p99 %d  max %d%n",
+                          sorted[0], percentile(sorted, 10), percentile(sorted, 50),
+                          percentile(sorted, 90), percentile(sorted, 99), sorted[sorted.length - 1]);
+        System.out.printf("Lines  %d total, %.1f per game%n", lines, (double) lines / sorted.length);
+        System.out.printf("Pieces %d total, %.0f per second%n", pieces, pieces / (nanos / 1e9));
+        System.out.printf("Games  %d in %.2f s, %.1f per second%n", sorted.length, nanos / 1e9,
+                          sorted.length / (nanos / 1e9));
+    }
+
+    private static int percentile(int[] sorted, int percent) {
+        int index = (int) Math.ceil(percent / 100.0 * sorted.length) - 1;
+        return sorted[Math.max(0, Math.min(sorted.length - 1, index))];
+    }
+}
@@ -0,0 +1,191 @@
+package org.vajradevam.tetris;
+
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+
+/**
+ * Compact snapshot of a whole {@link GameBoard}: locked cells, pieces, counters and
+ * the piece generator's seed and position, in at most {@link #MAX_BYTES} bytes.
+ * Used for replay keyframes and for saving a game to resume later; encoding and
+ * decoding into an existing board allocate nothing, so a snapshot can be taken
+ * every tick.
+ *
+ * <pre>
+ * length   one byte, the whole snapshot including itself
+ * bits     LSB first: which rows hold blocks (20 bits), then per such row, top down,
+ *          its column mask (10 bits) and the colour of each block (3 bits);
+ *          current piece type, rotation, x + 4, y + 32 (3, 2, 4, 6 bits);
+ *          next type, held type or 7, held rotation, can-hold, topped-out,
+ *          generator kind (3, 3, 2, 1, 1, 2 bits); padded to a whole byte
+ * counters score, lines cleared (varints); the level follows from the lines
+ * pieces   generator seed (long), position (varint)
+ * </pre>
+ */
+public final class BoardCodec {
+    private static final int ROWS = GameBoard.getRows();
+    private static final int COLS = GameBoard.getCols();
+    private static final Tetromino.Type[] TYPES = Tetromino.Type.values();
+    private static final int NO_PIECE = 7;
+
+    // Every row holding nine blocks is the worst case for the bit section
+    private static final int MAX_BITS = ROWS + ROWS * (COLS + 3 * (COLS - 1)) + 15 + 12;
+    /** Largest snapshot, in bytes. */
+    public static final int MAX_BYTES = 1 + (MAX_BITS + 7) / 8 + 5 + 5 + 8 + 9;
+
+    private BoardCodec() {}
+
+    /**
+     * Appends a snapshot of {@code board} at the buffer's position. Needs
+     * {@link #MAX_BYTES} bytes free, whatever the snapshot's actual size.
+     */
+    public static void write(GameBoard board, ByteBuffer out) {
+        if (out.remaining() < MAX_BYTES) {
+            throw new BufferOverflowException();
+        }
+        int start = out.position();
+        int base = start + 1;
+        int pos = 0;
+
+        int present = 0;
+        for (int i = 0; i < ROWS; i++) {
+            if (board.getRowMask(i) != 0) present |= 1 << i;
+        }
+        pos = putBits(out, base, pos, present, ROWS);
+        for (int i = 0; i < ROWS; i++) {
+            int mask = board.getRowMask(i);
+            if (mask == 0) continue;
+            // Mask and colours go out as one field of at most 37 bits
+            long row = mask;
+            int width = COLS;
+            for (int bits = mask; bits != 0; bits &= bits - 1) {
+                row |= (long) (board.getCell(i, Integer.numberOfTrailingZeros(bits)) - 1) << width;
+                width += 3;
+            }
+            pos = putBits(out, base, pos, row, width);
+        }
+
+        Tetromino current = board.getCurrentPiece();
+        pos = putBits(out, base, pos, current.getType().ordinal() | current.getRotation() << 3
+                | (current.getX() + 4) << 5 | (current.getY() + 32) << 9, 15);
+
+        Tetromino held = board.getHeldPiece();
+        PieceGenerator generator = board.getPieceGenerator();
+        pos = putBits(out, base, pos, board.getNextPiece().getType().ordinal()
+                | (held == null ? NO_PIECE : held.getType().ordinal()) << 3
+                | (held == null ? 0 : held.getRotation()) << 6
+                | (board.canHold() ? 1 << 8 : 0) | (board.isToppedOut() ? 1 << 9 : 0)
+                | ReplayFormat.generatorKind(generator) << 10, 12);
+
+        out.position(base + (pos + 7) / 8);
+        ReplayFormat.putVarint(out, board.getScore());
+        ReplayFormat.putVarint(out, board.getLinesCleared());
+        out.putLong(generator.getSeed());
+        ReplayFormat.putVarint(out, generator.getPosition());
+        out.put(start, (byte) (out.position() - start));
+    }
+
+    /**
+     * Reads a snapshot into {@code board}, which must deal from the same kind of
+     * generator with the same seed, e.g. the board the snapshot was taken of.
+     */
+    public static void read(ByteBuffer in, GameBoard board) {
+        int start = in.position();
+        int base = start + 1;
+        int pos = 0;
+
+        int present = (int) getBits(in, base, pos, ROWS);
+        pos += ROWS;
+        for (int i = 0; i < ROWS; i++) {
+            if ((present & (1 << i)) == 0) {
+                board.restoreRow(i, 0, 0);
+                continue;
+            }
+            int mask = (int) getBits(in, base, pos, COLS);
+            int width = COLS + 3 * Integer.bitCount(mask);
+            long row = getBits(in, base, pos, width) >>> COLS;
+            pos += width;
+            int colours = 0;
+            for (int bits = mask; bits != 0; bits &= bits - 1, row >>>= 3) {
+                colours |= ((int) row & 7) << (3 * Integer.numberOfTrailingZeros(bits));
+            }
+            board.restoreRow(i, mask, colours);
+        }
+
+        int piece = (int) getBits(in, base, pos, 15);
+        pos += 15;
+        int flags = (int) getBits(in, base, pos, 12);
+        pos += 12;
+        int heldType = (flags >>> 3) & 7;
+
+        in.position(base + (pos + 7) / 8);
+        int score = (int) ReplayFormat.getVarint(in);
+        int lines = (int) ReplayFormat.getVarint(in);
+        long seed = in.getLong();
+        long position = ReplayFormat.getVarint(in);
+
+        PieceGenerator generator = board.getPieceGenerator();
+        if (ReplayFormat.generatorKind(generator) != (flags >>> 10) || generator.getSeed() != seed) {
+            throw new IllegalArgumentException("Snapshot is of a game dealt by a different generator");
+        }
+        board.restorePieces(TYPES[piece & 7], (piece >>> 3) & 3, ((piece >>> 5) & 0xF) - 4, (piece >>> 9) - 32,
+                            TYPES[flags & 7], heldType == NO_PIECE ? null : TYPES[heldType], (flags >>> 6) & 3,
+                            (flags & 0x100) != 0, (flags & 0x200) != 0, score, lines);
+        generator.seek(position);
+        in.position(start + (in.get(start) & 0xFF));
+    }
+
+    /** Reads a snapshot into a new board with its own generator, e.g. to resume a saved game. */
+    public static GameBoard read(ByteBuffer in) {
+        int base = in.position() + 1;
+        int bits = bitLength(in, base);
+        // Skip the two counters to reach the seed
+        int at = base + (bits + 7) / 8;
+        while (in.get(at++) < 0) { }
+        while (in.get(at++) < 0) { }
+        byte kind = (byte) getBits(in, base, bits - 2, 2);
+        GameBoard board = new GameBoard(ReplayFormat.newGenerator(kind, in.getLong(at)));
+        read(in, board);
+        return board;
+    }
+
+    /** Moves past the snapshot at the buffer's position. */
+    public static void skip(ByteBuffer in) {
+        in.position(in.position() + (in.get(in.position()) & 0xFF));
+    }
+
+    // Size of the bit section, which depends on how many blocks are locked
+    private static int bitLength(ByteBuffer in, int base) {
+        int present = (int) getBits(in, base, 0, ROWS);
+        int pos = ROWS;
+        for (int i = 0; i < ROWS; i++) {
+            if ((present & (1 << i)) == 0) continue;
+            pos += COLS + 3 * Long.bitCount(getBits(in, base, pos, COLS));
+        }
+        return pos + 15 + 12;
+    }
+
+    // Writes the low bits of value at bit pos after base; a byte is overwritten when first touched, so no clearing is needed
+    private static int putBits(ByteBuffer out, int base, int pos, long value, int width) {
+        int index = base + (pos >>> 3);
+        int offset = pos & 7;
+        value = value & ((1L << width) - 1);
+        if (offset != 0) {
+            value = value << offset | (out.get(index) & ((1 << offset) - 1));
+        }
+        for (int bits = offset + width; bits > 0; bits -= 8) {
+            out.put(index++, (byte) value);
+            value >>>= 8;
+        }
+        return pos + width;
+    }
+
+    private static long getBits(ByteBuffer in, int base, int pos, int width) {
+        int index = base + (pos >>> 3);
+        int offset = pos & 7;
+        long value = 0;
+        for (int shift = 0; shift < offset + width; shift += 8) {
+            value |= (long) (in.get(index++) & 0xFF) << shift;
+        }
+        return value >>> offset & ((1L << width) - 1);
+    }
+}
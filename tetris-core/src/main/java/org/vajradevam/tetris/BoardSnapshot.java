@@ -0,0 +1,60 @@
+package org.vajradevam.tetris;
+
+/**
+ * Copy of everything needed to draw a board at one simulation tick. The simulation
+ * thread fills snapshots and hands them over through a {@link TripleBuffer}; once
+ * published, a snapshot is never modified while a reader holds it.
+ */
+public final class BoardSnapshot implements BoardView {
+    private static final int ROWS = GameBoard.getRows();
+    private static final int COLS = GameBoard.getCols();
+
+    private final byte[] cells = new byte[ROWS * COLS];
+    private final Tetromino currentPiece = new Tetromino(Tetromino.Type.I);
+    private final Tetromino nextPiece = new Tetromino(Tetromino.Type.I);
+    private final Tetromino heldPiece = new Tetromino(Tetromino.Type.I);
+    private boolean hasHeldPiece;
+    private int ghostY;
+
+    private int score;
+    private int level;
+    private int linesCleared;
+    private int boardVersion = -1;
+    private boolean gameOver;
+
+    void capture(GameBoard board, boolean gameOver) {
+        // Locked cells only change on lock or clear, so most ticks skip the copy
+        if (board.getBoardVersion() != boardVersion) {
+            for (int i = 0; i < ROWS; i++) {
+                for (int j = 0; j < COLS; j++) {
+                    cells[i * COLS + j] = (byte) board.getCell(i, j);
+                }
+            }
+            boardVersion = board.getBoardVersion();
+        }
+
+        currentPiece.copyFrom(board.getCurrentPiece());
+        nextPiece.copyFrom(board.getNextPiece());
+        hasHeldPiece = board.getHeldPiece() != null;
+        if (hasHeldPiece) {
+            heldPiece.copyFrom(board.getHeldPiece());
+        }
+        ghostY = board.getGhostY();
+
+        score = board.getScore();
+        level = board.getLevel();
+        linesCleared = board.getLinesCleared();
+        this.gameOver = gameOver;
+    }
+
+    @Override public int getCell(int row, int col) { return cells[row * COLS + col]; }
+    @Override public Tetromino getCurrentPiece() { return currentPiece; }
+    @Override public Tetromino getNextPiece() { return nextPiece; }
+    @Override public Tetromino getHeldPiece() { return hasHeldPiece ? heldPiece : null; }
+    @Override public int getGhostY() { return ghostY; }
+    @Override public int getScore() { return score; }
+    @Override public int getLevel() { return level; }
+    @Override public int getLinesCleared() { return linesCleared; }
+    @Override public int getBoardVersion() { return boardVersion; }
+    @Override public boolean isGameOver() { return gameOver; }
+}
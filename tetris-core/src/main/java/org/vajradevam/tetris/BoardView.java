@@ -0,0 +1,24 @@
+package org.vajradevam.tetris;
+
+/**
+ * Read-only view of a board, implemented both by the live GameBoard and by the
+ * snapshots the simulation thread publishes for rendering.
+ */
+public interface BoardView {
+    /** Colour index of the locked cell at the given position, or 0 when it is empty. */
+    int getCell(int row, int col);
+
+    Tetromino getCurrentPiece();
+    Tetromino getNextPiece();
+    Tetromino getHeldPiece();
+    int getGhostY();
+
+    int getScore();
+    int getLevel();
+    int getLinesCleared();
+
+    /** Changes whenever the locked cells change; the falling piece does not affect it. */
+    int getBoardVersion();
+
+    boolean isGameOver();
+}
@@ -0,0 +1,67 @@
+package org.vajradevam.tetris;
+
+/**
+ * Plays a board live with an {@link AutoPlayer}: decides once per piece, then issues
+ * one move every few ticks so the piece can be seen travelling to its spot. Each move
+ * is the first step of the shortest path from wherever the piece is now, so gravity
+ * and wall kicks along the way do not throw it off.
+ */
+public class BotController implements GameSimulation.Controller {
+    // Give up on a plan that a wall or the stack keeps blocking, and just drop
+    private static final int MAX_MOVES = 16;
+
+    private final AutoPlayer player;
+    private final int ticksPerMove;
+    private final PlacementFinder finder = new PlacementFinder();
+
+    private Tetromino plannedPiece;
+    private AutoPlayer.Placement plan;
+    private int moves;
+    private int wait;
+
+    public BotController(AutoPlayer player, int ticksPerMove) {
+        this.player = player;
+        this.ticksPerMove = ticksPerMove;
+    }
+
+    @Override
+    public GameSimulation.Command nextCommand(GameBoard board) {
+        if (wait > 0) {
+            wait--;
+            return null;
+        }
+        wait = ticksPerMove - 1;
+
+        // A new piece object means the last one locked or was swapped into the hold slot
+        Tetromino piece = board.getCurrentPiece();
+        if (piece != plannedPiece) {
+            plan = player.decide(board);
+            plannedPiece = piece;
+            moves = 0;
+        }
+
+        if (plan == null || ++moves > MAX_MOVES) {
+            return GameSimulation.Command.HARD_DROP;
+        }
+        if (plan.isHold() && board.canHold()) {
+            return GameSimulation.Command.HOLD;
+        }
+        if (finder.find(board) > 0) {
+            int target = finder.indexOf(plan.getRotation(), plan.getX(), plan.getY());
+            if (target >= 0) {
+                return finder.getFirstInput(target);
+            }
+        }
+        // Out of reach, e.g. after garbage came in; head for the column anyway
+        if (piece.getRotation() != plan.getRotation()) {
+            return GameSimulation.Command.ROTATE;
+        }
+        if (piece.getX() < plan.getX()) {
+            return GameSimulation.Command.MOVE_RIGHT;
+        }
+        if (piece.getX() > plan.getX()) {
+            return GameSimulation.Command.MOVE_LEFT;
+        }
+        return GameSimulation.Command.HARD_DROP;
+    }
+}
@@ -0,0 +1,69 @@
+package org.vajradevam.tetris;
+
+import java.util.SplittableRandom;
+
+/**
+ * Base for generators that deal pieces from a buffer refilled in blocks.
+ *
+ * <p>Block {@code k} is generated from its own {@link SplittableRandom}, seeded by
+ * mixing the generator seed with {@code k}, so any position in the sequence can be
+ * reached by regenerating a single block instead of replaying everything before it.
+ */
+public abstract class BufferedPieceGenerator implements PieceGenerator {
+    private static final Tetromino.Type[] TYPES = Tetromino.Type.values();
+    private static final long GOLDEN_GAMMA = 0x9E3779B97F4A7C15L;
+
+    private final long seed;
+    private final byte[] buffer;
+    private long block = -1;
+    private int index;
+
+    protected BufferedPieceGenerator(long seed, int blockSize) {
+        this.seed = seed;
+        this.buffer = new byte[blockSize];
+        this.index = blockSize;
+    }
+
+    /** Fills {@code buffer} with type ordinals for one block. */
+    protected abstract void fill(byte[] buffer, SplittableRandom random);
+
+    @Override
+    public Tetromino.Type next() {
+        if (index == buffer.length) {
+            load(block + 1);
+        }
+        return TYPES[buffer[index++]];
+    }
+
+    @Override
+    public long getSeed() {
+        return seed;
+    }
+
+    @Override
+    public long getPosition() {
+        return block * buffer.length + index;
+    }
+
+    @Override
+    public void seek(long position) {
+        long target = position / buffer.length;
+        if (target != block) {
+            load(target);
+        }
+        index = (int) (position % buffer.length);
+    }
+
+    private void load(long block) {
+        fill(buffer, new SplittableRandom(mix(seed + block * GOLDEN_GAMMA)));
+        this.block = block;
+        index = 0;
+    }
+
+    // Stafford's variant 13 of the MurmurHash3 finaliser, as used inside SplittableRandom
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+}
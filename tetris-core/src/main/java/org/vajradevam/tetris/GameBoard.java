@@ -0,0 +1,596 @@
+package org.vajradevam.tetris;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+public class GameBoard implements BoardView {
+    /** Colour index of garbage rows sent by opponents in battle games. */
+    public static final int GARBAGE_COLOR = Tetromino.Type.values().length + 1;
+
+    private static final int ROWS = 20;
+    private static final int COLS = 10;
+    private static final int FULL_ROW = (1 << COLS) - 1;
+    // Row storage slots, a power of two above ROWS; the slots outside the board are kept empty
+    private static final int RING = 32;
+    private static final int[][] WALL_KICKS = {{-1, 0}, {1, 0}, {0, -1}, {-2, 0}, {2, 0}};
+
+    // One occupancy mask per row (bit j = column j); colour indices are kept alongside for rendering.
+    // Both are rings: row i is stored in slot (base + i) % RING, so clearing lines or pushing up
+    // garbage moves the shorter part of the stack, or just the base, rather than every row.
+    private int[] rows;
+    private byte[][] board;
+    private int base;
+    // Transposed occupancy, one mask per column (bit i = row i), used for drop distances
+    private int[] columns;
+    private final SurfaceProfile surface = new SurfaceProfile();
+    // Zobrist key of the occupied cells, updated with every change to rows
+    private long stackKey;
+    private int boardVersion;
+    private long ghostKey = -1;
+    private int ghostY;
+    private Tetromino currentPiece;
+    private Tetromino nextPiece;
+    private Tetromino heldPiece;
+    // Piece object kept for the hold slot while it is empty after a restore
+    private Tetromino spareHeld;
+    private boolean canHold;
+    private boolean toppedOut;
+    private PieceGenerator generator;
+
+    private int score;
+    private int level;
+    private int linesCleared;
+
+    public GameBoard() {
+        this(new UniformGenerator(new SplittableRandom().nextLong()));
+    }
+
+    /** A board that deals its pieces from the given generator, e.g. a seeded one for reproducible games. */
+    public GameBoard(PieceGenerator generator) {
+        this.generator = generator;
+        rows = new int[RING];
+        board = new byte[RING][COLS];
+        columns = new int[COLS];
+        score = 0;
+        level = 1;
+        linesCleared = 0;
+        canHold = true;
+
+        nextPiece = generateRandomPiece();
+        spawnNewPiece();
+    }
+
+    /** Starts a new game on this board, dealing from a freshly seeded generator of the same kind. */
+    public void reset() {
+        reset(generator.withSeed(new SplittableRandom().nextLong()));
+    }
+
+    /**
+     * Starts a new game on this board, dealing from {@code generator}. Reuses the
+     * board's arrays and piece objects, so a menu can keep one board for every game.
+     */
+    public void reset(PieceGenerator generator) {
+        this.generator = generator;
+        Arrays.fill(rows, 0);
+        Arrays.fill(columns, 0);
+        for (byte[] row : board) {
+            Arrays.fill(row, (byte) 0);
+        }
+        base = 0;
+        surface.updateAll(columns);
+        stackKey = 0;
+        boardVersion++;
+
+        currentPiece.set(generator.next(), 0, 3, 0);
+        nextPiece.set(generator.next(), 0, 3, 0);
+        if (heldPiece != null) {
+            spareHeld = heldPiece;
+            heldPiece = null;
+        }
+        canHold = true;
+        toppedOut = false;
+        score = 0;
+        level = 1;
+        linesCleared = 0;
+    }
+
+    private Tetromino generateRandomPiece() {
+        return new Tetromino(generator.next());
+    }
+
+    public void spawnNewPiece() {
+        currentPiece = nextPiece;
+        nextPiece = generateRandomPiece();
+        canHold = true;
+
+        if (!isValidPosition(currentPiece)) {
+            // Game over
+        }
+    }
+
+    public boolean moveDown() {
+        currentPiece.moveDown();
+        if (!isValidPosition(currentPiece)) {
+            currentPiece.setY(currentPiece.getY() - 1);
+            lockPiece();
+            return false;
+        }
+        return true;
+    }
+
+    public void moveLeft() {
+        currentPiece.moveLeft();
+        if (!isValidPosition(currentPiece)) {
+            currentPiece.moveRight();
+        }
+    }
+
+    public void moveRight() {
+        currentPiece.moveRight();
+        if (!isValidPosition(currentPiece)) {
+            currentPiece.moveLeft();
+        }
+    }
+
+    public void rotate() {
+        currentPiece.rotate();
+        if (!isValidPosition(currentPiece)) {
+            // Try wall kicks
+            boolean found = false;
+
+            for (int[] kick : WALL_KICKS) {
+                currentPiece.setX(currentPiece.getX() + kick[0]);
+                currentPiece.setY(currentPiece.getY() + kick[1]);
+
+                if (isValidPosition(currentPiece)) {
+                    found = true;
+                    break;
+                }
+
+                currentPiece.setX(currentPiece.getX() - kick[0]);
+                currentPiece.setY(currentPiece.getY() - kick[1]);
+            }
+
+            if (!found) {
+                currentPiece.rotateCounterClockwise();
+            }
+        }
+    }
+
+    public void hardDrop() {
+        while (moveDown()) {
+            score += 2;
+        }
+    }
+
+    public void holdPiece() {
+        if (!canHold) return;
+
+        if (heldPiece == null) {
+            heldPiece = currentPiece;
+            spawnNewPiece();
+        } else {
+            Tetromino temp = currentPiece;
+            currentPiece = heldPiece;
+            currentPiece.setX(3);
+            currentPiece.setY(0);
+            heldPiece = temp;
+        }
+
+        canHold = false;
+    }
+
+    boolean isValidPosition(Tetromino piece) {
+        int px = piece.getX();
+        if (px + piece.getMinCol() < 0 || px + piece.getMaxCol() >= COLS) {
+            return false;
+        }
+
+        int[] masks = piece.getRowMasks();
+        int py = piece.getY();
+
+        for (int i = 0; i < masks.length; i++) {
+            if (masks[i] == 0) continue;
+
+            int boardY = py + i;
+            if (boardY >= ROWS) {
+                return false;
+            }
+            if (boardY >= 0 && (rows[slot(boardY)] & shift(masks[i], px)) != 0) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    private static int shift(int mask, int x) {
+        return x >= 0 ? mask << x : mask >>> -x;
+    }
+
+    private void lockPiece() {
+        int[] masks = currentPiece.getRowMasks();
+        int px = currentPiece.getX();
+        int py = currentPiece.getY();
+        byte color = (byte) currentPiece.getColorIndex();
+        int touched = 0;
+
+        for (int i = 0; i < masks.length; i++) {
+            int boardY = py + i;
+            if (masks[i] == 0 || boardY < 0 || boardY >= ROWS) continue;
+
+            int bits = shift(masks[i], px) & FULL_ROW;
+            int slot = slot(boardY);
+            stackKey ^= Zobrist.row(boardY, rows[slot]) ^ Zobrist.row(boardY, rows[slot] | bits);
+            rows[slot] |= bits;
+            touched |= bits;
+            while (bits != 0) {
+                int col = Integer.numberOfTrailingZeros(bits);
+                board[slot][col] = color;
+                columns[col] |= 1 << boardY;
+                bits &= bits - 1;
+            }
+        }
+        for (int bits = touched; bits != 0; bits &= bits - 1) {
+            int col = Integer.numberOfTrailingZeros(bits);
+            surface.update(col, columns[col]);
+        }
+        boardVersion++;
+
+        int lines = clearLines();
+        updateScore(lines);
+        spawnNewPiece();
+    }
+
+    private int slot(int row) {
+        return (base + row) & (RING - 1);
+    }
+
+    int clearLines() {
+        // A row is full where every column has a block
+        int cleared = -1, stack = 0;
+        for (int j = 0; j < COLS; j++) {
+            cleared &= columns[j];
+            stack |= columns[j];
+        }
+        if (cleared == 0) return 0;
+
+        // The surviving rows between the cleared lines close up towards whichever end of
+        // the stack is nearer; the storage of the rest stays put. The stack key changes
+        // for the cleared rows and for every row whose position changes.
+        int top = Integer.numberOfTrailingZeros(cleared);
+        int bottom = 31 - Integer.numberOfLeadingZeros(cleared);
+        int stackTop = Integer.numberOfTrailingZeros(stack);
+        if (bottom - stackTop <= ROWS - 1 - top) {
+            closeDownwards(cleared, stackTop, bottom);
+        } else {
+            closeUpwards(cleared, stackTop, top);
+        }
+
+        for (int j = 0; j < COLS; j++) {
+            columns[j] = removeRows(columns[j], cleared);
+        }
+        surface.updateAll(columns);
+        boardVersion++;
+        return Integer.bitCount(cleared);
+    }
+
+    // Moves the rows above the lowest cleared line down over the cleared ones
+    private void closeDownwards(int cleared, int stackTop, int bottom) {
+        int write = bottom;
+        for (int read = bottom; read >= stackTop; read--) {
+            int from = slot(read);
+            if ((cleared & (1 << read)) != 0) {
+                stackKey ^= Zobrist.row(read, FULL_ROW);
+                continue;
+            }
+            int to = slot(write);
+            stackKey ^= Zobrist.row(read, rows[from]) ^ Zobrist.row(write, rows[from]);
+            rows[to] = rows[from];
+            byte[] spare = board[to];
+            board[to] = board[from];
+            board[from] = spare;
+            write--;
+        }
+        // The cleared rows' storage has ended up on top of the stack
+        for (int i = write; i >= stackTop; i--) {
+            rows[slot(i)] = 0;
+            Arrays.fill(board[slot(i)], (byte) 0);
+        }
+    }
+
+    // Moves the rows below the highest cleared line up over the cleared ones, then moves
+    // the base back so that everything above drops without being touched
+    private void closeUpwards(int cleared, int stackTop, int top) {
+        int lines = Integer.bitCount(cleared);
+        for (int i = stackTop; i < top; i++) {
+            int row = rows[slot(i)];
+            stackKey ^= Zobrist.row(i, row) ^ Zobrist.row(i + lines, row);
+        }
+
+        int write = top;
+        for (int read = top; read < ROWS; read++) {
+            int from = slot(read);
+            if ((cleared & (1 << read)) != 0) {
+                stackKey ^= Zobrist.row(read, FULL_ROW);
+                continue;
+            }
+            int to = slot(write);
+            stackKey ^= Zobrist.row(read, rows[from]) ^ Zobrist.row(write + lines, rows[from]);
+            rows[to] = rows[from];
+            byte[] spare = board[to];
+            board[to] = board[from];
+            board[from] = spare;
+            write++;
+        }
+        // The cleared rows' storage is now at the bottom, about to fall outside the board
+        for (int i = write; i < ROWS; i++) {
+            rows[slot(i)] = 0;
+            Arrays.fill(board[slot(i)], (byte) 0);
+        }
+        base = (base - lines) & (RING - 1);
+    }
+
+    // Drops the cleared row bits from a column mask, shifting the rows above them down
+    private static int removeRows(int column, int cleared) {
+        while (cleared != 0) {
+            int row = Integer.numberOfTrailingZeros(cleared);
+            int below = column & -(2 << row);
+            int above = column & ((1 << row) - 1);
+            column = below | (above << 1);
+            cleared &= cleared - 1;
+        }
+        return column;
+    }
+
+    private void updateScore(int lines) {
+        linesCleared += lines;
+
+        switch (lines) {
+            case 1: score += 100 * level; break;
+            case 2: score += 300 * level; break;
+            case 3: score += 500 * level; break;
+            case 4: score += 800 * level; break;
+        }
+
+        level = 1 + linesCleared / 10;
+    }
+
+    /**
+     * Pushes the stack up by {@code count} rows of garbage, each with a gap at column
+     * {@code hole}. Blocks pushed above the top of the board end the game.
+     */
+    public void addGarbageLines(int count, int hole) {
+        count = Math.min(count, ROWS);
+        if (count <= 0) return;
+
+        // Rows pushed off the top leave the board and their slots are emptied; moving the
+        // base then brings empty slots in at the bottom for the garbage
+        for (int i = 0; i < count; i++) {
+            int slot = slot(i);
+            if (rows[slot] != 0) {
+                toppedOut = true;
+                rows[slot] = 0;
+                Arrays.fill(board[slot], (byte) 0);
+            }
+        }
+        base = (base + count) & (RING - 1);
+
+        int garbage = FULL_ROW & ~(1 << hole);
+        for (int i = ROWS - count; i < ROWS; i++) {
+            int slot = slot(i);
+            rows[slot] = garbage;
+            Arrays.fill(board[slot], (byte) GARBAGE_COLOR);
+            board[slot][hole] = 0;
+        }
+
+        int bottom = ((1 << count) - 1) << (ROWS - count);
+        for (int j = 0; j < COLS; j++) {
+            columns[j] = (columns[j] >>> count) | (j == hole ? 0 : bottom);
+        }
+        surface.updateAll(columns);
+        // Every row moved, so the key is worked out afresh
+        stackKey = 0;
+        for (int i = 0; i < ROWS; i++) {
+            stackKey ^= Zobrist.row(i, rows[slot(i)]);
+        }
+        boardVersion++;
+
+        // Lift the falling piece clear of the new rows if it can be
+        for (int lift = 0; lift < count && !isValidPosition(currentPiece); lift++) {
+            currentPiece.setY(currentPiece.getY() - 1);
+        }
+    }
+
+    public boolean isGameOver() {
+        return toppedOut || !isValidPosition(currentPiece);
+    }
+
+    public int getGhostY() {
+        Tetromino piece = currentPiece;
+        long key = ((long) boardVersion << 32) | (piece.getType().ordinal() << 16)
+                | (piece.getRotation() << 14) | ((piece.getX() & 0x7F) << 7) | (piece.getY() & 0x7F);
+        if (key != ghostKey) {
+            ghostY = computeGhostY(piece);
+            ghostKey = key;
+        }
+        return ghostY;
+    }
+
+    private int computeGhostY(Tetromino piece) {
+        int py = piece.getY();
+        if (!isValidPosition(piece)) {
+            return py - 1;
+        }
+
+        // The piece rests as soon as the lowest cell of any of its columns does, so the
+        // drop distance is the smallest free run below those cells.
+        int[] bottoms = piece.getState().getColumnBottoms();
+        int px = piece.getX();
+        int drop = ROWS;
+
+        for (int j = 0; j < bottoms.length; j++) {
+            if (bottoms[j] < 0) continue;
+
+            int col = columns[px + j];
+            int from = py + bottoms[j] + 1;
+            int free = from >= 0 ? Integer.numberOfTrailingZeros(col >>> from)
+                                 : Integer.numberOfTrailingZeros(col) - from;
+            drop = Math.min(drop, Math.min(free, ROWS - from));
+        }
+
+        return py + drop;
+    }
+
+    // Package-private hooks for benchmarks and tooling that need to set up exact positions
+
+    void setCell(int row, int col, int colorIndex) {
+        int slot = slot(row);
+        stackKey ^= Zobrist.row(row, rows[slot]);
+        if (colorIndex == 0) {
+            rows[slot] &= ~(1 << col);
+            columns[col] &= ~(1 << row);
+        } else {
+            rows[slot] |= 1 << col;
+            columns[col] |= 1 << row;
+        }
+        board[slot][col] = (byte) colorIndex;
+        stackKey ^= Zobrist.row(row, rows[slot]);
+        surface.update(col, columns[col]);
+        boardVersion++;
+    }
+
+    void copyRows(int[] out) {
+        for (int i = 0; i < ROWS; i++) {
+            out[i] = rows[slot(i)];
+        }
+    }
+
+    int getRowMask(int row) {
+        return rows[slot(row)];
+    }
+
+    int getColumnMask(int col) {
+        return columns[col];
+    }
+
+    /**
+     * Replaces one row of locked cells, e.g. from a snapshot: {@code mask} marks the
+     * occupied columns and {@code colours} holds 3 bits per column, the colour index
+     * minus one.
+     */
+    void restoreRow(int row, int mask, int colours) {
+        int slot = slot(row);
+        if (mask == 0 && rows[slot] == 0) return;
+        int changed = rows[slot] ^ mask;
+        stackKey ^= Zobrist.row(row, rows[slot]) ^ Zobrist.row(row, mask);
+        rows[slot] = mask;
+        byte[] cells = board[slot];
+        for (int j = 0; j < COLS; j++) {
+            int bit = (mask >>> j) & 1;
+            cells[j] = (byte) (bit == 0 ? 0 : ((colours >>> (3 * j)) & 7) + 1);
+            columns[j] = (columns[j] & ~(1 << row)) | (bit << row);
+        }
+        for (int bits = changed; bits != 0; bits &= bits - 1) {
+            int col = Integer.numberOfTrailingZeros(bits);
+            surface.update(col, columns[col]);
+        }
+        boardVersion++;
+    }
+
+    /**
+     * Replaces everything but the locked cells, reusing the board's piece objects.
+     * {@code heldType} is null for an empty hold slot. The level follows from the lines.
+     * The piece generator is left alone; seek it separately.
+     */
+    void restorePieces(Tetromino.Type currentType, int rotation, int x, int y, Tetromino.Type nextType,
+                       Tetromino.Type heldType, int heldRotation, boolean canHold, boolean toppedOut,
+                       int score, int linesCleared) {
+        currentPiece.set(currentType, rotation, x, y);
+        nextPiece.set(nextType, 0, 3, 0);
+        if (heldType == null) {
+            if (heldPiece != null) {
+                spareHeld = heldPiece;
+                heldPiece = null;
+            }
+        } else {
+            if (heldPiece == null) {
+                heldPiece = spareHeld != null ? spareHeld : new Tetromino(heldType);
+            }
+            heldPiece.set(heldType, heldRotation, 3, 0);
+        }
+        this.canHold = canHold;
+        this.toppedOut = toppedOut;
+        this.score = score;
+        this.linesCleared = linesCleared;
+        this.level = 1 + linesCleared / 10;
+    }
+
+    /** True once garbage has pushed blocks off the top of the board. */
+    boolean isToppedOut() {
+        return toppedOut;
+    }
+
+    void setCurrentPiece(Tetromino piece) {
+        currentPiece = piece;
+    }
+
+    void copyFrom(GameBoard other) {
+        base = other.base;
+        System.arraycopy(other.rows, 0, rows, 0, RING);
+        System.arraycopy(other.columns, 0, columns, 0, COLS);
+        surface.copyFrom(other.surface);
+        stackKey = other.stackKey;
+        boardVersion++;
+        for (int i = 0; i < RING; i++) {
+            System.arraycopy(other.board[i], 0, board[i], 0, COLS);
+        }
+        currentPiece.copyFrom(other.currentPiece);
+        nextPiece.copyFrom(other.nextPiece);
+        if (other.heldPiece == null) {
+            heldPiece = null;
+        } else if (heldPiece == null) {
+            heldPiece = other.heldPiece.copy();
+        } else {
+            heldPiece.copyFrom(other.heldPiece);
+        }
+        canHold = other.canHold;
+        toppedOut = other.toppedOut;
+        score = other.score;
+        level = other.level;
+        linesCleared = other.linesCleared;
+    }
+
+    // Getters
+    /** Colour index of the locked cell at the given position, or 0 when it is empty. */
+    public int getCell(int row, int col) { return board[slot(row)][col]; }
+    public Tetromino getCurrentPiece() { return currentPiece; }
+    public Tetromino getNextPiece() { return nextPiece; }
+    public Tetromino getHeldPiece() { return heldPiece; }
+    public PieceGenerator getPieceGenerator() { return generator; }
+    /** False once the current piece has been swapped with the hold slot. */
+    public boolean canHold() { return canHold; }
+    public int getScore() { return score; }
+    public int getLevel() { return level; }
+    public int getLinesCleared() { return linesCleared; }
+    /** Changes whenever the locked cells change; the falling piece does not affect it. */
+    public int getBoardVersion() { return boardVersion; }
+    /** Column heights, holes and bumpiness, kept up to date as the stack changes. */
+    public SurfaceProfile getSurface() { return surface; }
+
+    /**
+     * Zobrist key of the locked cells' occupancy. Equal stacks have equal keys
+     * whatever their colours or the moves that built them.
+     */
+    public long getStackKey() { return stackKey; }
+
+    /**
+     * Zobrist key of the whole position: the stack plus the falling, next and held
+     * pieces and whether hold is available. Score and lines are not part of it.
+     */
+    public long getZobristKey() {
+        return stackKey ^ Zobrist.pieces(currentPiece, nextPiece, heldPiece, canHold);
+    }
+    public static int getRows() { return ROWS; }
+    public static int getCols() { return COLS; }
+}
@@ -0,0 +1,193 @@
+package org.vajradevam.tetris;
+
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.SocketChannel;
+
+/**
+ * Thin client for a game server: sends key presses and releases, and keeps a copy of
+ * every board in the match up to date from the server's state diffs. All game rules
+ * run on the server.
+ *
+ * <p>Diffs are applied on the client's own reader thread, which publishes each board
+ * through a {@link TripleBuffer}, so a render thread can draw {@link #getBoard} the
+ * same way it draws simulation snapshots.
+ */
+public class GameClient implements Closeable {
+    private static final int CONNECT_TIMEOUT_MILLIS = 3000;
+    private static final int NO_WINNER_YET = -2;
+
+    private final SocketChannel channel;
+    private final ByteBuffer in = ByteBuffer.allocate(64 * 1024);
+    private final ByteBuffer out = ByteBuffer.allocate(16);
+    private final Thread reader;
+
+    private RemoteBoard[] boards;
+    private TripleBuffer<RemoteBoard>[] published;
+    private volatile boolean started;
+    private volatile int playerIndex = -1;
+    private volatile int winner = NO_WINNER_YET;
+    private volatile boolean closed;
+
+    private GameClient(SocketChannel channel) {
+        this.channel = channel;
+        this.reader = new Thread(this::readLoop, "tetris-client");
+        reader.setDaemon(true);
+    }
+
+    /** Connects and asks to join the next match. */
+    public static GameClient connect(String host, int port) throws IOException {
+        SocketChannel channel = SocketChannel.open();
+        try {
+            channel.socket().connect(new InetSocketAddress(host, port), CONNECT_TIMEOUT_MILLIS);
+            channel.socket().setTcpNoDelay(true);
+        } catch (IOException e) {
+            channel.close();
+            throw e;
+        }
+
+        GameClient client = new GameClient(channel);
+        client.send(NetProtocol.HELLO, NetProtocol.VERSION, -1);
+        client.reader.start();
+        return client;
+    }
+
+    public void press(GameSimulation.Command command) {
+        send(NetProtocol.INPUT, NetProtocol.PRESS, command.ordinal());
+    }
+
+    public void release(GameSimulation.Command command) {
+        send(NetProtocol.INPUT, NetProtocol.RELEASE, command.ordinal());
+    }
+
+    private synchronized void send(byte type, int first, int second) {
+        if (closed) return;
+        out.clear();
+        int start = NetProtocol.beginFrame(out, type);
+        out.put((byte) first);
+        if (second >= 0) {
+            out.put((byte) second);
+        }
+        NetProtocol.endFrame(out, start);
+        out.flip();
+        try {
+            while (out.hasRemaining()) {
+                channel.write(out);
+            }
+        } catch (IOException e) {
+            e.printStackTrace();
+            closeQuietly();
+        }
+    }
+
+    private void readLoop() {
+        try {
+            while (!closed) {
+                if (channel.read(in) < 0) {
+                    throw new EOFException("Server closed the connection");
+                }
+                in.flip();
+                int length;
+                while ((length = NetProtocol.completeFrame(in)) >= 0) {
+                    int end = in.position() + NetProtocol.HEADER_BYTES + length;
+                    in.position(in.position() + 2);
+                    handle(in.get());
+                    in.position(end);
+                }
+                in.compact();
+            }
+        } catch (IOException e) {
+            if (!closed) {
+                e.printStackTrace();
+            }
+        } finally {
+            closeQuietly();
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private void handle(byte type) {
+        switch (type) {
+            case NetProtocol.START: {
+                int players = in.get();
+                boards = new RemoteBoard[players];
+                TripleBuffer<RemoteBoard>[] buffers = new TripleBuffer[players];
+                for (int p = 0; p < players; p++) {
+                    boards[p] = new RemoteBoard();
+                    buffers[p] = new TripleBuffer<>(RemoteBoard::new);
+                }
+                published = buffers;
+                playerIndex = in.get();
+                started = true;
+                break;
+            }
+            case NetProtocol.STATE: {
+                int count = in.get();
+                for (int k = 0; k < count; k++) {
+                    int player = in.get();
+                    boards[player].readDiff(in);
+                    TripleBuffer<RemoteBoard> buffer = published[player];
+                    buffer.back().copyFrom(boards[player]);
+                    buffer.publish();
+                }
+                break;
+            }
+            case NetProtocol.END:
+                winner = in.get();
+                break;
+            default:
+                // Unknown frames from a newer server are skipped
+                break;
+        }
+    }
+
+    /** True once the server has put this client in a match. */
+    public boolean isStarted() {
+        return started;
+    }
+
+    public int getPlayerCount() {
+        return started ? published.length : 0;
+    }
+
+    /** This client's board in the match, or -1 before the match starts. */
+    public int getPlayerIndex() {
+        return playerIndex;
+    }
+
+    /** Latest state of a board. Call from a single reader thread, once started. */
+    public BoardView getBoard(int player) {
+        return published[player].read();
+    }
+
+    public boolean isFinished() {
+        return winner != NO_WINNER_YET;
+    }
+
+    /** Index of the winning player, or -1 if nobody won. Only meaningful once finished. */
+    public int getWinner() {
+        return winner;
+    }
+
+    /** True when the connection has been lost or closed. */
+    public boolean isClosed() {
+        return closed;
+    }
+
+    @Override
+    public void close() {
+        closeQuietly();
+    }
+
+    private void closeQuietly() {
+        closed = true;
+        try {
+            channel.close();
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
+}
@@ -0,0 +1,497 @@
+package org.vajradevam.tetris;
+
+import java.util.Arrays;
+import java.util.Queue;
+import java.util.SplittableRandom;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Runs the game rules for one or more boards on a dedicated thread at a fixed tick
+ * rate, independent of how often the screen is redrawn.
+ *
+ * <p>Input from any thread is queued with {@link #submit}, or {@link #press} and
+ * {@link #release} for held keys, and applied at the start of the next tick. Held
+ * moves and soft drops repeat on the simulation's own clock (DAS, then ARR), so
+ * repeat timing does not depend on OS key repeat or the frame rate. After every
+ * tick each board is copied into a {@link BoardSnapshot} and published through a
+ * {@link TripleBuffer}, so the render thread only ever reads snapshots and never
+ * touches a GameBoard while it is being changed.
+ *
+ * <p>Each board falls under its own {@link Gravity}, which carries fractions of a row
+ * between ticks and applies lock delay, so the game plays at the same speed whatever
+ * the tick rate.
+ *
+ * <p>Instead of {@link #start}ing its own thread, a simulation can be driven by a
+ * caller through {@link #tick}, for example by a {@link SessionScheduler} that
+ * sleeps through {@link #getIdleTicks} between gravity drops.
+ */
+public class GameSimulation {
+    public static final int DEFAULT_TICK_RATE = 120;
+    public static final int DEFAULT_DAS_MILLIS = 167;
+    public static final int DEFAULT_ARR_MILLIS = 33;
+    public static final int DEFAULT_SOFT_DROP_MILLIS = 33;
+
+    // Garbage rows sent for clearing 0-4 lines at once in battle games
+    private static final int[] GARBAGE_FOR_CLEAR = {0, 0, 1, 2, 4};
+
+    // Kinds of queued input
+    private static final int TAP = 0, PRESS = 1, RELEASE = 2;
+    private static final Command[] COMMANDS = Command.values();
+
+    public enum Command {
+        MOVE_LEFT, MOVE_RIGHT, SOFT_DROP, ROTATE, HARD_DROP, HOLD
+    }
+
+    /**
+     * Supplies moves for a player from inside the simulation, e.g. a bot. Called on the
+     * simulation thread once per tick, after queued input; returns null to do nothing.
+     */
+    public interface Controller {
+        Command nextCommand(GameBoard board);
+    }
+
+    private static final class Input {
+        final int player;
+        final Command command;
+        final int kind;
+
+        Input(int player, Command command, int kind) {
+            this.player = player;
+            this.command = command;
+            this.kind = kind;
+        }
+    }
+
+    private final GameBoard[] boards;
+    private final TripleBuffer<BoardSnapshot>[] snapshots;
+    private final boolean[] gameOver;
+    private final Gravity[] gravity;
+    private final Input[][][] inputs;
+    // Ticks each command has been held for, or -1 when it is not held
+    private final int[][] heldTicks;
+    private final Controller[] controllers;
+    private final int[] linesSent;
+    private final Queue<Input> inputQueue = new ConcurrentLinkedQueue<>();
+
+    private final long tickNanos;
+    // Ticks run back-to-back to catch up after a stall, up to a quarter second's worth
+    private final int maxCatchUpTicks;
+    private int dasTicks;
+    private int arrTicks;
+    private int softDropTicks;
+    private long tickCount;
+    private ReplayRecorder recorder;
+    private boolean garbage;
+    private SplittableRandom garbageRandom;
+    private volatile boolean paused;
+    private volatile boolean running;
+    private Thread thread;
+
+    public GameSimulation(GameBoard... boards) {
+        this(DEFAULT_TICK_RATE, boards);
+    }
+
+    @SuppressWarnings("unchecked")
+    public GameSimulation(int tickRate, GameBoard... boards) {
+        this.boards = boards;
+        this.tickNanos = 1_000_000_000L / tickRate;
+        this.maxCatchUpTicks = Math.max(1, tickRate / 4);
+        this.snapshots = new TripleBuffer[boards.length];
+        this.gameOver = new boolean[boards.length];
+        this.gravity = new Gravity[boards.length];
+        this.controllers = new Controller[boards.length];
+        this.linesSent = new int[boards.length];
+        this.heldTicks = new int[boards.length][Command.values().length];
+        setAutoRepeat(DEFAULT_DAS_MILLIS, DEFAULT_ARR_MILLIS, DEFAULT_SOFT_DROP_MILLIS);
+
+        // One shared Input per kind, player and command, so submitting allocates nothing but the queue node
+        this.inputs = new Input[3][boards.length][Command.values().length];
+        for (int p = 0; p < boards.length; p++) {
+            for (Command command : Command.values()) {
+                for (int kind = TAP; kind <= RELEASE; kind++) {
+                    inputs[kind][p][command.ordinal()] = new Input(p, command, kind);
+                }
+            }
+            Arrays.fill(heldTicks[p], -1);
+            gravity[p] = new Gravity(tickRate);
+            snapshots[p] = new TripleBuffer<>(BoardSnapshot::new);
+            gameOver[p] = boards[p].isGameOver();
+            publish(p);
+        }
+    }
+
+    public void start() {
+        if (running) return;
+        running = true;
+        thread = new Thread(this::run, "tetris-simulation");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    public void stop() {
+        running = false;
+        Thread t = thread;
+        if (t != null && t != Thread.currentThread()) {
+            LockSupport.unpark(t);
+            try {
+                t.join(1000);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        thread = null;
+    }
+
+    private void run() {
+        long next = System.nanoTime();
+
+        while (running) {
+            long now = System.nanoTime();
+            if (now < next) {
+                LockSupport.parkNanos(next - now);
+                continue;
+            }
+
+            int ticks = 0;
+            while (now >= next && ticks < maxCatchUpTicks) {
+                tick();
+                next += tickNanos;
+                ticks++;
+            }
+            if (ticks == maxCatchUpTicks) {
+                // Too far behind; drop the backlog rather than fast-forwarding the game
+                next = now + tickNanos;
+            }
+        }
+    }
+
+    /**
+     * Starts over at tick 0 after the boards have been {@link GameBoard#reset}: drops
+     * queued input, held keys and the recorder, and publishes the new boards. Controllers
+     * and the garbage setting are kept. Call while stopped.
+     */
+    public void reset() {
+        inputQueue.clear();
+        tickCount = 0;
+        recorder = null;
+        paused = false;
+        for (int p = 0; p < boards.length; p++) {
+            gameOver[p] = boards[p].isGameOver();
+            gravity[p].reset();
+            linesSent[p] = boards[p].getLinesCleared();
+            Arrays.fill(heldTicks[p], -1);
+            publish(p);
+        }
+    }
+
+    /** Queues a single command for a player; safe to call from any thread. */
+    public void submit(int player, Command command) {
+        inputQueue.offer(inputs[TAP][player][command.ordinal()]);
+    }
+
+    /**
+     * Queues a key going down: the command is applied once, and moves and soft drops
+     * then repeat until {@link #release}. Safe to call from any thread.
+     */
+    public void press(int player, Command command) {
+        inputQueue.offer(inputs[PRESS][player][command.ordinal()]);
+    }
+
+    public void release(int player, Command command) {
+        inputQueue.offer(inputs[RELEASE][player][command.ordinal()]);
+    }
+
+    /**
+     * Sets how long a move is held before it repeats (DAS), how often it then repeats
+     * (ARR), and how often a held soft drop repeats. Call before {@link #start}.
+     */
+    public void setAutoRepeat(int dasMillis, int arrMillis, int softDropMillis) {
+        dasTicks = toTicks(dasMillis);
+        arrTicks = toTicks(arrMillis);
+        softDropTicks = toTicks(softDropMillis);
+    }
+
+    private int toTicks(int millis) {
+        return (int) Math.max(1, Math.round(millis * 1_000_000.0 / tickNanos));
+    }
+
+    /**
+     * Fixes the fall speed of every board at {@code g} rows per 1/60 s, up to
+     * {@link Gravity#MAX_G}; 0, the default, speeds up with the level. Call before {@link #start}.
+     */
+    public void setGravity(double g) {
+        for (Gravity engine : gravity) {
+            engine.setFixedG(g);
+        }
+    }
+
+    /**
+     * Sets how long a landed piece rests before locking and how many moves or rotations
+     * may restart that wait. 0 ms locks on landing. Call before {@link #start}.
+     */
+    public void setLockDelay(int millis, int maxResets) {
+        for (Gravity engine : gravity) {
+            engine.setLockDelay(millis, maxResets);
+        }
+    }
+
+    /** Lets a controller play for a player. Call before {@link #start}. */
+    public void setController(int player, Controller controller) {
+        controllers[player] = controller;
+    }
+
+    /**
+     * Turns on battle rules: lines cleared by one player are sent as garbage rows to
+     * the next player still in the game. {@code seed} picks the gaps in those rows.
+     * Call before {@link #start}.
+     */
+    public void setGarbageEnabled(boolean enabled, long seed) {
+        this.garbage = enabled;
+        this.garbageRandom = new SplittableRandom(seed);
+        for (int p = 0; p < boards.length; p++) {
+            linesSent[p] = boards[p].getLinesCleared();
+        }
+    }
+
+    /** Records every change made to the boards from the next tick on. Call before {@link #start}. */
+    public void setRecorder(ReplayRecorder recorder) {
+        this.recorder = recorder;
+    }
+
+    /** Ticks run so far, not counting paused ones. */
+    public long getTickCount() {
+        return tickCount;
+    }
+
+    public void setPaused(boolean paused) {
+        this.paused = paused;
+    }
+
+    public boolean isPaused() {
+        return paused;
+    }
+
+    /**
+     * Advances every board by one tick: applies queued input, then controllers, then
+     * gravity, then battle garbage. Called by the simulation thread, or directly by headless callers that
+     * drive time themselves.
+     */
+    public void tick() {
+        if (paused) {
+            drainInput(false);
+            return;
+        }
+        long start = Metrics.ENABLED ? System.nanoTime() : 0;
+
+        if (recorder != null) {
+            recorder.beginTick(tickCount, boards);
+        }
+
+        drainInput(true);
+
+        for (int p = 0; p < boards.length; p++) {
+            if (gameOver[p]) continue;
+
+            autoRepeat(p);
+
+            GameBoard board = boards[p];
+            Controller controller = controllers[p];
+            if (controller != null) {
+                Command command = controller.nextCommand(board);
+                if (command != null) {
+                    apply(p, command);
+                }
+            }
+
+            for (int drops = gravity[p].tick(board); drops > 0; drops--) {
+                if (recorder != null) {
+                    recorder.gravity(tickCount, p);
+                }
+                long drop = Metrics.ENABLED ? System.nanoTime() : 0;
+                board.moveDown();
+                if (Metrics.ENABLED) {
+                    Metrics.BOARD_OP.recordSince(drop);
+                }
+            }
+        }
+
+        if (garbage) {
+            sendGarbage();
+        }
+
+        for (int p = 0; p < boards.length; p++) {
+            if (gameOver[p]) continue;
+            gameOver[p] = boards[p].isGameOver();
+            publish(p);
+        }
+
+        tickCount++;
+        if (Metrics.ENABLED) {
+            Metrics.TICK.recordSince(start);
+        }
+    }
+
+    /**
+     * Ticks that would pass without anything happening if no input arrives: none while
+     * input is queued, a key is held or a controller plays, otherwise the ticks before
+     * the next gravity drop or lock. Lets a scheduler sleep through them with {@link #skipTicks}.
+     */
+    public long getIdleTicks() {
+        if (!inputQueue.isEmpty()) return 0;
+
+        long idle = Long.MAX_VALUE;
+        for (int p = 0; p < boards.length; p++) {
+            if (gameOver[p]) continue;
+            if (controllers[p] != null) return 0;
+            for (int held : heldTicks[p]) {
+                if (held >= 0) return 0;
+            }
+            idle = Math.min(idle, gravity[p].getIdleTicks(boards[p]));
+        }
+        return idle;
+    }
+
+    /**
+     * Advances the clock by {@code ticks} in which nothing happens, at most
+     * {@link #getIdleTicks}. Not available while recording, since a replay has a
+     * keyframe every so many ticks.
+     */
+    public void skipTicks(long ticks) {
+        if (recorder != null) {
+            throw new IllegalStateException("Cannot skip ticks while recording");
+        }
+        if (paused || ticks <= 0) return;
+        for (int p = 0; p < boards.length; p++) {
+            if (!gameOver[p]) {
+                gravity[p].skipTicks(boards[p], ticks);
+            }
+        }
+        tickCount += ticks;
+    }
+
+    // Each player's line clears this tick become garbage for the next player still in the game
+    private void sendGarbage() {
+        for (int p = 0; p < boards.length; p++) {
+            int cleared = boards[p].getLinesCleared() - linesSent[p];
+            linesSent[p] += cleared;
+            if (cleared == 0 || gameOver[p]) continue;
+
+            int lines = cleared < GARBAGE_FOR_CLEAR.length ? GARBAGE_FOR_CLEAR[cleared] : cleared;
+            int target = nextAlive(p);
+            if (lines == 0 || target < 0) continue;
+
+            int hole = garbageRandom.nextInt(GameBoard.getCols());
+            if (recorder != null) {
+                recorder.garbage(tickCount, target, lines, hole);
+            }
+            boards[target].addGarbageLines(lines, hole);
+        }
+    }
+
+    private int nextAlive(int player) {
+        for (int i = 1; i < boards.length; i++) {
+            int p = (player + i) % boards.length;
+            if (!gameOver[p] && !boards[p].isGameOver()) return p;
+        }
+        return -1;
+    }
+
+    // Key releases always count, so a key let go while paused does not stay held
+    private void drainInput(boolean applying) {
+        Input input;
+        while ((input = inputQueue.poll()) != null) {
+            int[] held = heldTicks[input.player];
+            if (input.kind == RELEASE) {
+                held[input.command.ordinal()] = -1;
+                continue;
+            }
+            if (!applying || gameOver[input.player]) continue;
+
+            if (input.kind == PRESS) {
+                held[input.command.ordinal()] = 0;
+            }
+            apply(input.player, input.command);
+        }
+    }
+
+    private void autoRepeat(int player) {
+        int[] held = heldTicks[player];
+        for (int c = 0; c < held.length; c++) {
+            if (held[c] < 0) continue;
+
+            // Counting from 0 on the tick the press was applied, so the first repeat comes dasTicks later
+            int ticks = held[c]++;
+            Command command = COMMANDS[c];
+            boolean repeat;
+            if (command == Command.MOVE_LEFT || command == Command.MOVE_RIGHT) {
+                repeat = ticks >= dasTicks && (ticks - dasTicks) % arrTicks == 0;
+            } else if (command == Command.SOFT_DROP) {
+                repeat = ticks > 0 && ticks % softDropTicks == 0;
+            } else {
+                repeat = false; // rotate, hard drop and hold act once per press
+            }
+            if (repeat) {
+                apply(player, command);
+            }
+        }
+    }
+
+    private void apply(int player, Command command) {
+        if (recorder != null) {
+            recorder.command(tickCount, player, command);
+        }
+        long start = Metrics.ENABLED ? System.nanoTime() : 0;
+        GameBoard board = boards[player];
+        Tetromino piece = board.getCurrentPiece();
+        int x = piece.getX(), y = piece.getY(), rotation = piece.getRotation();
+        apply(board, command);
+        if (Metrics.ENABLED) {
+            Metrics.BOARD_OP.recordSince(start);
+        }
+
+        // A move or rotation of a resting piece restarts its lock delay
+        if ((command == Command.MOVE_LEFT || command == Command.MOVE_RIGHT || command == Command.ROTATE)
+                && (piece.getX() != x || piece.getY() != y || piece.getRotation() != rotation)) {
+            gravity[player].moved(board);
+        }
+    }
+
+    static void apply(GameBoard board, Command command) {
+        switch (command) {
+            case MOVE_LEFT:
+                board.moveLeft();
+                break;
+            case MOVE_RIGHT:
+                board.moveRight();
+                break;
+            case SOFT_DROP:
+                board.moveDown();
+                break;
+            case ROTATE:
+                board.rotate();
+                break;
+            case HARD_DROP:
+                board.hardDrop();
+                break;
+            case HOLD:
+                board.holdPiece();
+                break;
+        }
+    }
+
+    private void publish(int player) {
+        TripleBuffer<BoardSnapshot> buffer = snapshots[player];
+        buffer.back().capture(boards[player], gameOver[player]);
+        buffer.publish();
+    }
+
+    /** Latest published state of a player's board. Call from a single reader thread. */
+    public BoardSnapshot getSnapshot(int player) {
+        return snapshots[player].read();
+    }
+
+    public int getPlayerCount() {
+        return boards.length;
+    }
+}
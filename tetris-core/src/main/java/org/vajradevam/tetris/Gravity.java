@@ -0,0 +1,174 @@
+package org.vajradevam.tetris;
+
+/**
+ * Gravity and lock delay for one board, advanced in fixed ticks by {@link GameSimulation}.
+ *
+ * <p>Fall speed accumulates as exact integer progress, carrying any fraction of a row
+ * from one tick to the next, so the same number of rows falls in the same time at any
+ * tick rate, and a fast enough speed drops several rows in one tick. Speed follows the
+ * level curve, 1 + level / 2 rows per second, up to {@link #MAX_G}, or can be fixed in
+ * G (rows per 1/60 s).
+ *
+ * <p>A piece that lands is not locked straight away: it locks once it has rested for
+ * the lock delay. Each move or rotation of a landed piece restarts the delay, up to
+ * a limit of resets per piece, and reaching a new lowest row makes the full allowance
+ * available again. A move past the limit leaves the piece to lock as soon as it rests,
+ * even if a wall kick lifted it first.
+ *
+ * <p>The engine never touches the board itself. {@link #tick} returns how many times
+ * to call {@link GameBoard#moveDown}, the last of which locks the piece when the delay
+ * has run out, so a replay of those calls needs no timers.
+ */
+public final class Gravity {
+    public static final double MAX_G = 20;
+    public static final int DEFAULT_LOCK_DELAY_MILLIS = 500;
+    public static final int DEFAULT_MAX_LOCK_RESETS = 15;
+
+    private static final long MAX_SPEED = (long) (MAX_G * 60 * 1000);
+    // Time is counted in 1/tickRate ns, so a tick is exactly a billion of them whatever the rate
+    private static final long TICK = 1_000_000_000L;
+
+    private final int tickRate;
+    // A row of progress: time times thousandths of a row per second
+    private final long row;
+    private long fixedSpeed;
+    private long lockDelay;
+    private int maxResets = DEFAULT_MAX_LOCK_RESETS;
+
+    // State for the falling piece, started afresh whenever a new one appears
+    private Tetromino piece;
+    private long progress;
+    private long resting;
+    // Whether the piece has touched down since it last reached a new lowest row
+    private boolean landed;
+    private int resets;
+    private int lowestY;
+    // Time past the lock delay when the last piece locked, already spent falling by the next
+    private long overrun;
+
+    public Gravity(int tickRate) {
+        this.tickRate = tickRate;
+        this.row = 1000 * TICK * tickRate;
+        setLockDelay(DEFAULT_LOCK_DELAY_MILLIS, DEFAULT_MAX_LOCK_RESETS);
+    }
+
+    /** Fixes the fall speed at {@code g} rows per 1/60 s, at most {@link #MAX_G}; 0 follows the level curve. */
+    public void setFixedG(double g) {
+        fixedSpeed = Math.round(Math.min(Math.max(g, 0), MAX_G) * 60 * 1000);
+    }
+
+    /** Sets how long a landed piece rests before it locks and how many moves may restart that. */
+    public void setLockDelay(int millis, int maxResets) {
+        this.lockDelay = Math.max(0, millis) * 1_000_000L * tickRate;
+        this.maxResets = Math.max(0, maxResets);
+    }
+
+    /** Forgets the falling piece, e.g. after the board has been reset. */
+    public void reset() {
+        piece = null;
+        overrun = 0;
+    }
+
+    // Thousandths of a row per second
+    private long speed(GameBoard board) {
+        if (fixedSpeed > 0) return fixedSpeed;
+        return Math.min(1000 + 500L * board.getLevel(), MAX_SPEED);
+    }
+
+    private void follow(GameBoard board) {
+        Tetromino current = board.getCurrentPiece();
+        if (current != piece) {
+            piece = current;
+            progress = overrun * speed(board);
+            overrun = 0;
+            resting = 0;
+            landed = false;
+            resets = 0;
+            lowestY = current.getY();
+        } else if (current.getY() > lowestY) {
+            lowestY = current.getY();
+            resting = 0;
+            landed = false;
+            resets = 0;
+        }
+    }
+
+    /**
+     * Advances one tick and returns how many gravity drops to apply: the rows the piece
+     * falls, plus one more that locks it if it has rested for the full delay.
+     */
+    public int tick(GameBoard board) {
+        follow(board);
+        int room = board.getGhostY() - piece.getY();
+        int drops = 0;
+        long rest = TICK;
+        if (room > 0) {
+            long speed = speed(board);
+            progress += TICK * speed;
+            drops = (int) Math.min(progress / row, room);
+            progress -= drops * row;
+            room -= drops;
+            // Only a new lowest row restores the allowance; falling back after a kick upwards does not
+            if (piece.getY() + drops > lowestY) {
+                lowestY = piece.getY() + drops;
+                resting = 0;
+                landed = false;
+                resets = 0;
+            }
+            // A piece that lands part way through the tick rests for the remainder
+            rest = progress / speed;
+        }
+        if (room <= 0) {
+            // Speed does not build up while resting
+            progress = 0;
+            landed = true;
+            resting += rest;
+            if (resting >= lockDelay) {
+                overrun = resting - lockDelay;
+                drops++;
+            }
+        }
+        return drops;
+    }
+
+    /** Called after a move or rotation actually moved the falling piece. */
+    public void moved(GameBoard board) {
+        follow(board);
+        if (landed) {
+            if (resets < maxResets) {
+                resets++;
+                resting = 0;
+            } else {
+                // Out of resets: the piece locks as soon as it rests again
+                resting = lockDelay;
+            }
+        }
+    }
+
+    /** Ticks that would pass before {@link #tick} returns a drop, if nothing else happens. */
+    public long getIdleTicks(GameBoard board) {
+        follow(board);
+        long remaining;
+        long perTick;
+        if (board.getGhostY() > piece.getY()) {
+            remaining = row - progress;
+            perTick = TICK * speed(board);
+        } else {
+            remaining = lockDelay - resting;
+            perTick = TICK;
+        }
+        // The drop happens on the first tick that reaches what remains
+        return Math.max(0, (remaining + perTick - 1) / perTick - 1);
+    }
+
+    /** Advances the clock by {@code ticks} in which nothing happens, at most {@link #getIdleTicks}. */
+    public void skipTicks(GameBoard board, long ticks) {
+        follow(board);
+        if (board.getGhostY() > piece.getY()) {
+            progress += ticks * TICK * speed(board);
+        } else {
+            landed = true;
+            resting += ticks * TICK;
+        }
+    }
+}
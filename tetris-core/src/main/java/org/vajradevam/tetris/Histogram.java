@@ -0,0 +1,182 @@
+package org.vajradevam.tetris;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Durations in nanoseconds, counted in log-linear buckets: exact below 32 ns, then
+ * 16 buckets per power of two, so a percentile is within about 6% of the true value.
+ * Recording is a few atomic adds and never allocates; values above about 18 minutes
+ * land in the last bucket.
+ */
+public final class Histogram implements HistogramMXBean {
+    private static final int SUB_BITS = 4;
+    private static final int SUB_BUCKETS = 1 << SUB_BITS;
+    private static final int MAX_EXPONENT = 40;
+    private static final int BUCKETS = (MAX_EXPONENT - SUB_BITS + 1) * SUB_BUCKETS + SUB_BUCKETS;
+
+    private final String name;
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+    private final LongAdder count = new LongAdder();
+    private final LongAdder total = new LongAdder();
+    private final LongAccumulator max = new LongAccumulator(Math::max, 0);
+
+    public Histogram(String name) {
+        this.name = name;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void record(long nanos) {
+        if (nanos < 0) nanos = 0;
+        counts.incrementAndGet(bucket(nanos));
+        count.increment();
+        total.add(nanos);
+        max.accumulate(nanos);
+    }
+
+    /** Records the time since {@code startNanos}, a {@link System#nanoTime} reading. */
+    public void recordSince(long startNanos) {
+        record(System.nanoTime() - startNanos);
+    }
+
+    static int bucket(long nanos) {
+        if (nanos < 2 * SUB_BUCKETS) return (int) nanos;
+        int exponent = Math.min(63 - Long.numberOfLeadingZeros(nanos), MAX_EXPONENT);
+        int top = exponent == MAX_EXPONENT && nanos >>> MAX_EXPONENT > 1
+                ? 2 * SUB_BUCKETS - 1 : (int) (nanos >>> (exponent - SUB_BITS));
+        return (exponent - SUB_BITS) * SUB_BUCKETS + top;
+    }
+
+    // Largest value that lands in the bucket
+    static long upperBound(int bucket) {
+        if (bucket < 2 * SUB_BUCKETS) return bucket;
+        int shift = bucket / SUB_BUCKETS - 1;
+        long top = bucket % SUB_BUCKETS + SUB_BUCKETS;
+        return ((top + 1) << shift) - 1;
+    }
+
+    // Value at or below which a fraction q of the counted values lie
+    private static long percentile(long[] counts, long count, double q, long max) {
+        if (count == 0) return 0;
+        long rank = (long) Math.ceil(q * count);
+        long seen = 0;
+        for (int i = 0; i < counts.length; i++) {
+            seen += counts[i];
+            if (seen >= rank && counts[i] != 0) {
+                return Math.min(upperBound(i), max);
+            }
+        }
+        return max;
+    }
+
+    /** Value in nanoseconds at or below which a fraction {@code q} of the recorded values lie. */
+    public long getPercentile(double q) {
+        long[] copy = new long[BUCKETS];
+        long n = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            copy[i] = counts.get(i);
+            n += copy[i];
+        }
+        return percentile(copy, n, q, max.get());
+    }
+
+    @Override
+    public long getCount() {
+        return count.sum();
+    }
+
+    /** Largest value recorded, in nanoseconds. */
+    public long getMax() {
+        return max.get();
+    }
+
+    @Override
+    public double getMeanMicros() {
+        long n = count.sum();
+        return n == 0 ? 0 : total.sum() / (double) n / 1000;
+    }
+
+    @Override
+    public double getP50Micros() {
+        return getPercentile(0.5) / 1000.0;
+    }
+
+    @Override
+    public double getP90Micros() {
+        return getPercentile(0.9) / 1000.0;
+    }
+
+    @Override
+    public double getP99Micros() {
+        return getPercentile(0.99) / 1000.0;
+    }
+
+    @Override
+    public double getP999Micros() {
+        return getPercentile(0.999) / 1000.0;
+    }
+
+    @Override
+    public double getMaxMicros() {
+        return max.get() / 1000.0;
+    }
+
+    @Override
+    public void reset() {
+        for (int i = 0; i < BUCKETS; i++) {
+            counts.set(i, 0);
+        }
+        count.reset();
+        total.reset();
+        max.reset();
+    }
+
+    /**
+     * The values recorded between two calls of {@link #roll}, e.g. for a display that
+     * refreshes every second. Reuses its arrays, so rolling allocates nothing.
+     */
+    public final class Window {
+        private final long[] last = new long[BUCKETS];
+        private final long[] delta = new long[BUCKETS];
+        private long deltaCount;
+        private long deltaMax;
+
+        public void roll() {
+            deltaCount = 0;
+            deltaMax = 0;
+            for (int i = 0; i < BUCKETS; i++) {
+                long now = counts.get(i);
+                delta[i] = now - last[i];
+                last[i] = now;
+                if (delta[i] > 0) {
+                    deltaCount += delta[i];
+                    deltaMax = upperBound(i);
+                }
+            }
+        }
+
+        public long getCount() {
+            return deltaCount;
+        }
+
+        /** In nanoseconds, to bucket precision. */
+        public long getPercentile(double q) {
+            return percentile(delta, deltaCount, q, deltaMax);
+        }
+
+        /** Upper bound of the largest value in the window, in nanoseconds. */
+        public long getMax() {
+            return deltaMax;
+        }
+    }
+
+    public Window newWindow() {
+        Window window = new Window();
+        window.roll();
+        return window;
+    }
+}
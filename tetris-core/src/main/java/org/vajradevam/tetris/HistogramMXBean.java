@@ -0,0 +1,21 @@
+package org.vajradevam.tetris;
+
+/** JMX view of a {@link Histogram}; times are in microseconds. */
+public interface HistogramMXBean {
+    long getCount();
+
+    double getMeanMicros();
+
+    double getP50Micros();
+
+    double getP90Micros();
+
+    double getP99Micros();
+
+    double getP999Micros();
+
+    double getMaxMicros();
+
+    /** Forgets everything recorded so far. */
+    void reset();
+}
@@ -0,0 +1,69 @@
+package org.vajradevam.tetris;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+
+/**
+ * Timing histograms for the game loop, simulation and score storage, published over
+ * JMX as {@code org.vajradevam.tetris:type=Metrics,name=...}. Off unless the JVM is
+ * started with {@code -Dtetris.metrics=true}; every recording site checks
+ * {@link #ENABLED} first, and since it is a constant the JIT drops those sites
+ * entirely when it is false.
+ */
+public final class Metrics {
+    public static final boolean ENABLED = Boolean.getBoolean("tetris.metrics");
+
+    /** Time between consecutive frames of the FX game loop. */
+    public static final Histogram FRAME = new Histogram("frame");
+    /** Time spent drawing boards within a frame. */
+    public static final Histogram RENDER = new Histogram("render");
+    /** One {@link GameSimulation#tick} of every board. */
+    public static final Histogram TICK = new Histogram("tick");
+    /** One move, rotation, drop or hold applied to a board by a simulation. */
+    public static final Histogram BOARD_OP = new Histogram("board-op");
+    /** Writing a batch of scores to disk, or reading the leaderboard. */
+    public static final Histogram LEADERBOARD_IO = new Histogram("leaderboard-io");
+
+    private static final ThreadMXBean THREADS = ManagementFactory.getThreadMXBean();
+
+    static {
+        if (ENABLED) {
+            register(FRAME, RENDER, TICK, BOARD_OP, LEADERBOARD_IO);
+        }
+    }
+
+    private Metrics() {}
+
+    private static void register(Histogram... histograms) {
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        for (Histogram histogram : histograms) {
+            try {
+                server.registerMBean(histogram,
+                    new ObjectName("org.vajradevam.tetris:type=Metrics,name=" + histogram.getName()));
+            } catch (JMException e) {
+                e.printStackTrace();
+            }
+        }
+    }
+
+    /** Bytes allocated so far by the calling thread, or -1 if the JVM does not count them. */
+    public static long threadAllocatedBytes() {
+        if (THREADS instanceof com.sun.management.ThreadMXBean) {
+            return ((com.sun.management.ThreadMXBean) THREADS).getThreadAllocatedBytes(Thread.currentThread().getId());
+        }
+        return -1;
+    }
+
+    /** Garbage collections so far, summed over all collectors. */
+    public static long gcCount() {
+        long count = 0;
+        for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+            count += Math.max(0, gc.getCollectionCount());
+        }
+        return count;
+    }
+}
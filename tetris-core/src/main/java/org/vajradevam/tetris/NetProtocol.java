@@ -0,0 +1,55 @@
+package org.vajradevam.tetris;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Wire format between a game server and its clients, shared by the server,
+ * {@link GameClient} and {@link RemoteBoard}.
+ *
+ * <pre>
+ * frame    payload length (unsigned short), type (byte), payload
+ * HELLO    client: protocol version; joins the queue for the next match
+ * INPUT    client: PRESS or RELEASE, command ordinal
+ * START    server: player count, the client's player index
+ * STATE    server: board count, then per changed board a diff (see RemoteBoard)
+ * END      server: index of the winner, or -1 when nobody won
+ * </pre>
+ *
+ * <p>The server sends a STATE frame only on ticks where something a client can see
+ * changed, and only the parts that changed: the rows whose cells differ from what
+ * that client last received, the falling piece, the preview pieces and counters.
+ */
+final class NetProtocol {
+    static final int VERSION = 1;
+    static final int DEFAULT_PORT = 7420;
+    static final int HEADER_BYTES = 3;
+
+    static final byte HELLO = 1;
+    static final byte INPUT = 2;
+    static final byte START = 3;
+    static final byte STATE = 4;
+    static final byte END = 5;
+
+    static final byte PRESS = 1;
+    static final byte RELEASE = 2;
+
+    private NetProtocol() {}
+
+    /** Starts a frame, leaving room for the length, which {@link #endFrame} fills in. */
+    static int beginFrame(ByteBuffer out, byte type) {
+        int start = out.position();
+        out.putShort((short) 0).put(type);
+        return start;
+    }
+
+    static void endFrame(ByteBuffer out, int start) {
+        out.putShort(start, (short) (out.position() - start - HEADER_BYTES));
+    }
+
+    /** Length of the frame at the buffer's position, or -1 when it has not fully arrived. */
+    static int completeFrame(ByteBuffer in) {
+        if (in.remaining() < HEADER_BYTES) return -1;
+        int length = in.getShort(in.position()) & 0xFFFF;
+        return in.remaining() >= HEADER_BYTES + length ? length : -1;
+    }
+}
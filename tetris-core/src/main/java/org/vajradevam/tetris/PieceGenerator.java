@@ -0,0 +1,21 @@
+package org.vajradevam.tetris;
+
+/**
+ * Source of the pieces a board deals. Implementations are seeded, so the same seed
+ * always deals the same sequence, and each board owns its generator, so boards
+ * running on different threads never share random state.
+ */
+public interface PieceGenerator {
+    Tetromino.Type next();
+
+    long getSeed();
+
+    /** Number of pieces dealt so far. */
+    long getPosition();
+
+    /** Continues the sequence as if {@code position} pieces had been dealt. */
+    void seek(long position);
+
+    /** A new generator of the same kind, dealing the sequence for {@code seed} from the start. */
+    PieceGenerator withSeed(long seed);
+}
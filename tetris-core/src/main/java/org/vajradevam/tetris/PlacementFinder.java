@@ -0,0 +1,280 @@
+package org.vajradevam.tetris;
+
+import java.util.Arrays;
+
+/**
+ * Finds every place a piece can come to rest from where it is now, including tucks
+ * under overhangs and spins, along with the shortest sequence of inputs that gets it
+ * there. Moves follow {@link GameBoard}'s rules exactly: one column left or right,
+ * one row down, and clockwise rotation with its wall kicks. Every sequence ends with
+ * a hard drop.
+ *
+ * <p>The search is a breadth-first walk over (rotation, x, y). Which rows each
+ * rotation and column can sit in is worked out up front as one bit mask from the
+ * board's column masks, so testing a move is a single bit test. All buffers belong
+ * to the finder and are reused, so {@link #find} never allocates; results stay valid
+ * until the next call. A finder is not thread-safe; keep one per thread.
+ */
+public final class PlacementFinder {
+    private static final int ROWS = GameBoard.getRows();
+    private static final int COLS = GameBoard.getCols();
+    private static final int[][] WALL_KICKS = {{-1, 0}, {1, 0}, {0, -1}, {-2, 0}, {2, 0}};
+
+    // A state packs rotation, x + X_OFFSET and y + Y_OFFSET into 2 + 4 + 5 bits
+    private static final int X_OFFSET = 4;
+    private static final int X_SLOTS = 16;
+    private static final int Y_OFFSET = 8;
+    private static final int STATES = 4 * X_SLOTS * 32;
+    // Rows below the board count as filled
+    private static final long FLOOR = -1L << (ROWS + Y_OFFSET);
+
+    private static final GameSimulation.Command[] MOVES = {
+        GameSimulation.Command.MOVE_LEFT, GameSimulation.Command.MOVE_RIGHT,
+        GameSimulation.Command.ROTATE, GameSimulation.Command.SOFT_DROP
+    };
+    private static final int LEFT = 0, RIGHT = 1, ROTATE = 2, DOWN = 3;
+
+    // Per type, rotation and x slot: the first rotation with the same shape and the piece's
+    // leftmost column. With the top row this identifies the cells covered, so equal resting
+    // cells reached in different rotations are found once.
+    private static final int[][] FOOTPRINT = new int[Tetromino.Type.values().length][4 * X_SLOTS];
+    private static final int[][] TOP_ROW = new int[Tetromino.Type.values().length][4];
+
+    static {
+        for (Tetromino.Type type : Tetromino.Type.values()) {
+            for (int r = 0; r < 4; r++) {
+                int c = 0;
+                while (!sameShape(type.getState(c), type.getState(r))) {
+                    c++;
+                }
+                Tetromino.State state = type.getState(r);
+                for (int xi = 0; xi < X_SLOTS; xi++) {
+                    FOOTPRINT[type.ordinal()][r * X_SLOTS + xi] = c * X_SLOTS + ((xi + state.getMinCol()) & (X_SLOTS - 1));
+                }
+                TOP_ROW[type.ordinal()][r] = state.getMinRow();
+            }
+        }
+    }
+
+    private final long[] columns = new long[COLS];
+    // Per rotation and x slot, bit y + Y_OFFSET is set where the piece fits
+    private final int[] fit = new int[4 * X_SLOTS];
+    private final int[] visited = new int[4 * X_SLOTS];
+    private final int[] placed = new int[4 * X_SLOTS];
+    // Previous state and the move from it, packed as state << 2 | move
+    private final int[] link = new int[STATES];
+    private final int[] queue = new int[STATES];
+    private final int[] results = new int[STATES];
+    private final int[] droppedFrom = new int[STATES];
+    private final int[] inputCounts = new int[STATES];
+    private int[] footprints;
+    private int[] topRows;
+    private int count;
+
+    /** Finds the placements of the board's current piece from its current position. */
+    public int find(GameBoard board) {
+        Tetromino piece = board.getCurrentPiece();
+        return find(board, piece.getType(), piece.getRotation(), piece.getX(), piece.getY());
+    }
+
+    /**
+     * Finds the placements of a piece of {@code type} starting at the given rotation
+     * and position on the board's locked cells. Returns how many there are, 0 if the
+     * start position itself is blocked.
+     */
+    public int find(GameBoard board, Tetromino.Type type, int rotation, int x, int y) {
+        footprints = FOOTPRINT[type.ordinal()];
+        topRows = TOP_ROW[type.ordinal()];
+        count = 0;
+
+        for (int c = 0; c < COLS; c++) {
+            columns[c] = ((long) board.getColumnMask(c) << Y_OFFSET) | FLOOR;
+        }
+        for (int r = 0; r < 4; r++) {
+            Tetromino.State state = type.getState(r);
+            int[] cellX = state.getCellX();
+            int[] cellY = state.getCellY();
+            for (int xi = 0; xi < X_SLOTS; xi++) {
+                int px = xi - X_OFFSET;
+                if (px + state.getMinCol() < 0 || px + state.getMaxCol() >= COLS) {
+                    fit[r * X_SLOTS + xi] = 0;
+                    continue;
+                }
+                long blocked = 0;
+                for (int k = 0; k < cellX.length; k++) {
+                    blocked |= columns[px + cellX[k]] >>> cellY[k];
+                }
+                fit[r * X_SLOTS + xi] = ~(int) blocked;
+            }
+        }
+
+        int xi = x + X_OFFSET, yk = y + Y_OFFSET;
+        rotation &= 3;
+        if (xi < 0 || xi >= X_SLOTS || yk < 0 || yk >= 32 || !fits(rotation, xi, yk)) {
+            return 0;
+        }
+
+        Arrays.fill(visited, 0);
+        Arrays.fill(placed, 0);
+        int[] fit = this.fit, visited = this.visited, queue = this.queue, link = this.link;
+        int start = state(rotation, xi, yk);
+        visited[start >>> 5] = 1 << yk;
+        link[start] = 0;
+        queue[0] = start;
+        int head = 0, tail = 1;
+        int depth = 0, depthEnd = 1;
+
+        // A state's slot, its rotation and x, is s >>> 5; its y is the low 5 bits
+        while (head < tail) {
+            if (head == depthEnd) {
+                depth++;
+                depthEnd = tail;
+            }
+            int s = queue[head++];
+            int slot = s >>> 5;
+            yk = s & 31;
+            int bit = 1 << yk;
+
+            // Where a hard drop from here lands, unless this is a soft drop from a state
+            // already dropped from, which lands in the same place in one input less
+            if ((link[s] & 3) != DOWN) {
+                record(slot, yk + Integer.numberOfTrailingZeros(~(fit[slot] >>> yk)) - 1, s, depth + 1);
+            }
+
+            if ((slot & (X_SLOTS - 1)) != 0 && (fit[slot - 1] & ~visited[slot - 1] & bit) != 0) {
+                tail = visit(s - 32, s, LEFT, tail);
+            }
+            if ((slot & (X_SLOTS - 1)) != X_SLOTS - 1 && (fit[slot + 1] & ~visited[slot + 1] & bit) != 0) {
+                tail = visit(s + 32, s, RIGHT, tail);
+            }
+            int turned = (slot + X_SLOTS) & (4 * X_SLOTS - 1);
+            if ((fit[turned] & bit) != 0) {
+                if ((visited[turned] & bit) == 0) {
+                    tail = visit(turned << 5 | yk, s, ROTATE, tail);
+                }
+            } else {
+                for (int[] kick : WALL_KICKS) {
+                    int kx = (slot & (X_SLOTS - 1)) + kick[0], ky = yk + kick[1];
+                    if (kx >= 0 && kx < X_SLOTS && ky >= 0 && (fit[turned - (slot & (X_SLOTS - 1)) + kx] & (1 << ky)) != 0) {
+                        int kicked = (turned - (slot & (X_SLOTS - 1)) + kx) << 5 | ky;
+                        if ((visited[kicked >>> 5] & (1 << ky)) == 0) {
+                            tail = visit(kicked, s, ROTATE, tail);
+                        }
+                        break;
+                    }
+                }
+            }
+            if ((fit[slot] & ~visited[slot] & (bit << 1)) != 0) {
+                tail = visit(s + 1, s, DOWN, tail);
+            }
+        }
+        return count;
+    }
+
+    private static int state(int rotation, int xi, int yk) {
+        return (rotation << 9) | (xi << 5) | yk;
+    }
+
+    private boolean fits(int rotation, int xi, int yk) {
+        return (fit[rotation * X_SLOTS + xi] & (1 << yk)) != 0;
+    }
+
+    // Callers have checked that the state fits and has not been visited
+    private int visit(int s, int from, int input, int tail) {
+        visited[s >>> 5] |= 1 << (s & 31);
+        link[s] = from << 2 | input;
+        queue[tail] = s;
+        return tail + 1;
+    }
+
+    // States come off the queue in order of distance, so the first drop onto a spot is a shortest one
+    private void record(int slot, int yk, int from, int inputs) {
+        int key = footprints[slot];
+        int bit = 1 << (yk + topRows[slot / X_SLOTS]);
+        if ((placed[key] & bit) != 0) return;
+        placed[key] |= bit;
+        results[count] = slot << 5 | yk;
+        droppedFrom[count] = from;
+        inputCounts[count] = inputs;
+        count++;
+    }
+
+    private static boolean sameShape(Tetromino.State a, Tetromino.State b) {
+        if (a.getMaxRow() - a.getMinRow() != b.getMaxRow() - b.getMinRow()) return false;
+        for (int i = 0; i <= a.getMaxRow() - a.getMinRow(); i++) {
+            if (a.getRowMasks()[a.getMinRow() + i] >>> a.getMinCol()
+                    != b.getRowMasks()[b.getMinRow() + i] >>> b.getMinCol()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /** Number of placements found by the last call to {@link #find}. */
+    public int getCount() {
+        return count;
+    }
+
+    public int getRotation(int i) {
+        return results[i] >>> 9;
+    }
+
+    public int getX(int i) {
+        return ((results[i] >>> 5) & (X_SLOTS - 1)) - X_OFFSET;
+    }
+
+    /** Row of the piece's top-left corner when it rests, as in {@link Tetromino#getY}. */
+    public int getY(int i) {
+        return (results[i] & 31) - Y_OFFSET;
+    }
+
+    /** Length of the shortest input sequence to placement {@code i}, the final hard drop included. */
+    public int getInputCount(int i) {
+        return inputCounts[i];
+    }
+
+    /** The first input towards placement {@code i}. */
+    public GameSimulation.Command getFirstInput(int i) {
+        int moves = inputCounts[i] - 1;
+        if (moves == 0) return GameSimulation.Command.HARD_DROP;
+        int s = droppedFrom[i];
+        for (; moves > 1; moves--) {
+            s = link[s] >>> 2;
+        }
+        return MOVES[link[s] & 3];
+    }
+
+    /**
+     * Writes the shortest input sequence to placement {@code i} into {@code out}, which
+     * needs room for {@link #getInputCount} entries, and returns its length.
+     */
+    public int copyInputs(int i, GameSimulation.Command[] out) {
+        int length = getInputCount(i);
+        out[length - 1] = GameSimulation.Command.HARD_DROP;
+        int s = droppedFrom[i];
+        for (int k = length - 2; k >= 0; k--) {
+            out[k] = MOVES[link[s] & 3];
+            s = link[s] >>> 2;
+        }
+        return length;
+    }
+
+    /**
+     * Index of the placement that covers the same cells as the piece resting at the
+     * given rotation and position, or -1 if that is not reachable.
+     */
+    public int indexOf(int rotation, int x, int y) {
+        rotation &= 3;
+        int xi = x + X_OFFSET;
+        if (xi < 0 || xi >= X_SLOTS) return -1;
+        int key = footprints[rotation * X_SLOTS + xi];
+        int top = y + topRows[rotation];
+        for (int i = 0; i < count; i++) {
+            int r = getRotation(i);
+            if (footprints[r * X_SLOTS + getX(i) + X_OFFSET] == key && getY(i) + topRows[r] == top) {
+                return i;
+            }
+        }
+        return -1;
+    }
+}
@@ -0,0 +1,210 @@
+package org.vajradevam.tetris;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Copy of a board kept in step by state diffs. A server keeps one per client and
+ * board to remember what that client has already been sent; the client keeps one per
+ * board and applies the same diffs to it, so both stay identical.
+ *
+ * <pre>
+ * diff     player (byte), flags (byte), then in flag order:
+ * ROWS     mask of changed rows (int), then each changed row as packed colour nibbles
+ * PIECE    type, rotation, x, y, ghost row (bytes)
+ * PREVIEW  next type, held type or -1, held rotation (bytes)
+ * COUNTERS score, level, lines (varints)
+ * </pre>
+ *
+ * A GAME_OVER flag with no data marks the board as finished.
+ */
+public final class RemoteBoard implements BoardView {
+    private static final int ROWS = GameBoard.getRows();
+    private static final int COLS = GameBoard.getCols();
+    private static final Tetromino.Type[] TYPES = Tetromino.Type.values();
+
+    private static final int FLAG_ROWS = 1;
+    private static final int FLAG_PIECE = 2;
+    private static final int FLAG_PREVIEW = 4;
+    private static final int FLAG_COUNTERS = 8;
+    private static final int FLAG_GAME_OVER = 16;
+
+    private final byte[] cells = new byte[ROWS * COLS];
+    private final Tetromino currentPiece = new Tetromino(Tetromino.Type.I);
+    private final Tetromino nextPiece = new Tetromino(Tetromino.Type.I);
+    private final Tetromino heldPiece = new Tetromino(Tetromino.Type.I);
+    private boolean hasHeldPiece;
+    private int ghostY;
+
+    private int score;
+    private int level = 1;
+    private int linesCleared;
+    private int boardVersion;
+    private boolean gameOver;
+
+    // Version of the source board when the cells were last compared; server side only
+    private int sourceVersion = -1;
+
+    /**
+     * Writes the diff that brings this copy up to date with {@code board} and applies
+     * it here. Writes nothing and returns false when the client already has it all.
+     */
+    boolean writeDiff(int player, GameBoard board, boolean gameOver, ByteBuffer out) {
+        int start = out.position();
+        out.put((byte) player).put((byte) 0);
+        int flags = 0;
+
+        // Locked cells can only differ after the source board's version moved on
+        if (board.getBoardVersion() != sourceVersion) {
+            int maskAt = out.position();
+            out.putInt(0);
+            int mask = 0;
+            for (int i = 0; i < ROWS; i++) {
+                int base = i * COLS;
+                boolean changed = false;
+                for (int j = 0; j < COLS; j++) {
+                    if (cells[base + j] != board.getCell(i, j)) {
+                        changed = true;
+                        break;
+                    }
+                }
+                if (!changed) continue;
+
+                mask |= 1 << i;
+                for (int j = 0; j < COLS; j += 2) {
+                    cells[base + j] = (byte) board.getCell(i, j);
+                    cells[base + j + 1] = (byte) board.getCell(i, j + 1);
+                    out.put((byte) (cells[base + j] << 4 | cells[base + j + 1]));
+                }
+            }
+            sourceVersion = board.getBoardVersion();
+            if (mask != 0) {
+                out.putInt(maskAt, mask);
+                flags |= FLAG_ROWS;
+                boardVersion++;
+            } else {
+                out.position(maskAt);
+            }
+        }
+
+        Tetromino current = board.getCurrentPiece();
+        if (current.getType() != currentPiece.getType() || current.getRotation() != currentPiece.getRotation()
+                || current.getX() != currentPiece.getX() || current.getY() != currentPiece.getY()
+                || board.getGhostY() != ghostY) {
+            currentPiece.copyFrom(current);
+            ghostY = board.getGhostY();
+            out.put((byte) current.getType().ordinal()).put((byte) current.getRotation())
+               .put((byte) current.getX()).put((byte) current.getY()).put((byte) ghostY);
+            flags |= FLAG_PIECE;
+        }
+
+        Tetromino next = board.getNextPiece();
+        Tetromino held = board.getHeldPiece();
+        if (next.getType() != nextPiece.getType() || (held != null) != hasHeldPiece
+                || (held != null && (held.getType() != heldPiece.getType()
+                                     || held.getRotation() != heldPiece.getRotation()))) {
+            nextPiece.copyFrom(next);
+            hasHeldPiece = held != null;
+            if (hasHeldPiece) {
+                heldPiece.copyFrom(held);
+            }
+            out.put((byte) next.getType().ordinal())
+               .put((byte) (held == null ? -1 : held.getType().ordinal()))
+               .put((byte) (held == null ? 0 : held.getRotation()));
+            flags |= FLAG_PREVIEW;
+        }
+
+        if (board.getScore() != score || board.getLevel() != level || board.getLinesCleared() != linesCleared) {
+            score = board.getScore();
+            level = board.getLevel();
+            linesCleared = board.getLinesCleared();
+            ReplayFormat.putVarint(out, score);
+            ReplayFormat.putVarint(out, level);
+            ReplayFormat.putVarint(out, linesCleared);
+            flags |= FLAG_COUNTERS;
+        }
+
+        if (gameOver && !this.gameOver) {
+            this.gameOver = true;
+            flags |= FLAG_GAME_OVER;
+        }
+
+        if (flags == 0) {
+            out.position(start);
+            return false;
+        }
+        out.put(start + 1, (byte) flags);
+        return true;
+    }
+
+    /** Applies a diff written by {@link #writeDiff}, read from just after its player byte. */
+    void readDiff(ByteBuffer in) {
+        int flags = in.get();
+
+        if ((flags & FLAG_ROWS) != 0) {
+            int mask = in.getInt();
+            for (int i = 0; i < ROWS; i++) {
+                if ((mask & 1 << i) == 0) continue;
+                int base = i * COLS;
+                for (int j = 0; j < COLS; j += 2) {
+                    byte b = in.get();
+                    cells[base + j] = (byte) ((b >> 4) & 0xF);
+                    cells[base + j + 1] = (byte) (b & 0xF);
+                }
+            }
+            boardVersion++;
+        }
+
+        if ((flags & FLAG_PIECE) != 0) {
+            currentPiece.set(TYPES[in.get()], in.get(), in.get(), in.get());
+            ghostY = in.get();
+        }
+
+        if ((flags & FLAG_PREVIEW) != 0) {
+            nextPiece.set(TYPES[in.get()], 0, 3, 0);
+            byte heldType = in.get();
+            byte heldRotation = in.get();
+            hasHeldPiece = heldType >= 0;
+            if (hasHeldPiece) {
+                heldPiece.set(TYPES[heldType], heldRotation, 3, 0);
+            }
+        }
+
+        if ((flags & FLAG_COUNTERS) != 0) {
+            score = (int) ReplayFormat.getVarint(in);
+            level = (int) ReplayFormat.getVarint(in);
+            linesCleared = (int) ReplayFormat.getVarint(in);
+        }
+
+        if ((flags & FLAG_GAME_OVER) != 0) {
+            gameOver = true;
+        }
+    }
+
+    /** Copies another board, skipping the cells when they have not changed since the last copy. */
+    void copyFrom(RemoteBoard other) {
+        if (other.boardVersion != boardVersion) {
+            System.arraycopy(other.cells, 0, cells, 0, cells.length);
+            boardVersion = other.boardVersion;
+        }
+        currentPiece.copyFrom(other.currentPiece);
+        nextPiece.copyFrom(other.nextPiece);
+        heldPiece.copyFrom(other.heldPiece);
+        hasHeldPiece = other.hasHeldPiece;
+        ghostY = other.ghostY;
+        score = other.score;
+        level = other.level;
+        linesCleared = other.linesCleared;
+        gameOver = other.gameOver;
+    }
+
+    @Override public int getCell(int row, int col) { return cells[row * COLS + col]; }
+    @Override public Tetromino getCurrentPiece() { return currentPiece; }
+    @Override public Tetromino getNextPiece() { return nextPiece; }
+    @Override public Tetromino getHeldPiece() { return hasHeldPiece ? heldPiece : null; }
+    @Override public int getGhostY() { return ghostY; }
+    @Override public int getScore() { return score; }
+    @Override public int getLevel() { return level; }
+    @Override public int getLinesCleared() { return linesCleared; }
+    @Override public int getBoardVersion() { return boardVersion; }
+    @Override public boolean isGameOver() { return gameOver; }
+}
@@ -0,0 +1,75 @@
+package org.vajradevam.tetris;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Layout of replay files, shared by {@link ReplayRecorder} and {@link ReplayPlayer}.
+ *
+ * <pre>
+ * header   magic, version, player count, keyframe interval,
+ *          then per player: generator kind (byte), seed (long)
+ * events   one varint each: tickDelta &lt;&lt; 7 | player &lt;&lt; 3 | op
+ *          op 0-5 is a {@link GameSimulation.Command}, 6 a gravity drop, 7 a marker
+ *          (player 0: a {@link BoardCodec} snapshot of every board follows; player 1: end of the replay;
+ *          player 2: garbage, followed by the target player, line count and hole)
+ * index    keyframe count, then (tick, file offset) per keyframe
+ * footer   index offset (long), end magic
+ * </pre>
+ *
+ * <p>The index and footer are written when recording stops. A replay cut off by a
+ * crash has neither, and the player rebuilds the index by scanning the events.
+ */
+final class ReplayFormat {
+    static final int MAGIC = 0x5452504C; // "TRPL"
+    static final int END_MAGIC = 0x54524E44; // "TRND"
+    static final int VERSION = 2;
+    static final int FOOTER_BYTES = 12;
+
+    static final int OP_GRAVITY = 6;
+    static final int OP_MARKER = 7;
+    static final int MARKER_KEYFRAME = 0;
+    static final int MARKER_END = 1;
+    static final int MARKER_GARBAGE = 2;
+    static final int GARBAGE_BYTES = 3;
+    static final int MAX_PLAYERS = 16;
+
+    static final byte GENERATOR_UNIFORM = 1;
+    static final byte GENERATOR_SEVEN_BAG = 2;
+
+    private ReplayFormat() {}
+
+    static long event(long tickDelta, int player, int op) {
+        return tickDelta << 7 | player << 3 | op;
+    }
+
+    static void putVarint(ByteBuffer buffer, long value) {
+        while ((value & ~0x7FL) != 0) {
+            buffer.put((byte) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        buffer.put((byte) value);
+    }
+
+    static long getVarint(ByteBuffer buffer) {
+        long value = 0;
+        for (int shift = 0; ; shift += 7) {
+            byte b = buffer.get();
+            value |= (long) (b & 0x7F) << shift;
+            if (b >= 0) return value;
+        }
+    }
+
+    static byte generatorKind(PieceGenerator generator) {
+        if (generator instanceof SevenBagGenerator) return GENERATOR_SEVEN_BAG;
+        if (generator instanceof UniformGenerator) return GENERATOR_UNIFORM;
+        throw new IllegalArgumentException("Cannot record pieces from " + generator.getClass().getName());
+    }
+
+    static PieceGenerator newGenerator(byte kind, long seed) {
+        switch (kind) {
+            case GENERATOR_SEVEN_BAG: return new SevenBagGenerator(seed);
+            case GENERATOR_UNIFORM: return new UniformGenerator(seed);
+            default: throw new IllegalArgumentException("Unknown piece generator kind " + kind);
+        }
+    }
+}
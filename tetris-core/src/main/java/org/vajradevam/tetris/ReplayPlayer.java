@@ -0,0 +1,248 @@
+package org.vajradevam.tetris;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * Plays back a replay written by {@link ReplayRecorder}, headless and as fast as the
+ * events can be applied. The file is memory-mapped, and seeking restores the nearest
+ * keyframe at or before the target tick and replays only the events after it.
+ */
+public class ReplayPlayer implements Closeable {
+    private final FileChannel channel;
+    private final MappedByteBuffer data;
+    private final GameBoard[] boards;
+    private final int eventsStart;
+    private final int eventsEnd;
+    private final long[] index; // tick, offset pairs
+    private final int keyframes;
+
+    private long tick;
+    private boolean finished;
+
+    private ReplayPlayer(FileChannel channel, MappedByteBuffer data) throws IOException {
+        this.channel = channel;
+        this.data = data;
+
+        if (data.remaining() < 16 || data.getInt() != ReplayFormat.MAGIC || data.getInt() != ReplayFormat.VERSION) {
+            throw new IOException("Not a replay file");
+        }
+        int players = data.getInt();
+        data.getInt(); // keyframe interval, only needed by the recorder
+        boards = new GameBoard[players];
+        for (int p = 0; p < players; p++) {
+            byte kind = data.get();
+            boards[p] = new GameBoard(ReplayFormat.newGenerator(kind, data.getLong()));
+        }
+        eventsStart = data.position();
+
+        int limit = data.limit();
+        if (limit - eventsStart >= ReplayFormat.FOOTER_BYTES
+                && data.getInt(limit - 4) == ReplayFormat.END_MAGIC) {
+            int indexOffset = (int) data.getLong(limit - ReplayFormat.FOOTER_BYTES);
+            data.position(indexOffset);
+            keyframes = data.getInt();
+            index = new long[keyframes * 2];
+            for (int k = 0; k < index.length; k++) {
+                index[k] = data.getLong();
+            }
+            eventsEnd = indexOffset;
+        } else {
+            // Recording never finished; find the keyframes by walking the events
+            long[] found = new long[64];
+            int count = 0;
+            long t = 0;
+            data.position(eventsStart);
+            while (data.hasRemaining()) {
+                int start = data.position();
+                long event;
+                try {
+                    event = ReplayFormat.getVarint(data);
+                } catch (RuntimeException e) {
+                    data.position(start);
+                    break;
+                }
+                t += event >>> 7;
+                if ((event & 7) == ReplayFormat.OP_MARKER && ((event >>> 3) & 0xF) == ReplayFormat.MARKER_GARBAGE) {
+                    if (data.remaining() < ReplayFormat.GARBAGE_BYTES) {
+                        data.position(start);
+                        break;
+                    }
+                    data.position(data.position() + ReplayFormat.GARBAGE_BYTES);
+                } else if ((event & 7) == ReplayFormat.OP_MARKER && ((event >>> 3) & 0xF) == ReplayFormat.MARKER_KEYFRAME) {
+                    if (!skipKeyframe(players)) {
+                        data.position(start);
+                        break;
+                    }
+                    if (count * 2 == found.length) {
+                        found = Arrays.copyOf(found, found.length * 2);
+                    }
+                    found[count * 2] = t;
+                    found[count * 2 + 1] = start;
+                    count++;
+                }
+            }
+            keyframes = count;
+            index = Arrays.copyOf(found, count * 2);
+            eventsEnd = data.position();
+        }
+
+        data.position(eventsStart);
+    }
+
+    // Moves past one snapshot per player; false if the file ends partway through them
+    private boolean skipKeyframe(int players) {
+        for (int p = 0; p < players; p++) {
+            if (!data.hasRemaining()) return false;
+            int length = data.get(data.position()) & 0xFF;
+            if (length == 0 || data.remaining() < length) return false;
+            BoardCodec.skip(data);
+        }
+        return true;
+    }
+
+    public static ReplayPlayer open(Path file) throws IOException {
+        FileChannel channel = FileChannel.open(file, StandardOpenOption.READ);
+        try {
+            MappedByteBuffer data = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            return new ReplayPlayer(channel, data);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Applies the next event. Returns false at the end of the replay.
+     */
+    public boolean step() {
+        if (finished || data.position() >= eventsEnd) {
+            finished = true;
+            return false;
+        }
+
+        long event = ReplayFormat.getVarint(data);
+        tick += event >>> 7;
+        int player = (int) (event >>> 3) & 0xF;
+        int op = (int) event & 7;
+
+        if (op == ReplayFormat.OP_MARKER) {
+            if (player == ReplayFormat.MARKER_END) {
+                finished = true;
+                return false;
+            }
+            if (player == ReplayFormat.MARKER_GARBAGE) {
+                int target = data.get();
+                int lines = data.get();
+                int hole = data.get();
+                boards[target].addGarbageLines(lines, hole);
+                return true;
+            }
+            // Already in this state when playing forwards; keyframes are only read when seeking
+            for (int p = 0; p < boards.length; p++) {
+                BoardCodec.skip(data);
+            }
+        } else if (op == ReplayFormat.OP_GRAVITY) {
+            boards[player].moveDown();
+        } else {
+            GameSimulation.apply(boards[player], GameSimulation.Command.values()[op]);
+        }
+        return true;
+    }
+
+    /** Plays the rest of the replay. */
+    public void playToEnd() {
+        while (step()) {
+            // keep going
+        }
+    }
+
+    /**
+     * Moves to the state at the start of {@code target}, before any event of that
+     * tick was applied. Costs at most one keyframe interval of events.
+     */
+    public void seek(long target) {
+        // Last keyframe at or before the target
+        int lo = 0, hi = keyframes - 1, found = -1;
+        while (lo <= hi) {
+            int mid = (lo + hi) >>> 1;
+            if (index[mid * 2] <= target) {
+                found = mid;
+                lo = mid + 1;
+            } else {
+                hi = mid - 1;
+            }
+        }
+
+        // Restore unless the events already applied all come before the target and after the keyframe
+        if (found >= 0 && (tick >= target || index[found * 2] > tick)) {
+            data.position((int) index[found * 2 + 1]);
+            ReplayFormat.getVarint(data);
+            for (GameBoard board : boards) {
+                BoardCodec.read(data, board);
+            }
+            tick = index[found * 2];
+            finished = false;
+        } else if (found < 0 && tick >= target && tick > 0) {
+            throw new IllegalStateException("No keyframe to seek back to");
+        }
+
+        // Apply events up to, not including, the target tick
+        while (!finished && data.position() < eventsEnd) {
+            int start = data.position();
+            long event = ReplayFormat.getVarint(data);
+            data.position(start);
+            if (tick + (event >>> 7) >= target) break;
+            step();
+        }
+    }
+
+    public GameBoard getBoard(int player) {
+        return boards[player];
+    }
+
+    public int getPlayerCount() {
+        return boards.length;
+    }
+
+    /** Tick of the last event applied. */
+    public long getTick() {
+        return tick;
+    }
+
+    public boolean isFinished() {
+        return finished;
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    /** Plays a replay file to the end and prints each player's result. */
+    public static void main(String[] args) throws IOException {
+        if (args.length != 1) {
+            System.err.println("Usage: ReplayPlayer <replay file>");
+            System.exit(2);
+        }
+
+        try (ReplayPlayer player = open(Paths.get(args[0]))) {
+            long start = System.nanoTime();
+            player.playToEnd();
+            double millis = (System.nanoTime() - start) / 1e6;
+
+            System.out.printf("%d ticks replayed in %.1f ms%n", player.getTick(), millis);
+            for (int p = 0; p < player.getPlayerCount(); p++) {
+                GameBoard board = player.getBoard(p);
+                System.out.printf("Player %d: score %d, lines %d, level %d%s%n", p + 1, board.getScore(),
+                        board.getLinesCleared(), board.getLevel(), board.isGameOver() ? ", game over" : "");
+            }
+        }
+    }
+}
@@ -0,0 +1,167 @@
+package org.vajradevam.tetris;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * Records everything a {@link GameSimulation} does to its boards: every command,
+ * whether from a player or a controller, and every gravity drop, stamped with the
+ * tick it happened on. Together with the piece generator seeds in the header this
+ * is enough to replay a game exactly; see {@link ReplayPlayer}.
+ *
+ * <p>All methods are called on the simulation thread. Events are buffered in memory
+ * and written in large chunks, so recording costs a few bytes per event.
+ */
+public class ReplayRecorder {
+    public static final int DEFAULT_KEYFRAME_INTERVAL = 600;
+    private static final int BUFFER_BYTES = 64 * 1024;
+
+    private final FileChannel channel;
+    private final int keyframeInterval;
+    private final ByteBuffer buffer = ByteBuffer.allocate(BUFFER_BYTES);
+    private final int playerCount;
+
+    private long[] index = new long[64]; // tick, offset pairs
+    private int keyframes;
+    private long lastTick;
+    private boolean failed;
+
+    private ReplayRecorder(FileChannel channel, int keyframeInterval, int playerCount) {
+        this.channel = channel;
+        this.keyframeInterval = keyframeInterval;
+        this.playerCount = playerCount;
+    }
+
+    public static ReplayRecorder create(Path file, GameBoard... boards) throws IOException {
+        return create(file, DEFAULT_KEYFRAME_INTERVAL, boards);
+    }
+
+    /** Starts a replay of the given boards, which must not have been played yet. */
+    public static ReplayRecorder create(Path file, int keyframeInterval, GameBoard... boards) throws IOException {
+        if (boards.length > ReplayFormat.MAX_PLAYERS) {
+            throw new IllegalArgumentException("At most " + ReplayFormat.MAX_PLAYERS + " players can be recorded");
+        }
+        FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE);
+        ReplayRecorder recorder = new ReplayRecorder(channel, keyframeInterval, boards.length);
+
+        ByteBuffer header = recorder.buffer;
+        header.putInt(ReplayFormat.MAGIC).putInt(ReplayFormat.VERSION)
+              .putInt(boards.length).putInt(keyframeInterval);
+        for (GameBoard board : boards) {
+            PieceGenerator generator = board.getPieceGenerator();
+            header.put(ReplayFormat.generatorKind(generator)).putLong(generator.getSeed());
+        }
+        return recorder;
+    }
+
+    /** Called at the start of every tick, before anything is applied to the boards. */
+    void beginTick(long tick, GameBoard[] boards) {
+        if (tick % keyframeInterval != 0) return;
+
+        ensureSpace(10 + boards.length * BoardCodec.MAX_BYTES);
+        if (keyframes * 2 == index.length) {
+            index = Arrays.copyOf(index, index.length * 2);
+        }
+        index[keyframes * 2] = tick;
+        index[keyframes * 2 + 1] = offset();
+        keyframes++;
+
+        putEvent(tick, ReplayFormat.MARKER_KEYFRAME, ReplayFormat.OP_MARKER);
+        for (GameBoard board : boards) {
+            BoardCodec.write(board, buffer);
+        }
+    }
+
+    void command(long tick, int player, GameSimulation.Command command) {
+        ensureSpace(10);
+        putEvent(tick, player, command.ordinal());
+    }
+
+    void gravity(long tick, int player) {
+        ensureSpace(10);
+        putEvent(tick, player, ReplayFormat.OP_GRAVITY);
+    }
+
+    void garbage(long tick, int player, int lines, int hole) {
+        ensureSpace(10 + ReplayFormat.GARBAGE_BYTES);
+        putEvent(tick, ReplayFormat.MARKER_GARBAGE, ReplayFormat.OP_MARKER);
+        buffer.put((byte) player).put((byte) lines).put((byte) hole);
+    }
+
+    /**
+     * Marks the end of the replay at {@code tick}, writes the keyframe index and
+     * closes the file. Call once the simulation has stopped; later calls do nothing.
+     */
+    public void close(long tick) {
+        if (!channel.isOpen()) return;
+        try {
+            ensureSpace(10);
+            putEvent(Math.max(tick, lastTick), ReplayFormat.MARKER_END, ReplayFormat.OP_MARKER);
+
+            long indexOffset = offset();
+            ensureSpace(4);
+            buffer.putInt(keyframes);
+            for (int k = 0; k < keyframes * 2; k++) {
+                ensureSpace(8);
+                buffer.putLong(index[k]);
+            }
+            ensureSpace(ReplayFormat.FOOTER_BYTES);
+            buffer.putLong(indexOffset).putInt(ReplayFormat.END_MAGIC);
+            flush();
+        } catch (IOException e) {
+            e.printStackTrace();
+        } finally {
+            try {
+                channel.close();
+            } catch (IOException e) {
+                e.printStackTrace();
+            }
+        }
+    }
+
+    public int getPlayerCount() {
+        return playerCount;
+    }
+
+    private void putEvent(long tick, int player, int op) {
+        ReplayFormat.putVarint(buffer, ReplayFormat.event(tick - lastTick, player, op));
+        lastTick = tick;
+    }
+
+    private long offset() {
+        try {
+            return channel.position() + buffer.position();
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private void ensureSpace(int bytes) {
+        if (buffer.remaining() >= bytes) return;
+        try {
+            flush();
+        } catch (IOException e) {
+            // Keep the game running; the replay simply ends at the last complete write
+            if (!failed) {
+                e.printStackTrace();
+                failed = true;
+            }
+            buffer.clear();
+        }
+    }
+
+    private void flush() throws IOException {
+        buffer.flip();
+        if (!failed) {
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+        }
+        buffer.clear();
+    }
+}
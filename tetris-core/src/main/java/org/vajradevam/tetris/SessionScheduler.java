@@ -0,0 +1,289 @@
+package org.vajradevam.tetris;
+
+import java.util.Arrays;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Consumer;
+
+/**
+ * Runs many headless game sessions on a few threads. Each session says how long it
+ * can sleep after every run, typically until its next gravity drop, and is kept in a
+ * {@link TimingWheel} until then. One wheel thread advances the wheel and hands each
+ * slot's due sessions, as one batch, to a small {@link ForkJoinPool}.
+ *
+ * <p>A session never runs on two threads at once: it is out of the wheel while it
+ * runs and goes back in afterwards. {@link Handle#wake} runs it as soon as possible
+ * instead, e.g. when a player's input arrives.
+ */
+public class SessionScheduler {
+    public static final long DEFAULT_RESOLUTION_NANOS = 1_000_000L;
+    // Sessions per task when a batch is split across the pool
+    private static final int SPLIT_THRESHOLD = 64;
+
+    /** Work scheduled on the wheel. */
+    public interface Task {
+        /**
+         * Does whatever is due at {@code nowNanos} ({@link System#nanoTime}) and returns
+         * the nanoseconds until it next needs to run, or a negative number when done.
+         */
+        long run(long nowNanos);
+
+        /**
+         * Called on the pool thread when {@link #run} throws. The task has been cancelled
+         * and does not run again, so this is the place to clean up and report the error.
+         */
+        default void failed(Throwable e) {}
+    }
+
+    /** A scheduled task, for waking or cancelling it. */
+    public static final class Handle extends TimingWheel.Timer {
+        private final SessionScheduler scheduler;
+        private final Task task;
+        private final AtomicBoolean wakeQueued = new AtomicBoolean();
+        private volatile boolean woken;
+        private volatile boolean cancelled;
+        private long dueNanos;
+
+        private Handle(SessionScheduler scheduler, Task task) {
+            this.scheduler = scheduler;
+            this.task = task;
+        }
+
+        /** Runs the task as soon as a worker is free, rather than when it asked to. */
+        public void wake() {
+            woken = true;
+            if (wakeQueued.compareAndSet(false, true)) {
+                scheduler.wakes.offer(this);
+                LockSupport.unpark(scheduler.thread);
+            }
+        }
+
+        /** The task does not run again; a run already in progress finishes. */
+        public void cancel() {
+            cancelled = true;
+            wake();
+        }
+    }
+
+    private final ForkJoinPool pool;
+    private final boolean ownsPool;
+    private final long resolutionNanos;
+    private final long origin = System.nanoTime();
+    private final TimingWheel wheel = new TimingWheel(0);
+    // Handles to put in the wheel and handles to run early, both drained by the wheel thread
+    private final Queue<Handle> pending = new ConcurrentLinkedQueue<>();
+    private final Queue<Handle> wakes = new ConcurrentLinkedQueue<>();
+    private Handle[] due = new Handle[256];
+    private int dueCount;
+
+    private final Consumer<TimingWheel.Timer> expire = timer -> addDue((Handle) timer);
+
+    private final LongAdder runs = new LongAdder();
+    private final LongAdder timedRuns = new LongAdder();
+    private final LongAccumulator maxLateness = new LongAccumulator(Math::max, 0);
+    private final LongAdder totalLateness = new LongAdder();
+    private final LongAdder failures = new LongAdder();
+
+    private volatile boolean running;
+    private volatile Thread thread;
+
+    public SessionScheduler(int threads) {
+        this(new ForkJoinPool(threads), DEFAULT_RESOLUTION_NANOS, true);
+    }
+
+    /** A scheduler running tasks on the caller's pool, which {@link #stop} leaves running. */
+    public SessionScheduler(ForkJoinPool pool, long resolutionNanos) {
+        this(pool, resolutionNanos, false);
+    }
+
+    private SessionScheduler(ForkJoinPool pool, long resolutionNanos, boolean ownsPool) {
+        this.pool = pool;
+        this.resolutionNanos = resolutionNanos;
+        this.ownsPool = ownsPool;
+    }
+
+    public void start() {
+        if (running) return;
+        running = true;
+        Thread t = new Thread(this::run, "tetris-scheduler");
+        t.setDaemon(true);
+        thread = t;
+        t.start();
+    }
+
+    /**
+     * Stops the wheel thread, and the pool if the scheduler made it; tasks already
+     * handed to the pool still finish.
+     */
+    public void stop() {
+        running = false;
+        Thread t = thread;
+        if (t != null && t != Thread.currentThread()) {
+            LockSupport.unpark(t);
+            try {
+                t.join(1000);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        if (ownsPool) {
+            pool.shutdown();
+        }
+    }
+
+    /** Runs {@code task} after {@code delayNanos}, then as often as it asks. Safe to call from any thread. */
+    public Handle schedule(Task task, long delayNanos) {
+        Handle handle = new Handle(this, task);
+        handle.dueNanos = System.nanoTime() + Math.max(0, delayNanos);
+        pending.offer(handle);
+        if (delayNanos <= 0) {
+            LockSupport.unpark(thread);
+        }
+        return handle;
+    }
+
+    private void run() {
+        while (running) {
+            long now = System.nanoTime() - origin;
+            long target = now / resolutionNanos;
+
+            Handle handle;
+            while ((handle = pending.poll()) != null) {
+                // A wake that came in while the task was running takes effect now
+                if (handle.woken || handle.cancelled || toTick(handle.dueNanos) <= wheel.getCurrent()) {
+                    addDue(handle);
+                } else {
+                    wheel.add(handle, toTick(handle.dueNanos));
+                }
+            }
+            while ((handle = wakes.poll()) != null) {
+                handle.wakeQueued.set(false);
+                if (handle.linked) {
+                    wheel.remove(handle);
+                    addDue(handle);
+                }
+            }
+
+            while (wheel.getCurrent() < target) {
+                wheel.advance(expire);
+            }
+
+            if (dueCount > 0) {
+                pool.execute(new Batch(Arrays.copyOf(due, dueCount), 0, dueCount));
+                Arrays.fill(due, 0, dueCount, null);
+                dueCount = 0;
+            }
+
+            // Sleep to the start of the next wheel tick, or until woken
+            LockSupport.parkNanos((target + 1) * resolutionNanos - now);
+        }
+    }
+
+    private long toTick(long nanos) {
+        // Rounded up, so a task never runs before it asked to
+        return (nanos - origin + resolutionNanos - 1) / resolutionNanos;
+    }
+
+    private void addDue(Handle handle) {
+        if (dueCount == due.length) {
+            due = Arrays.copyOf(due, due.length * 2);
+        }
+        due[dueCount++] = handle;
+    }
+
+    private final class Batch extends RecursiveAction {
+        private final Handle[] handles;
+        private final int from;
+        private final int to;
+
+        Batch(Handle[] handles, int from, int to) {
+            this.handles = handles;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from > SPLIT_THRESHOLD) {
+                int mid = (from + to) >>> 1;
+                invokeAll(new Batch(handles, from, mid), new Batch(handles, mid, to));
+                return;
+            }
+            // One failing session must not take the rest of the batch with it
+            for (int i = from; i < to; i++) {
+                try {
+                    runTask(handles[i]);
+                } catch (RuntimeException | Error e) {
+                    fail(handles[i], e);
+                }
+            }
+        }
+    }
+
+    private void runTask(Handle handle) {
+        if (handle.cancelled) return;
+
+        long now = System.nanoTime();
+        if (!handle.woken) {
+            long lateness = Math.max(0, now - handle.dueNanos);
+            maxLateness.accumulate(lateness);
+            totalLateness.add(lateness);
+            timedRuns.increment();
+        }
+        handle.woken = false;
+
+        long delay;
+        try {
+            delay = handle.task.run(now);
+        } catch (RuntimeException | Error e) {
+            fail(handle, e);
+            return;
+        }
+        runs.increment();
+        if (delay < 0 || handle.cancelled) return;
+
+        handle.dueNanos = now + delay;
+        pending.offer(handle);
+        if (delay < resolutionNanos) {
+            LockSupport.unpark(thread);
+        }
+    }
+
+    private void fail(Handle handle, Throwable e) {
+        if (handle.cancelled) {
+            e.printStackTrace();
+            return;
+        }
+        handle.cancelled = true;
+        failures.increment();
+        try {
+            handle.task.failed(e);
+        } catch (RuntimeException | Error f) {
+            f.printStackTrace();
+        }
+    }
+
+    /** Sessions waiting in the wheel. Approximate, since it is read off the wheel thread. */
+    public int getScheduledCount() {
+        return wheel.size();
+    }
+
+    /**
+     * Runs since the last call, how late the ones that were not woken early started
+     * compared with when they asked to run, and how many runs threw:
+     * {@code {runs, mean lateness nanos, max lateness nanos, failures}}.
+     */
+    public long[] takeStats() {
+        long count = runs.sumThenReset();
+        long timed = timedRuns.sumThenReset();
+        long total = totalLateness.sumThenReset();
+        long max = maxLateness.getThenReset();
+        return new long[] {count, timed == 0 ? 0 : total / timed, max, failures.sumThenReset()};
+    }
+}
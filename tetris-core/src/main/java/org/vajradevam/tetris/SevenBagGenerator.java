@@ -0,0 +1,37 @@
+package org.vajradevam.tetris;
+
+import java.util.SplittableRandom;
+
+/**
+ * Deals the seven pieces in a shuffled bag, then another shuffled bag, and so on, so
+ * every piece turns up at least once in any 13 in a row.
+ */
+public class SevenBagGenerator extends BufferedPieceGenerator {
+    private static final int BAG_SIZE = Tetromino.Type.values().length;
+    private static final int BAGS_PER_BLOCK = 64;
+
+    public SevenBagGenerator(long seed) {
+        super(seed, BAG_SIZE * BAGS_PER_BLOCK);
+    }
+
+    @Override
+    public PieceGenerator withSeed(long seed) {
+        return new SevenBagGenerator(seed);
+    }
+
+    @Override
+    protected void fill(byte[] buffer, SplittableRandom random) {
+        for (int bag = 0; bag < buffer.length; bag += BAG_SIZE) {
+            for (int i = 0; i < BAG_SIZE; i++) {
+                buffer[bag + i] = (byte) i;
+            }
+            // Fisher-Yates shuffle of this bag
+            for (int i = BAG_SIZE - 1; i > 0; i--) {
+                int j = random.nextInt(i + 1);
+                byte swap = buffer[bag + i];
+                buffer[bag + i] = buffer[bag + j];
+                buffer[bag + j] = swap;
+            }
+        }
+    }
+}
@@ -0,0 +1,103 @@
+package org.vajradevam.tetris;
+
+/**
+ * Shape of a board's stack: the height and holes of every column, and totals over
+ * all of them. Kept up to date by the owning {@link GameBoard} as cells change, from
+ * the column masks it already maintains, so reading any of it costs nothing like a
+ * scan of the cells. Read-only to everyone else.
+ */
+public final class SurfaceProfile {
+    private static final int ROWS = GameBoard.getRows();
+    private static final int COLS = GameBoard.getCols();
+
+    private final int[] heights = new int[COLS];
+    private final int[] holes = new int[COLS];
+    private int aggregateHeight;
+    private int totalHoles;
+    private int bumpiness;
+
+    SurfaceProfile() {}
+
+    /** Recomputes one column from its occupancy mask (bit i = row i, row 0 at the top). */
+    void update(int col, int column) {
+        int height = column == 0 ? 0 : ROWS - Integer.numberOfTrailingZeros(column);
+        int covered = height - Integer.bitCount(column);
+
+        int old = heights[col];
+        if (old != height) {
+            if (col > 0) {
+                bumpiness += Math.abs(height - heights[col - 1]) - Math.abs(old - heights[col - 1]);
+            }
+            if (col < COLS - 1) {
+                bumpiness += Math.abs(height - heights[col + 1]) - Math.abs(old - heights[col + 1]);
+            }
+            aggregateHeight += height - old;
+            heights[col] = height;
+        }
+        totalHoles += covered - holes[col];
+        holes[col] = covered;
+    }
+
+    /** Recomputes every column, e.g. after rows were cleared or added. */
+    void updateAll(int[] columns) {
+        for (int j = 0; j < COLS; j++) {
+            update(j, columns[j]);
+        }
+    }
+
+    void copyFrom(SurfaceProfile other) {
+        System.arraycopy(other.heights, 0, heights, 0, COLS);
+        System.arraycopy(other.holes, 0, holes, 0, COLS);
+        aggregateHeight = other.aggregateHeight;
+        totalHoles = other.totalHoles;
+        bumpiness = other.bumpiness;
+    }
+
+    /** Rows from the bottom up to and including the column's highest block. */
+    public int getHeight(int col) {
+        return heights[col];
+    }
+
+    /** Empty cells in the column below its highest block. */
+    public int getHoles(int col) {
+        return holes[col];
+    }
+
+    /**
+     * How far the column sits below the lower of its neighbours, the walls counting
+     * as full height, or 0 if it is not a well.
+     */
+    public int getWellDepth(int col) {
+        int left = col > 0 ? heights[col - 1] : ROWS;
+        int right = col < COLS - 1 ? heights[col + 1] : ROWS;
+        return Math.max(0, Math.min(left, right) - heights[col]);
+    }
+
+    public int getMaxHeight() {
+        int max = 0;
+        for (int height : heights) {
+            max = Math.max(max, height);
+        }
+        return max;
+    }
+
+    /** Sum of the column heights. */
+    public int getAggregateHeight() {
+        return aggregateHeight;
+    }
+
+    /** Sum of the column holes. */
+    public int getHoles() {
+        return totalHoles;
+    }
+
+    /** Sum of the height differences between neighbouring columns. */
+    public int getBumpiness() {
+        return bumpiness;
+    }
+
+    /** Copies the column heights into {@code out}, which needs {@link GameBoard#getCols} entries. */
+    public void copyHeights(int[] out) {
+        System.arraycopy(heights, 0, out, 0, COLS);
+    }
+}
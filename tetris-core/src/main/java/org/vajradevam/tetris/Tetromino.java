@@ -0,0 +1,201 @@
+package org.vajradevam.tetris;
+
+import java.util.Arrays;
+
+public class Tetromino {
+    public enum Type {
+        I(new int[][]{
+            {0, 0, 0, 0},
+            {1, 1, 1, 1},
+            {0, 0, 0, 0},
+            {0, 0, 0, 0}
+        }),
+        O(new int[][]{
+            {1, 1},
+            {1, 1}
+        }),
+        T(new int[][]{
+            {0, 1, 0},
+            {1, 1, 1},
+            {0, 0, 0}
+        }),
+        S(new int[][]{
+            {0, 1, 1},
+            {1, 1, 0},
+            {0, 0, 0}
+        }),
+        Z(new int[][]{
+            {1, 1, 0},
+            {0, 1, 1},
+            {0, 0, 0}
+        }),
+        J(new int[][]{
+            {1, 0, 0},
+            {1, 1, 1},
+            {0, 0, 0}
+        }),
+        L(new int[][]{
+            {0, 0, 1},
+            {1, 1, 1},
+            {0, 0, 0}
+        });
+
+        private final State[] states = new State[4];
+
+        Type(int[][] spawnShape) {
+            int[][] shape = spawnShape;
+            for (int r = 0; r < states.length; r++) {
+                states[r] = new State(shape);
+                shape = rotateClockwise(shape);
+            }
+        }
+
+        /** Colour index stored in the board for this type; 0 is reserved for empty cells. */
+        public int getColorIndex() { return ordinal() + 1; }
+        public State getState(int rotation) { return states[rotation & 3]; }
+    }
+
+    /**
+     * One precomputed rotation of a piece. Instances are built once per type and shared
+     * by every Tetromino, so none of the arrays returned here may be modified.
+     */
+    public static final class State {
+        private final int[][] shape;
+        private final int[] rowMasks;
+        private final int[] cellX;
+        private final int[] cellY;
+        private final int[] columnBottoms;
+        private final int minCol, maxCol;
+        private final int minRow, maxRow;
+
+        private State(int[][] shape) {
+            this.shape = shape;
+            this.rowMasks = new int[shape.length];
+
+            int count = 0;
+            for (int[] row : shape) {
+                for (int cell : row) {
+                    if (cell != 0) count++;
+                }
+            }
+            this.cellX = new int[count];
+            this.cellY = new int[count];
+            this.columnBottoms = new int[shape.length];
+            Arrays.fill(columnBottoms, -1);
+
+            int all = 0;
+            int top = shape.length, bottom = -1;
+            int k = 0;
+            for (int i = 0; i < shape.length; i++) {
+                for (int j = 0; j < shape[i].length; j++) {
+                    if (shape[i][j] != 0) {
+                        rowMasks[i] |= 1 << j;
+                        cellX[k] = j;
+                        cellY[k] = i;
+                        columnBottoms[j] = i;
+                        k++;
+                    }
+                }
+                if (rowMasks[i] != 0) {
+                    top = Math.min(top, i);
+                    bottom = i;
+                }
+                all |= rowMasks[i];
+            }
+
+            this.minCol = Integer.numberOfTrailingZeros(all);
+            this.maxCol = 31 - Integer.numberOfLeadingZeros(all);
+            this.minRow = top;
+            this.maxRow = bottom;
+        }
+
+        public int[][] getShape() { return shape; }
+        public int[] getRowMasks() { return rowMasks; }
+        public int[] getCellX() { return cellX; }
+        public int[] getCellY() { return cellY; }
+        /** Lowest filled row of each shape column, or -1 for an empty column. */
+        public int[] getColumnBottoms() { return columnBottoms; }
+        public int getMinCol() { return minCol; }
+        public int getMaxCol() { return maxCol; }
+        public int getMinRow() { return minRow; }
+        public int getMaxRow() { return maxRow; }
+    }
+
+    private Type type;
+    private State state;
+    private int rotation;
+    private int x, y;
+
+    public Tetromino(Type type) {
+        this.type = type;
+        this.state = type.getState(0);
+        this.x = 3;
+        this.y = 0;
+    }
+
+    private static int[][] rotateClockwise(int[][] shape) {
+        int n = shape.length;
+        int[][] rotated = new int[n][n];
+
+        for (int i = 0; i < n; i++) {
+            for (int j = 0; j < n; j++) {
+                rotated[j][n - 1 - i] = shape[i][j];
+            }
+        }
+
+        return rotated;
+    }
+
+    public void rotate() {
+        rotation = (rotation + 1) & 3;
+        state = type.getState(rotation);
+    }
+
+    public void rotateCounterClockwise() {
+        rotation = (rotation + 3) & 3;
+        state = type.getState(rotation);
+    }
+
+    public Tetromino copy() {
+        Tetromino copy = new Tetromino(this.type);
+        copy.x = this.x;
+        copy.y = this.y;
+        copy.rotation = this.rotation;
+        copy.state = this.state;
+        return copy;
+    }
+
+    void copyFrom(Tetromino other) {
+        type = other.type;
+        state = other.state;
+        rotation = other.rotation;
+        x = other.x;
+        y = other.y;
+    }
+
+    void set(Type type, int rotation, int x, int y) {
+        this.type = type;
+        this.rotation = rotation & 3;
+        this.state = type.getState(rotation);
+        this.x = x;
+        this.y = y;
+    }
+
+    // Getters and setters
+    public int[][] getShape() { return state.getShape(); }
+    public int getColorIndex() { return type.getColorIndex(); }
+    public int getX() { return x; }
+    public int getY() { return y; }
+    public void setX(int x) { this.x = x; }
+    public void setY(int y) { this.y = y; }
+    public Type getType() { return type; }
+    public State getState() { return state; }
+    public int getRotation() { return rotation; }
+    public int[] getRowMasks() { return state.getRowMasks(); }
+    public int getMinCol() { return state.getMinCol(); }
+    public int getMaxCol() { return state.getMaxCol(); }
+
+    public void moveDown() { y++; }
+    public void moveLeft() { x--; }
+    public void moveRight() { x++; }
+}
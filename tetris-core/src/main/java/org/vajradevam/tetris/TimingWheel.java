@@ -0,0 +1,116 @@
+package org.vajradevam.tetris;
+
+import java.util.function.Consumer;
+
+/**
+ * Hierarchical timing wheel: four levels of 64 slots, where each level's slot spans
+ * a whole turn of the level below. Adding, removing and expiring a timer are O(1);
+ * a timer far in the future sits in a coarse slot and is moved down a level each
+ * time the wheel reaches that slot, at most three times in all.
+ *
+ * <p>Time is counted in whole wheel ticks. Not thread-safe; {@link SessionScheduler}
+ * owns one and touches it from its wheel thread only.
+ */
+final class TimingWheel {
+    private static final int BITS = 6;
+    private static final int SLOTS = 1 << BITS;
+    private static final int MASK = SLOTS - 1;
+    private static final int LEVELS = 4;
+    static final long MAX_DELAY = (1L << (BITS * LEVELS)) - 1;
+
+    /** Entry in the wheel; a timer is in at most one slot at a time. */
+    static class Timer {
+        Timer next;
+        Timer prev;
+        long deadline;
+        boolean linked;
+    }
+
+    // One circular list per slot, headed by a sentinel
+    private final Timer[][] slots = new Timer[LEVELS][SLOTS];
+    private long current;
+    private int size;
+
+    TimingWheel(long start) {
+        this.current = start;
+        for (Timer[] level : slots) {
+            for (int i = 0; i < SLOTS; i++) {
+                Timer head = new Timer();
+                head.next = head;
+                head.prev = head;
+                level[i] = head;
+            }
+        }
+    }
+
+    long getCurrent() {
+        return current;
+    }
+
+    int size() {
+        return size;
+    }
+
+    /** Adds a timer due at the given tick; one already due expires on the next advance. */
+    void add(Timer timer, long deadline) {
+        timer.deadline = Math.min(Math.max(deadline, current + 1), current + MAX_DELAY);
+        link(timer);
+        size++;
+    }
+
+    void remove(Timer timer) {
+        if (!timer.linked) return;
+        unlink(timer);
+        size--;
+    }
+
+    /**
+     * Moves to the next tick and passes every timer due at it to {@code expired},
+     * removed from the wheel.
+     */
+    void advance(Consumer<Timer> expired) {
+        current++;
+
+        // Coarser slots reached by this tick spill into finer ones, top level first
+        for (int level = LEVELS - 1; level > 0; level--) {
+            if ((current & ((1L << (BITS * level)) - 1)) == 0) {
+                Timer head = slots[level][(int) (current >>> (BITS * level)) & MASK];
+                while (head.next != head) {
+                    Timer timer = head.next;
+                    unlink(timer);
+                    link(timer);
+                }
+            }
+        }
+
+        Timer head = slots[0][(int) current & MASK];
+        while (head.next != head) {
+            Timer timer = head.next;
+            unlink(timer);
+            size--;
+            expired.accept(timer);
+        }
+    }
+
+    private void link(Timer timer) {
+        long delay = timer.deadline - current;
+        int level = 0;
+        while (level < LEVELS - 1 && delay >= 1L << (BITS * (level + 1))) {
+            level++;
+        }
+        Timer head = slots[level][(int) (timer.deadline >>> (BITS * level)) & MASK];
+        timer.prev = head.prev;
+        timer.next = head;
+        head.prev.next = timer;
+        head.prev = timer;
+        timer.linked = true;
+    }
+
+    private void unlink(Timer timer) {
+        timer.prev.next = timer.next;
+        timer.next.prev = timer.prev;
+        timer.next = null;
+        timer.prev = null;
+        timer.linked = false;
+    }
+}
@@ -0,0 +1,141 @@
+package org.vajradevam.tetris;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Bounded cache of evaluations keyed by Zobrist keys, shared by any number of search
+ * threads without locks. Entries live in buckets of four; a key can only go in its
+ * own bucket, and when the bucket is full a CLOCK hand picks the entry to replace,
+ * sparing those read since it last passed them.
+ *
+ * <p>Each slot stores the value and the key XOR the value, so a reader that races a
+ * writer sees a pair that does not check out and counts a miss rather than returning
+ * another position's value. Keys are 64 bits, so two positions sharing one is not a
+ * practical concern.
+ */
+public final class TranspositionCache {
+    /** Memory used per entry: key and value words plus a reference byte. */
+    public static final int ENTRY_BYTES = 17;
+
+    private static final int WAYS = 4;
+
+    private final AtomicLongArray keys;   // key ^ value bits, 0 for an empty slot
+    private final AtomicLongArray values;
+    private final byte[] referenced;      // CLOCK bits; races only cost eviction accuracy
+    private final byte[] hands;
+    private final int bucketMask;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    /** A cache using at most {@code maxBytes} of memory, rounded down to a power of two entries. */
+    public TranspositionCache(long maxBytes) {
+        // A bucket also has a one-byte hand
+        long fit = maxBytes / (WAYS * ENTRY_BYTES + 1);
+        int buckets = Integer.highestOneBit((int) Math.max(1, Math.min(fit, 1 << 26)));
+        bucketMask = buckets - 1;
+        keys = new AtomicLongArray(buckets * WAYS);
+        values = new AtomicLongArray(buckets * WAYS);
+        referenced = new byte[buckets * WAYS];
+        hands = new byte[buckets];
+    }
+
+    // Zobrist keys are already random, but a key of 0 would look like an empty slot
+    private static long check(long key) {
+        return key == 0 ? 1 : key;
+    }
+
+    private int bucket(long key) {
+        return (int) (key ^ (key >>> 32)) & bucketMask;
+    }
+
+    /** The value stored for {@code key}, or NaN if there is none. */
+    public double get(long key) {
+        key = check(key);
+        int base = bucket(key) * WAYS;
+        for (int i = base; i < base + WAYS; i++) {
+            long value = values.getOpaque(i);
+            if ((keys.getOpaque(i) ^ value) == key) {
+                referenced[i] = 1;
+                hits.increment();
+                return Double.longBitsToDouble(value);
+            }
+        }
+        misses.increment();
+        return Double.NaN;
+    }
+
+    /** Stores {@code value} for {@code key}, replacing an older entry if its bucket is full. */
+    public void put(long key, double value) {
+        key = check(key);
+        long bits = Double.doubleToRawLongBits(value);
+        int bucket = bucket(key);
+        int base = bucket * WAYS;
+
+        int slot = -1;
+        for (int i = base; i < base + WAYS; i++) {
+            long stored = keys.getOpaque(i);
+            if ((stored ^ values.getOpaque(i)) == key || stored == 0) {
+                slot = i;
+                break;
+            }
+        }
+        if (slot < 0) {
+            // Second chance: clear reference bits until the hand reaches an unreferenced entry
+            int hand = hands[bucket];
+            for (int turns = 0; turns < 2 * WAYS && referenced[base + hand] != 0; turns++) {
+                referenced[base + hand] = 0;
+                hand = (hand + 1) & (WAYS - 1);
+            }
+            slot = base + hand;
+            hands[bucket] = (byte) ((hand + 1) & (WAYS - 1));
+            evictions.increment();
+        }
+
+        values.setOpaque(slot, bits);
+        keys.setOpaque(slot, key ^ bits);
+        referenced[slot] = 0;
+    }
+
+    /** Empties the cache and zeroes the counters. Not safe while other threads use it. */
+    public void clear() {
+        for (int i = 0; i < referenced.length; i++) {
+            keys.setPlain(i, 0);
+            values.setPlain(i, 0);
+            referenced[i] = 0;
+        }
+        Arrays.fill(hands, (byte) 0);
+        hits.reset();
+        misses.reset();
+        evictions.reset();
+    }
+
+    public int getCapacity() {
+        return referenced.length;
+    }
+
+    public long getMemoryBytes() {
+        return (long) referenced.length * ENTRY_BYTES + hands.length;
+    }
+
+    public long getHits() {
+        return hits.sum();
+    }
+
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    /** Entries replaced to make room for new ones. */
+    public long getEvictions() {
+        return evictions.sum();
+    }
+
+    public double getHitRate() {
+        long h = hits.sum(), m = misses.sum();
+        return h + m == 0 ? 0 : (double) h / (h + m);
+    }
+}
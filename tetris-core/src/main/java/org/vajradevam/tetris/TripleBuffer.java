@@ -0,0 +1,44 @@
+package org.vajradevam.tetris;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Lock-free hand-off of the latest value from one writer thread to one reader thread.
+ * The writer fills {@link #back()} and calls {@link #publish()}; the reader calls
+ * {@link #read()} and always gets the most recently published buffer. Neither side
+ * ever waits, and the buffer a reader holds is not touched until it reads again.
+ */
+public final class TripleBuffer<T> {
+    private static final int INDEX = 0b011;
+    private static final int FRESH = 0b100;
+
+    private final T[] buffers;
+    // Index of the buffer in the middle slot, plus FRESH when the writer has published into it
+    private final AtomicInteger middle = new AtomicInteger(1);
+    private int back = 0;   // writer thread only
+    private int front = 2;  // reader thread only
+
+    @SuppressWarnings("unchecked")
+    public TripleBuffer(Supplier<T> factory) {
+        buffers = (T[]) new Object[] { factory.get(), factory.get(), factory.get() };
+    }
+
+    /** The buffer the writer may fill next. */
+    public T back() {
+        return buffers[back];
+    }
+
+    /** Makes the filled back buffer the latest value and takes the old middle as new back. */
+    public void publish() {
+        back = middle.getAndSet(back | FRESH) & INDEX;
+    }
+
+    /** The most recently published value; the same buffer as last time if nothing new arrived. */
+    public T read() {
+        if ((middle.get() & FRESH) != 0) {
+            front = middle.getAndSet(front) & INDEX;
+        }
+        return buffers[front];
+    }
+}
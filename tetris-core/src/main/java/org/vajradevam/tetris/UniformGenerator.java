@@ -0,0 +1,27 @@
+package org.vajradevam.tetris;
+
+import java.util.SplittableRandom;
+
+/**
+ * Deals every piece independently with equal probability, like the original game.
+ */
+public class UniformGenerator extends BufferedPieceGenerator {
+    private static final int BLOCK_SIZE = 512;
+    private static final int TYPE_COUNT = Tetromino.Type.values().length;
+
+    public UniformGenerator(long seed) {
+        super(seed, BLOCK_SIZE);
+    }
+
+    @Override
+    public PieceGenerator withSeed(long seed) {
+        return new UniformGenerator(seed);
+    }
+
+    @Override
+    protected void fill(byte[] buffer, SplittableRandom random) {
+        for (int i = 0; i < buffer.length; i++) {
+            buffer[i] = (byte) random.nextInt(TYPE_COUNT);
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package org.vajradevam.tetris;
+
+import java.util.SplittableRandom;
+
+/**
+ * Zobrist keys: a fixed random number per cell and per piece state, XORed together,
+ * so a position's key changes by one XOR per cell that changes. The cell keys of a
+ * row are pre-combined per half row, which makes the key of a whole row mask two
+ * lookups. Only occupancy counts; colours do not change how a position plays.
+ */
+final class Zobrist {
+    private static final int ROWS = GameBoard.getRows();
+    private static final int COLS = GameBoard.getCols();
+    private static final int LOW_BITS = COLS / 2;
+    private static final int LOW_MASK = (1 << LOW_BITS) - 1;
+    private static final int TYPES = Tetromino.Type.values().length;
+
+    private static final long[][] ROW_LOW = new long[ROWS][1 << LOW_BITS];
+    private static final long[][] ROW_HIGH = new long[ROWS][1 << (COLS - LOW_BITS)];
+    private static final long[] CURRENT = new long[TYPES * 4];
+    private static final long[] CURRENT_X = new long[16];
+    private static final long[] CURRENT_Y = new long[64];
+    private static final long[] NEXT = new long[TYPES];
+    private static final long[] HELD = new long[TYPES + 1];
+    private static final long CAN_HOLD;
+
+    static {
+        SplittableRandom random = new SplittableRandom(0x5A0B2157L);
+        for (int i = 0; i < ROWS; i++) {
+            combine(ROW_LOW[i], random);
+            combine(ROW_HIGH[i], random);
+        }
+        fill(CURRENT, random);
+        fill(CURRENT_X, random);
+        fill(CURRENT_Y, random);
+        fill(NEXT, random);
+        fill(HELD, random);
+        CAN_HOLD = random.nextLong();
+    }
+
+    private Zobrist() {}
+
+    // Entry m is the XOR of one random key per set bit of m
+    private static void combine(long[] table, SplittableRandom random) {
+        int bits = Integer.numberOfTrailingZeros(table.length);
+        long[] cells = new long[bits];
+        fill(cells, random);
+        for (int m = 1; m < table.length; m++) {
+            int low = Integer.numberOfTrailingZeros(m);
+            table[m] = table[m & (m - 1)] ^ cells[low];
+        }
+    }
+
+    private static void fill(long[] table, SplittableRandom random) {
+        for (int i = 0; i < table.length; i++) {
+            table[i] = random.nextLong();
+        }
+    }
+
+    /** Key of the occupied cells {@code mask} in row {@code row}; 0 for an empty row. */
+    static long row(int row, int mask) {
+        return ROW_LOW[row][mask & LOW_MASK] ^ ROW_HIGH[row][mask >>> LOW_BITS];
+    }
+
+    static long rows(int[] rows) {
+        long key = 0;
+        for (int i = 0; i < rows.length; i++) {
+            key ^= row(i, rows[i]);
+        }
+        return key;
+    }
+
+    static long pieces(Tetromino current, Tetromino next, Tetromino held, boolean canHold) {
+        return CURRENT[current.getType().ordinal() * 4 + current.getRotation()]
+             ^ CURRENT_X[(current.getX() + 4) & 15] ^ CURRENT_Y[(current.getY() + 32) & 63]
+             ^ NEXT[next.getType().ordinal()]
+             ^ HELD[held == null ? TYPES : held.getType().ordinal()]
+             ^ (canHold ? CAN_HOLD : 0);
+    }
+}
@@ -0,0 +1,112 @@
+package org.vajradevam.tetris;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Checks everything a {@link GameBoard} derives from its cells against a naive scan
+ * of those cells: row and column masks, the Zobrist stack key, the surface profile
+ * and the ghost row.
+ */
+final class BoardAssertions {
+    private static final int ROWS = GameBoard.getRows();
+    private static final int COLS = GameBoard.getCols();
+
+    private BoardAssertions() {}
+
+    static void assertConsistent(GameBoard board, String where) {
+        int[] rows = new int[ROWS];
+        for (int i = 0; i < ROWS; i++) {
+            for (int j = 0; j < COLS; j++) {
+                if (board.getCell(i, j) != 0) {
+                    rows[i] |= 1 << j;
+                }
+            }
+            assertEquals(rows[i], board.getRowMask(i), where + ": row mask " + i);
+        }
+        for (int j = 0; j < COLS; j++) {
+            int column = 0;
+            for (int i = 0; i < ROWS; i++) {
+                if ((rows[i] & (1 << j)) != 0) {
+                    column |= 1 << i;
+                }
+            }
+            assertEquals(column, board.getColumnMask(j), where + ": column mask " + j);
+        }
+
+        long key = 0;
+        for (int i = 0; i < ROWS; i++) {
+            key ^= Zobrist.row(i, rows[i]);
+        }
+        assertEquals(key, board.getStackKey(), where + ": stack key");
+
+        assertSurface(board, rows, where);
+        assertEquals(bruteForceGhostY(board, board.getCurrentPiece()), board.getGhostY(), where + ": ghost row");
+    }
+
+    /** Everything a player can see or a later move depends on, as one comparable string. */
+    static String describe(GameBoard board) {
+        StringBuilder s = new StringBuilder();
+        for (int i = 0; i < ROWS; i++) {
+            for (int j = 0; j < COLS; j++) {
+                s.append(board.getCell(i, j));
+            }
+            s.append('/');
+        }
+        Tetromino piece = board.getCurrentPiece();
+        s.append(" piece ").append(piece.getType()).append(piece.getRotation())
+                .append(" at ").append(piece.getX()).append(',').append(piece.getY());
+        s.append(" next ").append(board.getNextPiece().getType());
+        Tetromino held = board.getHeldPiece();
+        s.append(" held ").append(held == null ? "-" : held.getType()).append(board.canHold() ? "" : "*");
+        s.append(" score ").append(board.getScore()).append(" level ").append(board.getLevel())
+                .append(" lines ").append(board.getLinesCleared())
+                .append(" bag ").append(board.getPieceGenerator().getPosition())
+                .append(board.isGameOver() ? " over" : "");
+        return s.toString();
+    }
+
+    private static void assertSurface(GameBoard board, int[] rows, String where) {
+        SurfaceProfile surface = board.getSurface();
+        int[] heights = new int[COLS];
+        int aggregate = 0, holes = 0, bumpiness = 0;
+        for (int j = 0; j < COLS; j++) {
+            int columnHoles = 0;
+            for (int i = 0; i < ROWS; i++) {
+                if ((rows[i] & (1 << j)) != 0) {
+                    if (heights[j] == 0) heights[j] = ROWS - i;
+                } else if (heights[j] > 0) {
+                    columnHoles++;
+                }
+            }
+            assertEquals(heights[j], surface.getHeight(j), where + ": height of column " + j);
+            assertEquals(columnHoles, surface.getHoles(j), where + ": holes in column " + j);
+            aggregate += heights[j];
+            holes += columnHoles;
+            if (j > 0) bumpiness += Math.abs(heights[j] - heights[j - 1]);
+        }
+        assertEquals(aggregate, surface.getAggregateHeight(), where + ": aggregate height");
+        assertEquals(holes, surface.getHoles(), where + ": holes");
+        assertEquals(bumpiness, surface.getBumpiness(), where + ": bumpiness");
+    }
+
+    /** Whether the piece's cells at {@code (x, y)} are inside the walls and floor and on empty cells. */
+    static boolean fits(GameBoard board, Tetromino.State state, int x, int y) {
+        int[] cellX = state.getCellX(), cellY = state.getCellY();
+        for (int k = 0; k < cellX.length; k++) {
+            int col = x + cellX[k], row = y + cellY[k];
+            if (col < 0 || col >= COLS || row >= ROWS) return false;
+            if (row >= 0 && board.getCell(row, col) != 0) return false;
+        }
+        return true;
+    }
+
+    // Steps the piece down a row at a time; a piece that does not fit where it is reports the row above
+    static int bruteForceGhostY(GameBoard board, Tetromino piece) {
+        int y = piece.getY();
+        if (!fits(board, piece.getState(), piece.getX(), y)) return y - 1;
+        while (fits(board, piece.getState(), piece.getX(), y + 1)) {
+            y++;
+        }
+        return y;
+    }
+}
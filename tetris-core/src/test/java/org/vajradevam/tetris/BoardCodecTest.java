@@ -0,0 +1,106 @@
+package org.vajradevam.tetris;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Writes boards from seeded random play, garbage included, and reads them back both
+ * into a fresh board and over an existing one with the same dealer, whose masks, key
+ * and surface must be rebuilt from the decoded cells.
+ */
+class BoardCodecTest {
+    private static final GameSimulation.Command[] COMMANDS = GameSimulation.Command.values();
+
+    @Test
+    void roundTripsRandomPlay() {
+        SplittableRandom random = new SplittableRandom(21);
+        ByteBuffer buffer = ByteBuffer.allocateDirect(BoardCodec.MAX_BYTES);
+        for (int game = 0; game < 60; game++) {
+            long seed = random.nextLong();
+            boolean bag = game % 2 == 0;
+            GameBoard board = new GameBoard(bag ? new SevenBagGenerator(seed) : new UniformGenerator(seed));
+            // Same dealer, but played elsewhere first, so leftovers would show
+            GameBoard copy = new GameBoard(bag ? new SevenBagGenerator(seed) : new UniformGenerator(seed));
+            copy.addGarbageLines(5, 0);
+            copy.holdPiece();
+            for (int i = 0; i < 9; i++) {
+                copy.hardDrop();
+            }
+
+            for (int step = 0; step < 2000 && !board.isGameOver(); step++) {
+                int roll = random.nextInt(20);
+                if (roll < 12) {
+                    GameSimulation.apply(board, COMMANDS[random.nextInt(COMMANDS.length)]);
+                } else if (roll < 19) {
+                    board.moveDown();
+                } else {
+                    board.addGarbageLines(1 + random.nextInt(3), random.nextInt(GameBoard.getCols()));
+                }
+                String where = "game " + game + " step " + step;
+
+                buffer.clear();
+                BoardCodec.write(board, buffer);
+                int length = buffer.position();
+                assertTrue(length <= BoardCodec.MAX_BYTES, where + ": wrote " + length + " bytes");
+
+                buffer.flip();
+                BoardCodec.read(buffer, copy);
+                assertEquals(length, buffer.position(), where + ": bytes read into the copy");
+                assertEquals(BoardAssertions.describe(board), BoardAssertions.describe(copy), where + ": copy");
+                BoardAssertions.assertConsistent(copy, where + ": copy");
+                assertEquals(board.getZobristKey(), copy.getZobristKey(), where + ": zobrist key");
+
+                if (step % 50 == 0) {
+                    buffer.rewind();
+                    GameBoard fresh = BoardCodec.read(buffer);
+                    assertEquals(length, buffer.position(), where + ": bytes read into a fresh board");
+                    assertEquals(BoardAssertions.describe(board), BoardAssertions.describe(fresh), where + ": fresh");
+                    BoardAssertions.assertConsistent(fresh, where + ": fresh");
+
+                    buffer.rewind();
+                    BoardCodec.skip(buffer);
+                    assertEquals(length, buffer.position(), where + ": bytes skipped");
+                }
+            }
+
+            // Playing on must agree too, which needs the generator restored to the same point
+            for (int step = 0; step < 200; step++) {
+                board.moveDown();
+                copy.moveDown();
+            }
+            assertEquals(BoardAssertions.describe(board), BoardAssertions.describe(copy), "game " + game + " played on");
+        }
+    }
+
+    @Test
+    void refusesASnapshotFromAnotherDealer() {
+        ByteBuffer buffer = ByteBuffer.allocate(BoardCodec.MAX_BYTES);
+        BoardCodec.write(new GameBoard(new SevenBagGenerator(1)), buffer);
+        buffer.flip();
+        assertThrows(IllegalArgumentException.class, () -> BoardCodec.read(buffer, new GameBoard(new SevenBagGenerator(2))));
+    }
+
+    @Test
+    void readsBackToBackSnapshots() {
+        GameBoard[] boards = new GameBoard[4];
+        ByteBuffer buffer = ByteBuffer.allocate(BoardCodec.MAX_BYTES * boards.length);
+        for (int p = 0; p < boards.length; p++) {
+            boards[p] = new GameBoard(new SevenBagGenerator(p));
+            for (int i = 0; i < 5 * p; i++) {
+                boards[p].hardDrop();
+            }
+            BoardCodec.write(boards[p], buffer);
+        }
+        buffer.flip();
+        for (GameBoard board : boards) {
+            assertEquals(BoardAssertions.describe(board), BoardAssertions.describe(BoardCodec.read(buffer)));
+        }
+        assertEquals(0, buffer.remaining());
+    }
+}
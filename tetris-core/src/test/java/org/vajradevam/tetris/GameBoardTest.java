@@ -0,0 +1,165 @@
+package org.vajradevam.tetris;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Seeded games and hand-built stacks checking the ring-buffered rows, and everything
+ * kept alongside them, against naive scans of the cells after every step.
+ */
+class GameBoardTest {
+    private static final int ROWS = GameBoard.getRows();
+    private static final int COLS = GameBoard.getCols();
+    private static final GameSimulation.Command[] COMMANDS = GameSimulation.Command.values();
+
+    @Test
+    void randomPlayWithGarbageKeepsDerivedStateConsistent() {
+        SplittableRandom random = new SplittableRandom(11);
+        for (int game = 0; game < 40; game++) {
+            GameBoard board = new GameBoard(new UniformGenerator(game));
+            for (int step = 0; step < 3000 && !board.isGameOver(); step++) {
+                int roll = random.nextInt(20);
+                if (roll < 10) {
+                    GameSimulation.apply(board, COMMANDS[random.nextInt(COMMANDS.length)]);
+                } else if (roll < 18) {
+                    board.moveDown();
+                } else if (roll == 18) {
+                    board.addGarbageLines(1 + random.nextInt(4), random.nextInt(COLS));
+                } else {
+                    board.setCell(random.nextInt(ROWS), random.nextInt(COLS), random.nextInt(3));
+                }
+                BoardAssertions.assertConsistent(board, "game " + game + " step " + step);
+            }
+        }
+    }
+
+    @Test
+    void botGamesClearingLinesKeepDerivedStateConsistent() {
+        AutoPlayer bot = new AutoPlayer(ForkJoinPool.commonPool(), 4, null);
+        SplittableRandom random = new SplittableRandom(12);
+        int lines = 0;
+        for (int game = 0; game < 6; game++) {
+            GameBoard board = new GameBoard(new SevenBagGenerator(game));
+            for (int piece = 0; piece < 400 && bot.play(board); piece++) {
+                if (random.nextInt(8) == 0) {
+                    board.addGarbageLines(1 + random.nextInt(3), random.nextInt(COLS));
+                }
+                BoardAssertions.assertConsistent(board, "game " + game + " piece " + piece);
+            }
+            lines += board.getLinesCleared();
+        }
+        assertTrue(lines > 500, "bot games should clear plenty of lines, cleared " + lines);
+    }
+
+    @Test
+    void clearLinesMatchesRemovingRowsFromAList() {
+        SplittableRandom random = new SplittableRandom(13);
+        for (int trial = 0; trial < 2000; trial++) {
+            GameBoard board = new GameBoard(new SevenBagGenerator(trial));
+            // Garbage first moves the ring's base, so clears start from any offset
+            board.addGarbageLines(random.nextInt(ROWS), random.nextInt(COLS));
+            int stackTop = random.nextInt(ROWS);
+            for (int i = 0; i < ROWS; i++) {
+                for (int j = 0; j < COLS; j++) {
+                    int colour = 0;
+                    if (i >= stackTop && random.nextInt(4) != 0) colour = 1 + random.nextInt(GameBoard.GARBAGE_COLOR);
+                    board.setCell(i, j, colour);
+                }
+                if (i >= stackTop && random.nextInt(3) == 0) {
+                    for (int j = 0; j < COLS; j++) {
+                        board.setCell(i, j, 1 + random.nextInt(GameBoard.GARBAGE_COLOR));
+                    }
+                }
+            }
+
+            List<int[]> expected = new ArrayList<>();
+            int full = 0;
+            for (int i = 0; i < ROWS; i++) {
+                int[] row = new int[COLS];
+                boolean isFull = true;
+                for (int j = 0; j < COLS; j++) {
+                    row[j] = board.getCell(i, j);
+                    isFull &= row[j] != 0;
+                }
+                if (isFull) {
+                    full++;
+                } else {
+                    expected.add(row);
+                }
+            }
+            while (expected.size() < ROWS) {
+                expected.add(0, new int[COLS]);
+            }
+
+            assertEquals(full, board.clearLines(), "trial " + trial + ": lines cleared");
+            for (int i = 0; i < ROWS; i++) {
+                for (int j = 0; j < COLS; j++) {
+                    assertEquals(expected.get(i)[j], board.getCell(i, j), "trial " + trial + ": cell " + i + "," + j);
+                }
+            }
+            BoardAssertions.assertConsistent(board, "trial " + trial);
+        }
+    }
+
+    @Test
+    void garbagePushesTheStackUpAndTopsOut() {
+        GameBoard board = new GameBoard(new SevenBagGenerator(1));
+        board.setCell(ROWS - 1, 0, 1);
+        board.addGarbageLines(3, 4);
+        assertEquals(1, board.getCell(ROWS - 4, 0));
+        for (int i = ROWS - 3; i < ROWS; i++) {
+            for (int j = 0; j < COLS; j++) {
+                assertEquals(j == 4 ? 0 : GameBoard.GARBAGE_COLOR, board.getCell(i, j), "garbage cell " + i + "," + j);
+            }
+        }
+        BoardAssertions.assertConsistent(board, "after garbage");
+
+        board.addGarbageLines(ROWS - 3, 0);
+        assertTrue(board.isGameOver(), "the pushed-up block left the board");
+        BoardAssertions.assertConsistent(board, "after topping out");
+    }
+
+    @Test
+    void copyFromAndResetWorkAtAnyRingOffset() {
+        SplittableRandom random = new SplittableRandom(14);
+        GameBoard copy = new GameBoard(new SevenBagGenerator(0));
+        copy.addGarbageLines(7, 2);
+        for (int trial = 0; trial < 200; trial++) {
+            GameBoard board = new GameBoard(new SevenBagGenerator(trial));
+            for (int step = 0; step < 40 && !board.isGameOver(); step++) {
+                if (random.nextInt(4) == 0) {
+                    board.addGarbageLines(1 + random.nextInt(2), random.nextInt(COLS));
+                } else {
+                    board.hardDrop();
+                }
+            }
+            copy.copyFrom(board);
+            for (int i = 0; i < ROWS; i++) {
+                assertArrayEquals(cells(board, i), cells(copy, i), "trial " + trial + ": row " + i);
+            }
+            BoardAssertions.assertConsistent(copy, "copy " + trial);
+        }
+
+        copy.reset(new SevenBagGenerator(3));
+        for (int i = 0; i < ROWS; i++) {
+            assertArrayEquals(new int[COLS], cells(copy, i), "reset row " + i);
+        }
+        BoardAssertions.assertConsistent(copy, "after reset");
+    }
+
+    private static int[] cells(GameBoard board, int row) {
+        int[] cells = new int[COLS];
+        for (int j = 0; j < COLS; j++) {
+            cells[j] = board.getCell(row, j);
+        }
+        return cells;
+    }
+}
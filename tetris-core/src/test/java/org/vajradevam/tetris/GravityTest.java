@@ -0,0 +1,124 @@
+package org.vajradevam.tetris;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.fail;
+
+/**
+ * Drives {@link Gravity} the way {@link GameSimulation} does: one tick at a time,
+ * applying the drops it returns with {@link GameBoard#moveDown} and reporting moves
+ * that actually moved the piece.
+ */
+class GravityTest {
+    private static final int[] TICK_RATES = {30, 60, 120, 240};
+
+    @Test
+    void sameSpeedFallsTheSameRowsInTheSameTimeAtAnyTickRate() {
+        // 6 rows a second, and the level curve's 1.5 rows a second at level 1
+        for (double g : new double[] {0.1, 0}) {
+            int milliRowsPerSecond = g == 0 ? 1500 : 6000;
+            for (int rate : TICK_RATES) {
+                GameBoard board = new GameBoard(new SevenBagGenerator(1));
+                Gravity gravity = new Gravity(rate);
+                gravity.setFixedG(g);
+                Tetromino piece = board.getCurrentPiece();
+                int startY = piece.getY();
+
+                // Compare at every 1/30 s, the one instant all the rates share
+                int ticksPer30th = rate / 30;
+                for (int frame = 1; frame <= 60; frame++) {
+                    for (int t = 0; t < ticksPer30th; t++) {
+                        applyDrops(board, gravity.tick(board));
+                    }
+                    assertEquals(startY + milliRowsPerSecond * frame / 30_000, piece.getY(),
+                            g + "G at " + rate + " Hz after " + frame + "/30 s");
+                }
+                assertTrue(board.getCurrentPiece() == piece, "the piece should still be falling at " + rate + " Hz");
+            }
+        }
+    }
+
+    @Test
+    void lockDelayTakesTheSameTimeAtAnyTickRate() {
+        for (int rate : TICK_RATES) {
+            GameBoard board = new GameBoard(new SevenBagGenerator(2));
+            Gravity gravity = new Gravity(rate);
+            gravity.setFixedG(Gravity.MAX_G);
+            Tetromino piece = board.getCurrentPiece();
+            int rows = board.getGhostY() - piece.getY();
+
+            // 20G, 1200 rows a second, lands the piece part way through the first tick, and it
+            // locks on the first tick to end 500 ms after that
+            int expected = (rows * rate + 600 * rate + 1199) / 1200;
+            int ticks = 0;
+            while (board.getCurrentPiece() == piece) {
+                applyDrops(board, gravity.tick(board));
+                ticks++;
+            }
+            assertEquals(expected, ticks, "ticks to lock at " + rate + " Hz");
+        }
+    }
+
+    @Test
+    void kickingUpAndFallingBackDoesNotRestoreTheResets() {
+        for (int rate : TICK_RATES) {
+            GameBoard board = new GameBoard(new SevenBagGenerator(3));
+            Gravity gravity = new Gravity(rate);
+            gravity.setFixedG(1);
+            Tetromino piece = restInKickingSpot(board);
+            // One tick at rest first, so the engine's lowest row is where the piece starts
+            applyDrops(board, gravity.tick(board));
+            int lowestY = piece.getY();
+
+            // Rotate on every tick the piece rests: every other turn kicks it up a row, which it
+            // then falls back from. Only reaching a lower row than before may restore the resets
+            int moves = 0, kicks = 0;
+            for (int tick = 0; board.getCurrentPiece() == piece; tick++) {
+                if (tick > 100 * rate) fail("the piece never locked at " + rate + " Hz");
+                int y = piece.getY();
+                if (board.getGhostY() == y && rotated(board)) {
+                    gravity.moved(board);
+                    moves++;
+                    if (piece.getY() < y) kicks++;
+                }
+                applyDrops(board, gravity.tick(board));
+                if (board.getCurrentPiece() == piece && piece.getY() > lowestY) {
+                    lowestY = piece.getY();
+                    moves = 0;
+                }
+            }
+            assertTrue(kicks > Gravity.DEFAULT_MAX_LOCK_RESETS / 2, kicks + " rotations kicked the piece up");
+            assertTrue(moves <= Gravity.DEFAULT_MAX_LOCK_RESETS + 1,
+                    moves + " moves after the lowest row before locking at " + rate + " Hz");
+        }
+    }
+
+    private static void applyDrops(GameBoard board, int drops) {
+        for (; drops > 0; drops--) {
+            board.moveDown();
+        }
+    }
+
+    private static boolean rotated(GameBoard board) {
+        Tetromino piece = board.getCurrentPiece();
+        int rotation = piece.getRotation(), x = piece.getX(), y = piece.getY();
+        board.rotate();
+        return piece.getRotation() != rotation || piece.getX() != x || piece.getY() != y;
+    }
+
+    // A J on a ragged stack that the {0, -1} kick lifts on every other rotation
+    private static Tetromino restInKickingSpot(GameBoard board) {
+        int[] heights = {0, 0, 2, 1, 0, 1, 0, 3, 3, 2};
+        for (int j = 0; j < heights.length; j++) {
+            for (int i = 0; i < heights[j]; i++) {
+                board.setCell(GameBoard.getRows() - 1 - i, j, 1);
+            }
+        }
+        Tetromino piece = board.getCurrentPiece();
+        piece.set(Tetromino.Type.J, 2, 7, 0);
+        piece.setY(board.getGhostY());
+        return piece;
+    }
+}
@@ -0,0 +1,163 @@
+package org.vajradevam.tetris;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.SplittableRandom;
+import java.util.TreeSet;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Compares the finder with a plain breadth-first search that moves a piece on a
+ * GameBoard copy with moveLeft, moveRight, rotate and moveDown, on ragged stacks with
+ * overhangs so that tucks and spins come up.
+ */
+class PlacementFinderTest {
+    private static final GameSimulation.Command[] MOVES = {
+        GameSimulation.Command.MOVE_LEFT, GameSimulation.Command.MOVE_RIGHT,
+        GameSimulation.Command.ROTATE, GameSimulation.Command.SOFT_DROP
+    };
+
+    @Test
+    void findsTheSamePlacementsAndShortestInputsAsABruteForceSearch() {
+        PlacementFinder finder = new PlacementFinder();
+        GameSimulation.Command[] inputs = new GameSimulation.Command[256];
+        SplittableRandom random = new SplittableRandom(3);
+        int placements = 0, tucks = 0;
+
+        for (int game = 0; game < 60; game++) {
+            GameBoard board = raggedBoard(game, random);
+            GameBoard copy = new GameBoard(new SevenBagGenerator(game));
+            for (Tetromino.Type type : Tetromino.Type.values()) {
+                String where = "board " + game + " " + type;
+                board.getCurrentPiece().set(type, 0, 3, 0);
+                Map<String, Integer> expected = bruteForce(board, copy, type);
+
+                int count = finder.find(board);
+                assertEquals(expected.size(), count, where + ": placement count");
+                Set<String> seen = new HashSet<>();
+                for (int i = 0; i < count; i++) {
+                    String cells = cells(type, finder.getRotation(i), finder.getX(i), finder.getY(i));
+                    assertTrue(seen.add(cells), where + ": " + cells + " found twice");
+                    Integer shortest = expected.get(cells);
+                    assertNotNull(shortest, where + ": " + cells + " is not reachable");
+                    assertEquals(shortest.intValue(), finder.getInputCount(i), where + ": inputs to " + cells);
+                    assertEquals(i, finder.indexOf(finder.getRotation(i), finder.getX(i), finder.getY(i)), where + ": indexOf");
+
+                    int length = finder.copyInputs(i, inputs);
+                    assertEquals(finder.getInputCount(i), length, where + ": copied inputs");
+                    assertEquals(finder.getFirstInput(i), inputs[0], where + ": first input");
+                    assertEquals(GameSimulation.Command.HARD_DROP, inputs[length - 1], where + ": last input");
+                    assertLandsOn(board, copy, type, inputs, length, cells, where);
+                    if (length > 8) tucks++;
+                }
+                placements += count;
+            }
+        }
+        assertTrue(placements > 5000, "placements checked: " + placements);
+        assertTrue(tucks > 100, "placements needing long input sequences: " + tucks);
+    }
+
+    @Test
+    void blockedStartFindsNothing() {
+        GameBoard board = new GameBoard(new SevenBagGenerator(1));
+        for (int j = 0; j < GameBoard.getCols(); j++) {
+            board.setCell(1, j, 1);
+        }
+        assertEquals(0, new PlacementFinder().find(board, Tetromino.Type.O, 0, 3, 0));
+    }
+
+    // A stack of random heights with scattered overhangs, and room left at the top to spawn
+    private static GameBoard raggedBoard(int seed, SplittableRandom random) {
+        int rows = GameBoard.getRows(), cols = GameBoard.getCols();
+        GameBoard board = new GameBoard(new SevenBagGenerator(seed));
+        for (int i = 0; i < 60; i++) {
+            board.setCell(rows - 1 - random.nextInt(random.nextInt(12) + 1), random.nextInt(cols), 3);
+        }
+        for (int i = 0; i < 4; i++) {
+            for (int j = 0; j < cols; j++) {
+                board.setCell(i, j, 0);
+            }
+        }
+        return board;
+    }
+
+    // Shortest input count, final hard drop included, to each set of resting cells
+    private static Map<String, Integer> bruteForce(GameBoard board, GameBoard copy, Tetromino.Type type) {
+        Map<String, Integer> shortest = new HashMap<>();
+        Map<String, Integer> distance = new HashMap<>();
+        ArrayDeque<int[]> queue = new ArrayDeque<>();
+        if (!board.isValidPosition(board.getCurrentPiece())) return shortest;
+        queue.add(new int[] {0, 3, 0});
+        distance.put("0,3,0", 0);
+
+        while (!queue.isEmpty()) {
+            int[] state = queue.poll();
+            int moves = distance.get(state[0] + "," + state[1] + "," + state[2]);
+            place(board, copy, type, state);
+            shortest.merge(cells(type, state[0], state[1], copy.getGhostY()), moves + 1, Math::min);
+
+            for (GameSimulation.Command move : MOVES) {
+                place(board, copy, type, state);
+                if (move == GameSimulation.Command.SOFT_DROP) {
+                    // A soft drop that cannot move locks the piece, which is not a move
+                    if (!copy.moveDown()) continue;
+                } else {
+                    GameSimulation.apply(copy, move);
+                }
+                Tetromino piece = copy.getCurrentPiece();
+                String key = piece.getRotation() + "," + piece.getX() + "," + piece.getY();
+                if (!distance.containsKey(key)) {
+                    distance.put(key, moves + 1);
+                    queue.add(new int[] {piece.getRotation(), piece.getX(), piece.getY()});
+                }
+            }
+        }
+        return shortest;
+    }
+
+    private static void place(GameBoard board, GameBoard copy, Tetromino.Type type, int[] state) {
+        copy.copyFrom(board);
+        copy.getCurrentPiece().set(type, state[0], state[1], state[2]);
+    }
+
+    // Plays the inputs on a copy and checks the piece locks on the expected cells
+    private static void assertLandsOn(GameBoard board, GameBoard copy, Tetromino.Type type,
+                                      GameSimulation.Command[] inputs, int length, String cells, String where) {
+        copy.copyFrom(board);
+        copy.getCurrentPiece().set(type, 0, 3, 0);
+        for (int k = 0; k < length - 1; k++) {
+            GameSimulation.apply(copy, inputs[k]);
+        }
+        Tetromino piece = copy.getCurrentPiece();
+        assertEquals(type, piece.getType(), where + ": the piece locked before the hard drop");
+        assertEquals(cells, cells(type, piece.getRotation(), piece.getX(), copy.getGhostY()), where + ": replayed inputs");
+
+        int lines = copy.getLinesCleared();
+        GameSimulation.apply(copy, inputs[length - 1]);
+        if (copy.getLinesCleared() != lines) return; // rows moved; the ghost check above covers it
+        for (String cell : cells.substring(1, cells.length() - 1).split(", ")) {
+            int packed = Integer.parseInt(cell);
+            int row = Math.floorDiv(packed, 100), col = Math.floorMod(packed, 100);
+            if (row >= 0) {
+                assertEquals(type.getColorIndex(), copy.getCell(row, col), where + ": locked cell " + row + "," + col);
+            }
+        }
+    }
+
+    private static String cells(Tetromino.Type type, int rotation, int x, int y) {
+        Tetromino.State state = type.getState(rotation);
+        TreeSet<Integer> cells = new TreeSet<>();
+        for (int k = 0; k < state.getCellX().length; k++) {
+            cells.add((y + state.getCellY()[k]) * 100 + x + state.getCellX()[k]);
+        }
+        return cells.toString();
+    }
+}
@@ -0,0 +1,149 @@
+package org.vajradevam.tetris;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Records a seeded three-player match with garbage, two bots against random input,
+ * keeping the state at the start of every tick, and checks that {@link ReplayPlayer}
+ * gets back to it.
+ */
+class ReplayTest {
+    private static final int TICKS = 6000;
+    private static final int KEYFRAME_INTERVAL = 50;
+
+    @TempDir
+    Path dir;
+
+    private Path file;
+    // State of all boards at the start of each tick, before its events
+    private final List<String> states = new ArrayList<>();
+    private long endTick;
+
+    @BeforeEach
+    void record() throws IOException {
+        file = dir.resolve("match.trpl");
+        GameBoard[] boards = {
+            new GameBoard(new SevenBagGenerator(1)),
+            new GameBoard(new UniformGenerator(2)),
+            new GameBoard(new SevenBagGenerator(3))
+        };
+        GameSimulation simulation = new GameSimulation(boards);
+        ReplayRecorder recorder = ReplayRecorder.create(file, KEYFRAME_INTERVAL, boards);
+        simulation.setRecorder(recorder);
+        simulation.setGarbageEnabled(true, 9);
+        AutoPlayer bot = new AutoPlayer(ForkJoinPool.commonPool(), 2, null);
+        simulation.setController(0, new BotController(bot, 6));
+        simulation.setController(1, new BotController(bot, 9));
+
+        SplittableRandom random = new SplittableRandom(4);
+        GameSimulation.Command[] commands = GameSimulation.Command.values();
+        boolean garbage = false;
+        for (int t = 0; t < TICKS; t++) {
+            assertEquals(t, simulation.getTickCount());
+            states.add(describe(boards));
+            for (GameBoard board : boards) {
+                garbage |= board.getCell(GameBoard.getRows() - 1, 0) == GameBoard.GARBAGE_COLOR
+                        || board.getCell(GameBoard.getRows() - 1, 1) == GameBoard.GARBAGE_COLOR;
+            }
+            for (int p = 2; p < boards.length; p++) {
+                int roll = random.nextInt(40);
+                if (roll < 4) {
+                    simulation.submit(p, commands[random.nextInt(commands.length)]);
+                } else if (roll == 4) {
+                    simulation.press(p, commands[random.nextInt(3)]);
+                } else if (roll == 5) {
+                    simulation.release(p, commands[random.nextInt(3)]);
+                }
+            }
+            simulation.tick();
+        }
+        endTick = simulation.getTickCount();
+        states.add(describe(boards));
+        recorder.close(endTick);
+        assertTrue(garbage, "the bots should clear lines and so send garbage");
+    }
+
+    @Test
+    void playToEndReproducesTheFinalState() throws IOException {
+        try (ReplayPlayer player = ReplayPlayer.open(file)) {
+            assertEquals(3, player.getPlayerCount());
+            assertEquals(states.get(0), describe(player), "before any event");
+            player.playToEnd();
+            assertTrue(player.isFinished());
+            assertEquals(states.get(TICKS), describe(player), "at the end");
+            for (int p = 0; p < 3; p++) {
+                BoardAssertions.assertConsistent(player.getBoard(p), "player " + p + " at the end");
+            }
+        }
+    }
+
+    @Test
+    void randomSeeksMatchTheRecordedState() throws IOException {
+        SplittableRandom random = new SplittableRandom(7);
+        try (ReplayPlayer player = ReplayPlayer.open(file)) {
+            long previous = 0;
+            for (int i = 0; i < 300; i++) {
+                // Mostly short hops either way, which reuse the events already applied, and some long jumps
+                long target = i % 4 == 0
+                        ? random.nextInt(TICKS)
+                        : Math.max(0, Math.min(TICKS - 1, previous + random.nextInt(-80, 120)));
+                player.seek(target);
+                assertEquals(states.get((int) target), describe(player), "seek from " + previous + " to " + target);
+                previous = target;
+            }
+            player.seek(0);
+            assertEquals(states.get(0), describe(player), "seek back to the start");
+        }
+    }
+
+    @Test
+    void truncatedFileIsRescannedAndStillSeeks() throws IOException {
+        byte[] bytes = Files.readAllBytes(file);
+        Path truncated = dir.resolve("truncated.trpl");
+        // An odd cut, so the file most likely ends part way through an event or keyframe
+        Files.write(truncated, Arrays.copyOf(bytes, bytes.length * 2 / 3 + 1));
+
+        try (ReplayPlayer player = ReplayPlayer.open(truncated)) {
+            player.playToEnd();
+            long last = player.getTick();
+            assertTrue(last > TICKS / 3 && last < TICKS, "truncated replay ended at tick " + last);
+
+            SplittableRandom random = new SplittableRandom(8);
+            for (int i = 0; i < 100; i++) {
+                long target = random.nextLong(last);
+                player.seek(target);
+                assertEquals(states.get((int) target), describe(player), "seek to " + target + " in the truncated file");
+            }
+        }
+    }
+
+    private static String describe(GameBoard[] boards) {
+        StringBuilder s = new StringBuilder();
+        for (GameBoard board : boards) {
+            s.append(BoardAssertions.describe(board)).append('\n');
+        }
+        return s.toString();
+    }
+
+    private static String describe(ReplayPlayer player) {
+        GameBoard[] boards = new GameBoard[player.getPlayerCount()];
+        for (int p = 0; p < boards.length; p++) {
+            boards[p] = player.getBoard(p);
+        }
+        return describe(boards);
+    }
+}
@@ -0,0 +1,315 @@
+package org.vajradevam.tetris;
+
+import javafx.animation.AnimationTimer;
+import javafx.geometry.Pos;
+import javafx.scene.SnapshotParameters;
+import javafx.scene.canvas.Canvas;
+import javafx.scene.canvas.GraphicsContext;
+import javafx.scene.control.Label;
+import javafx.scene.image.Image;
+import javafx.scene.input.KeyCode;
+import javafx.scene.layout.BorderPane;
+import javafx.scene.layout.StackPane;
+import javafx.scene.paint.Color;
+import javafx.scene.text.Font;
+import javafx.scene.text.FontWeight;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Battle between 2 to 16 boards, human or AI, where cleared lines are sent to the
+ * next player as garbage. The last player standing wins.
+ *
+ * <p>Every board is drawn into one canvas from a shared cell atlas, driven by a single
+ * simulation and a single animation timer. A board is only repainted in a frame where
+ * its snapshot changed, so boards that are idle or out cost nothing to draw.
+ */
+public class BattlePanel extends BorderPane {
+    public static final int MAX_PLAYERS = 16;
+
+    private static final double AREA_WIDTH = 1180;
+    private static final double AREA_HEIGHT = 640;
+    private static final int MAX_CELL_SIZE = 25;
+    private static final int GAP = 16;
+    private static final int HEADER = 20;
+    // Lighter search and slower moves than Watch AI, since many bots share the simulation thread
+    private static final int AI_BEAM_WIDTH = 8;
+    private static final int AI_TICKS_PER_MOVE = 8;
+
+    private static final Color BACKGROUND = Color.rgb(22, 33, 62);
+    private static final Color GRID = Color.rgb(30, 40, 70);
+    private static final Color PANEL = Color.rgb(26, 26, 46);
+
+    private final TetrisGame mainApp;
+    private final int humans;
+    private final GameBoard[] boards;
+    private final GameSimulation simulation;
+    private final ReplayRecorder recorder;
+
+    private final Canvas canvas;
+    private final CellAtlas atlas;
+    private final Image emptyBoard;
+    private final int cellSize;
+    private final int columns;
+
+    // What each board showed when it was last drawn
+    private final int[] drawnVersion;
+    private final long[] drawnPieceKey;
+    private final int[] drawnScore;
+    private final boolean[] drawnOut;
+
+    private final Set<KeyCode> activeKeys = new HashSet<>();
+    private AnimationTimer gameLoop;
+    private boolean isPaused;
+    private boolean isFinished;
+
+    public BattlePanel(TetrisGame mainApp, int humans, int bots) {
+        this.mainApp = mainApp;
+        this.humans = humans;
+
+        int players = humans + bots;
+        boards = new GameBoard[players];
+        for (int p = 0; p < players; p++) {
+            boards[p] = new GameBoard();
+        }
+        simulation = new GameSimulation(boards);
+        simulation.setGarbageEnabled(true, System.nanoTime());
+        AutoPlayer bot = new AutoPlayer(ForkJoinPool.commonPool(), AI_BEAM_WIDTH);
+        for (int p = humans; p < players; p++) {
+            simulation.setController(p, new BotController(bot, AI_TICKS_PER_MOVE));
+        }
+        recorder = Replays.record("battle", simulation, boards);
+
+        // Square-ish grid of boards, with cells as large as fit
+        columns = players <= 4 ? players : (int) Math.ceil(Math.sqrt(players));
+        int gridRows = (players + columns - 1) / columns;
+        int fitWidth = (int) ((AREA_WIDTH - GAP * (columns + 1)) / (columns * GameBoard.getCols()));
+        int fitHeight = (int) ((AREA_HEIGHT - (GAP + HEADER) * gridRows - GAP) / (gridRows * GameBoard.getRows()));
+        cellSize = Math.min(MAX_CELL_SIZE, Math.min(fitWidth, fitHeight));
+        atlas = CellAtlas.get(cellSize, cellSize >= 20 ? 2 : 1);
+        emptyBoard = drawEmptyBoard();
+
+        canvas = new Canvas(columns * (boardWidth() + GAP) + GAP,
+                            gridRows * (boardHeight() + HEADER + GAP) + GAP);
+        GraphicsContext gc = canvas.getGraphicsContext2D();
+        gc.setFill(PANEL);
+        gc.fillRect(0, 0, canvas.getWidth(), canvas.getHeight());
+
+        drawnVersion = new int[players];
+        drawnPieceKey = new long[players];
+        drawnScore = new int[players];
+        drawnOut = new boolean[players];
+        Arrays.fill(drawnVersion, -1);
+        Arrays.fill(drawnScore, -1);
+
+        setStyle("-fx-background-color: #1a1a2e;");
+        setCenter(new StackPane(canvas));
+
+        Label info = new Label(controlsText() + "  |  P Pause  |  ESC Menu");
+        info.setStyle("-fx-font-size: 14px; -fx-text-fill: #aaa; -fx-padding: 10;");
+        BorderPane.setAlignment(info, Pos.CENTER);
+        setTop(info);
+
+        setupControls();
+    }
+
+    private String controlsText() {
+        switch (humans) {
+            case 0: return "AI only";
+            case 1: return "P1: arrows, SPACE drop, C hold";
+            default: return "P1: WASD, Shift+SPACE drop, Q hold  |  P2: arrows, ENTER drop, SHIFT hold";
+        }
+    }
+
+    private GameSimulation.Command commandFor(int player, KeyCode code, boolean shiftDown) {
+        if (humans == 1) {
+            return player == 0 ? KeyBindings.singlePlayer(code) : null;
+        }
+        if (player == 0) return KeyBindings.leftPlayer(code, shiftDown);
+        if (player == 1) return KeyBindings.rightPlayer(code);
+        return null;
+    }
+
+    private void setupControls() {
+        setOnKeyPressed(event -> {
+            KeyCode code = event.getCode();
+            // Ignore OS key repeat; held keys repeat on the simulation clock instead
+            if (!activeKeys.add(code)) return;
+
+            if (code == KeyCode.ESCAPE) {
+                stopGame();
+                mainApp.returnToMenu();
+                return;
+            }
+
+            if (code == KeyCode.P && !isFinished) {
+                togglePause();
+                return;
+            }
+
+            if (isPaused || isFinished) return;
+
+            for (int p = 0; p < humans; p++) {
+                GameSimulation.Command command = commandFor(p, code, event.isShiftDown());
+                if (command != null) {
+                    simulation.press(p, command);
+                }
+            }
+        });
+
+        setOnKeyReleased(event -> {
+            KeyCode code = event.getCode();
+            activeKeys.remove(code);
+            for (int p = 0; p < humans; p++) {
+                GameSimulation.Command command = commandFor(p, code, true);
+                if (command != null) {
+                    simulation.release(p, command);
+                }
+            }
+        });
+    }
+
+    public void startGame() {
+        gameLoop = new AnimationTimer() {
+            @Override
+            public void handle(long now) {
+                if (isPaused) return;
+
+                int alive = 0, winner = -1;
+                for (int p = 0; p < boards.length; p++) {
+                    BoardSnapshot snapshot = simulation.getSnapshot(p);
+                    drawIfChanged(p, snapshot);
+                    if (!snapshot.isGameOver()) {
+                        alive++;
+                        winner = p;
+                    }
+                }
+
+                if (alive <= 1) {
+                    finish(winner);
+                }
+            }
+        };
+
+        simulation.start();
+        gameLoop.start();
+    }
+
+    private void togglePause() {
+        isPaused = !isPaused;
+        simulation.setPaused(isPaused);
+        if (isPaused) {
+            drawBanner("PAUSED", Color.WHITE);
+        } else {
+            // Repaint everything the banner covered
+            GraphicsContext gc = canvas.getGraphicsContext2D();
+            gc.setFill(PANEL);
+            gc.fillRect(0, 0, canvas.getWidth(), canvas.getHeight());
+            Arrays.fill(drawnVersion, -1);
+            Arrays.fill(drawnScore, -1);
+        }
+    }
+
+    private void finish(int winner) {
+        isFinished = true;
+        gameLoop.stop();
+        Replays.finish(simulation, recorder);
+        drawBanner(winner < 0 ? "DRAW" : playerName(winner) + " WINS!", Color.GOLD);
+    }
+
+    public void stopGame() {
+        if (gameLoop != null) {
+            gameLoop.stop();
+        }
+        Replays.finish(simulation, recorder);
+    }
+
+    private String playerName(int player) {
+        return (player < humans ? "P" : "AI ") + (player < humans ? player + 1 : player - humans + 1);
+    }
+
+    // --- Drawing ---
+
+    private double boardWidth() { return GameBoard.getCols() * cellSize; }
+    private double boardHeight() { return GameBoard.getRows() * cellSize; }
+    private double originX(int player) { return GAP + (player % columns) * (boardWidth() + GAP); }
+    private double originY(int player) { return GAP + HEADER + (player / columns) * (boardHeight() + HEADER + GAP); }
+
+    private Image drawEmptyBoard() {
+        Canvas board = new Canvas(boardWidth(), boardHeight());
+        GraphicsContext gc = board.getGraphicsContext2D();
+        gc.setFill(BACKGROUND);
+        gc.fillRect(0, 0, board.getWidth(), board.getHeight());
+        gc.setStroke(GRID);
+        for (int i = 0; i <= GameBoard.getRows(); i++) {
+            gc.strokeLine(0, i * cellSize, board.getWidth(), i * cellSize);
+        }
+        for (int j = 0; j <= GameBoard.getCols(); j++) {
+            gc.strokeLine(j * cellSize, 0, j * cellSize, board.getHeight());
+        }
+        return board.snapshot(new SnapshotParameters(), null);
+    }
+
+    private void drawIfChanged(int player, BoardSnapshot board) {
+        Tetromino current = board.getCurrentPiece();
+        long pieceKey = ((long) board.getGhostY() << 32) | (current.getType().ordinal() << 16)
+                | (current.getRotation() << 14) | ((current.getX() & 0x7F) << 7) | (current.getY() & 0x7F);
+        boolean out = board.isGameOver();
+
+        if (board.getBoardVersion() != drawnVersion[player] || pieceKey != drawnPieceKey[player]
+                || out != drawnOut[player]) {
+            drawBoard(player, board, out);
+            drawnVersion[player] = board.getBoardVersion();
+            drawnPieceKey[player] = pieceKey;
+            drawnOut[player] = out;
+        }
+        if (board.getScore() != drawnScore[player]) {
+            drawHeader(player, board);
+            drawnScore[player] = board.getScore();
+        }
+    }
+
+    private void drawBoard(int player, BoardView board, boolean out) {
+        GraphicsContext gc = canvas.getGraphicsContext2D();
+        double x0 = originX(player);
+        double y0 = originY(player);
+        gc.drawImage(emptyBoard, x0, y0);
+        atlas.drawLockedCells(gc, board, x0, y0);
+
+        if (out) {
+            gc.setFill(Color.rgb(0, 0, 0, 0.6));
+            gc.fillRect(x0, y0, boardWidth(), boardHeight());
+            gc.setFill(Color.RED);
+            gc.setFont(Font.font("Arial", FontWeight.BOLD, Math.max(12, cellSize)));
+            gc.fillText("OUT", x0 + boardWidth() / 2 - cellSize, y0 + boardHeight() / 2);
+            return;
+        }
+
+        atlas.drawPiece(gc, board.getCurrentPiece(), board.getGhostY(), x0, y0);
+    }
+
+    private void drawHeader(int player, BoardView board) {
+        GraphicsContext gc = canvas.getGraphicsContext2D();
+        double x0 = originX(player);
+        double y0 = originY(player) - HEADER;
+        gc.setFill(PANEL);
+        gc.fillRect(x0, y0, boardWidth(), HEADER);
+        gc.setFill(player < humans ? Color.rgb(0, 255, 136) : Color.LIGHTGRAY);
+        gc.setFont(Font.font("Arial", FontWeight.BOLD, 13));
+        gc.fillText(playerName(player) + "  " + board.getScore(), x0, y0 + HEADER - 5);
+    }
+
+    private void drawBanner(String text, Color color) {
+        GraphicsContext gc = canvas.getGraphicsContext2D();
+        double width = canvas.getWidth();
+        double height = canvas.getHeight();
+        gc.setFill(Color.rgb(0, 0, 0, 0.7));
+        gc.fillRect(0, height / 2 - 50, width, 100);
+        gc.setFill(color);
+        gc.setFont(Font.font("Arial", FontWeight.BOLD, 40));
+        gc.fillText(text, width / 2 - text.length() * 12, height / 2 + 14);
+    }
+}
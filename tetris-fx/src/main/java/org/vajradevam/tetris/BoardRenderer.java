@@ -0,0 +1,140 @@
+package org.vajradevam.tetris;
+
+import javafx.scene.canvas.Canvas;
+import javafx.scene.canvas.GraphicsContext;
+import javafx.scene.layout.StackPane;
+import javafx.scene.paint.Color;
+
+/**
+ * Draws a board as a stack of canvas layers so that a frame only repaints what
+ * changed: the background grid is drawn once, locked cells only after a lock or line
+ * clear, and the falling piece and its ghost only when they move. The top layer is
+ * left to the owning panel for pause and game over messages.
+ */
+public class BoardRenderer extends StackPane {
+    private static final Color BACKGROUND = Color.rgb(22, 33, 62);
+    private static final Color INACTIVE_BACKGROUND = Color.rgb(40, 40, 40);
+    private static final Color GRID = Color.rgb(30, 40, 70);
+
+    private final int cellSize;
+    private final CellAtlas atlas;
+
+    private final Canvas gridLayer;
+    private final Canvas lockedLayer;
+    private final Canvas pieceLayer;
+    private final Canvas overlayLayer;
+
+    private boolean active = true;
+
+    private int drawnBoardVersion = -1;
+    private long drawnPieceKey = -1;
+    // Pixel bounds of the piece and ghost drawn last frame: x, y, width, height each
+    private final double[] pieceBounds = new double[4];
+    private final double[] ghostBounds = new double[4];
+
+    public BoardRenderer(int cellSize, int bevel) {
+        this.cellSize = cellSize;
+        this.atlas = CellAtlas.get(cellSize, bevel);
+
+        double width = GameBoard.getCols() * cellSize;
+        double height = GameBoard.getRows() * cellSize;
+        gridLayer = new Canvas(width, height);
+        lockedLayer = new Canvas(width, height);
+        pieceLayer = new Canvas(width, height);
+        overlayLayer = new Canvas(width, height);
+
+        getChildren().addAll(gridLayer, lockedLayer, pieceLayer, overlayLayer);
+        setMaxSize(USE_PREF_SIZE, USE_PREF_SIZE);
+        drawGrid();
+    }
+
+    /** An inactive board shows only the greyed grid, e.g. after its player topped out. */
+    public void setActive(boolean active) {
+        if (this.active == active) return;
+        this.active = active;
+        drawGrid();
+        invalidate();
+        if (!active) {
+            clear(lockedLayer);
+        }
+    }
+
+    /** Forces every board layer to be repainted on the next render. */
+    public void invalidate() {
+        drawnBoardVersion = -1;
+        drawnPieceKey = -1;
+        GraphicsContext gc = pieceLayer.getGraphicsContext2D();
+        gc.clearRect(0, 0, pieceLayer.getWidth(), pieceLayer.getHeight());
+        pieceBounds[2] = 0;
+        ghostBounds[2] = 0;
+    }
+
+    public void render(BoardView board) {
+        if (!active) return;
+
+        if (board.getBoardVersion() != drawnBoardVersion) {
+            drawLockedCells(board);
+            drawnBoardVersion = board.getBoardVersion();
+        }
+
+        Tetromino current = board.getCurrentPiece();
+        int ghostY = board.getGhostY();
+        long key = ((long) ghostY << 32) | (current.getType().ordinal() << 16)
+                | (current.getRotation() << 14) | ((current.getX() & 0x7F) << 7) | (current.getY() & 0x7F);
+        if (key != drawnPieceKey) {
+            drawPiece(current, ghostY);
+            drawnPieceKey = key;
+        }
+    }
+
+    public GraphicsContext getOverlay() {
+        return overlayLayer.getGraphicsContext2D();
+    }
+
+    public void clearOverlay() {
+        clear(overlayLayer);
+    }
+
+    public double getBoardWidth() { return gridLayer.getWidth(); }
+    public double getBoardHeight() { return gridLayer.getHeight(); }
+
+    private void drawGrid() {
+        GraphicsContext gc = gridLayer.getGraphicsContext2D();
+        gc.setFill(active ? BACKGROUND : INACTIVE_BACKGROUND);
+        gc.fillRect(0, 0, gridLayer.getWidth(), gridLayer.getHeight());
+
+        gc.setStroke(GRID);
+        for (int i = 0; i <= GameBoard.getRows(); i++) {
+            gc.strokeLine(0, i * cellSize, gridLayer.getWidth(), i * cellSize);
+        }
+        for (int j = 0; j <= GameBoard.getCols(); j++) {
+            gc.strokeLine(j * cellSize, 0, j * cellSize, gridLayer.getHeight());
+        }
+    }
+
+    private void drawLockedCells(BoardView board) {
+        clear(lockedLayer);
+        atlas.drawLockedCells(lockedLayer.getGraphicsContext2D(), board, 0, 0);
+    }
+
+    private void drawPiece(Tetromino current, int ghostY) {
+        GraphicsContext gc = pieceLayer.getGraphicsContext2D();
+        gc.clearRect(pieceBounds[0], pieceBounds[1], pieceBounds[2], pieceBounds[3]);
+        gc.clearRect(ghostBounds[0], ghostBounds[1], ghostBounds[2], ghostBounds[3]);
+
+        atlas.drawPiece(gc, current, ghostY, 0, 0);
+        bounds(ghostBounds, current.getState(), current.getX(), ghostY);
+        bounds(pieceBounds, current.getState(), current.getX(), current.getY());
+    }
+
+    private void bounds(double[] out, Tetromino.State state, int x, int y) {
+        out[0] = (x + state.getMinCol()) * cellSize;
+        out[1] = (y + state.getMinRow()) * cellSize;
+        out[2] = (state.getMaxCol() - state.getMinCol() + 1) * cellSize;
+        out[3] = (state.getMaxRow() - state.getMinRow() + 1) * cellSize;
+    }
+
+    private static void clear(Canvas canvas) {
+        canvas.getGraphicsContext2D().clearRect(0, 0, canvas.getWidth(), canvas.getHeight());
+    }
+}
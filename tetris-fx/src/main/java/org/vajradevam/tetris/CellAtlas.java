@@ -0,0 +1,111 @@
+package org.vajradevam.tetris;
+
+import javafx.scene.canvas.GraphicsContext;
+import javafx.scene.image.PixelWriter;
+import javafx.scene.image.WritableImage;
+import javafx.scene.paint.Color;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Pre-rendered cell tiles for one cell size: a row of square tiles, one per piece
+ * colour index, rasterized once into a WritableImage. Drawing a cell is then a single
+ * drawImage call instead of several fillRect calls and fresh brighter()/darker() colours.
+ * Tile 0, which would be the empty cell, holds the translucent ghost cell instead.
+ */
+public final class CellAtlas {
+    private static final Color GHOST = Color.rgb(255, 255, 255, 0.2);
+    private static final Map<Integer, CellAtlas> CACHE = new HashMap<>();
+
+    private final int cellSize;
+    private final WritableImage image;
+
+    private CellAtlas(int cellSize, int bevel) {
+        this.cellSize = cellSize;
+        this.image = new WritableImage(cellSize * PieceColors.count(), cellSize);
+
+        PixelWriter writer = image.getPixelWriter();
+        writeTile(writer, 0, GHOST, GHOST, GHOST, 0);
+        for (int i = 1; i < PieceColors.count(); i++) {
+            Color color = PieceColors.of(i);
+            writeTile(writer, i, color, color.brighter(), color.darker(), bevel);
+        }
+    }
+
+    /**
+     * Returns the shared atlas for a cell size. A bevel of 0 gives flat tiles, as used
+     * by the next and hold previews. Must be called on the JavaFX thread.
+     */
+    public static CellAtlas get(int cellSize, int bevel) {
+        return CACHE.computeIfAbsent(cellSize * 64 + bevel, k -> new CellAtlas(cellSize, bevel));
+    }
+
+    public void drawCell(GraphicsContext gc, int colorIndex, double x, double y) {
+        gc.drawImage(image, colorIndex * cellSize, 0, cellSize, cellSize, x, y, cellSize, cellSize);
+    }
+
+    public void drawGhost(GraphicsContext gc, double x, double y) {
+        drawCell(gc, 0, x, y);
+    }
+
+    /** Draws the board's locked cells with its top left corner at {@code (x0, y0)}. */
+    public void drawLockedCells(GraphicsContext gc, BoardView board, double x0, double y0) {
+        for (int i = 0; i < GameBoard.getRows(); i++) {
+            for (int j = 0; j < GameBoard.getCols(); j++) {
+                int cell = board.getCell(i, j);
+                if (cell != 0) {
+                    drawCell(gc, cell, x0 + j * cellSize, y0 + i * cellSize);
+                }
+            }
+        }
+    }
+
+    /**
+     * Draws the ghost at {@code ghostY} and the piece over it, on a board whose top left
+     * corner is at {@code (x0, y0)}. Cells above the top row are skipped.
+     */
+    public void drawPiece(GraphicsContext gc, Tetromino piece, int ghostY, double x0, double y0) {
+        Tetromino.State state = piece.getState();
+        int[] cellX = state.getCellX();
+        int[] cellY = state.getCellY();
+        double x = x0 + piece.getX() * cellSize;
+
+        for (int k = 0; k < cellX.length; k++) {
+            int row = ghostY + cellY[k];
+            if (row < 0) continue;
+            drawGhost(gc, x + cellX[k] * cellSize, y0 + row * cellSize);
+        }
+        int color = piece.getColorIndex();
+        for (int k = 0; k < cellX.length; k++) {
+            int row = piece.getY() + cellY[k];
+            if (row < 0) continue;
+            drawCell(gc, color, x + cellX[k] * cellSize, y0 + row * cellSize);
+        }
+    }
+
+    public int getCellSize() { return cellSize; }
+
+    // Same pixels as the old per-cell fillRect bevels: a 1px transparent margin, the
+    // base colour, light top and left edges, and dark right and bottom edges on top
+    private void writeTile(PixelWriter writer, int index, Color base, Color light, Color dark, int bevel) {
+        int size = cellSize;
+        int offset = index * size;
+
+        for (int py = 0; py < size; py++) {
+            for (int px = 0; px < size; px++) {
+                Color color;
+                if (px < 1 || py < 1 || px > size - 2 || py > size - 2) {
+                    color = Color.TRANSPARENT;
+                } else if (px >= size - 1 - bevel || py >= size - 1 - bevel) {
+                    color = dark;
+                } else if (px <= bevel || py <= bevel) {
+                    color = light;
+                } else {
+                    color = base;
+                }
+                writer.setColor(offset + px, py, color);
+            }
+        }
+    }
+}
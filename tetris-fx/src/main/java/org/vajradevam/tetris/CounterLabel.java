@@ -0,0 +1,22 @@
+package org.vajradevam.tetris;
+
+import javafx.scene.control.Label;
+
+/**
+ * HUD label for an integer value that only touches the scene graph when the value
+ * actually changes.
+ */
+public class CounterLabel extends Label {
+    private int value;
+
+    public CounterLabel(int initialValue) {
+        super(String.valueOf(initialValue));
+        this.value = initialValue;
+    }
+
+    public void setValue(int value) {
+        if (value == this.value) return;
+        this.value = value;
+        setText(String.valueOf(value));
+    }
+}
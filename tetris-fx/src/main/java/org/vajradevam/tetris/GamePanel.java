@@ -0,0 +1,288 @@
+package org.vajradevam.tetris;
+
+import javafx.animation.AnimationTimer;
+import javafx.geometry.Insets;
+import javafx.geometry.Pos;
+import javafx.scene.canvas.GraphicsContext;
+import javafx.scene.control.Button;
+import javafx.scene.control.Label;
+import javafx.scene.input.KeyCode;
+import javafx.scene.layout.*;
+import javafx.scene.paint.Color;
+import javafx.scene.text.Font;
+import javafx.scene.text.FontWeight;
+
+import java.util.HashSet;
+import java.util.Set;
+
+public class GamePanel extends BorderPane {
+    private static final int CELL_SIZE = 30;
+    // Simulation ticks between the bot's moves, so each one can be seen
+    private static final int AI_TICKS_PER_MOVE = 4;
+
+    private GameBoard gameBoard;
+    private GameSimulation simulation;
+    private ReplayRecorder recorder;
+    private BoardRenderer boardRenderer;
+    private PiecePreview nextPiecePreview;
+    private PiecePreview heldPiecePreview;
+    private MetricsOverlay metricsOverlay;
+
+    private AnimationTimer gameLoop;
+    private boolean isGameOver;
+
+    private CounterLabel scoreLabel;
+    private CounterLabel levelLabel;
+    private CounterLabel linesLabel;
+    private TetrisGame mainApp;
+    private boolean isPaused;
+    private final boolean autoPlay;
+    private AutoPlayer autoPlayer;
+    private final Set<KeyCode> activeKeys = new HashSet<>();
+
+    public GamePanel(TetrisGame mainApp, boolean isMultiplayer) {
+        this(mainApp, isMultiplayer, false);
+    }
+
+    /** With {@code autoPlay} the board is played by the bot and the keys only pause or leave. */
+    public GamePanel(TetrisGame mainApp, boolean isMultiplayer, boolean autoPlay) {
+        this.mainApp = mainApp;
+        this.isGameOver = false;
+        this.isPaused = false;
+        this.autoPlay = autoPlay;
+
+        gameBoard = new GameBoard();
+        simulation = new GameSimulation(gameBoard);
+        if (autoPlay) {
+            autoPlayer = new AutoPlayer();
+            simulation.setController(0, new BotController(autoPlayer, AI_TICKS_PER_MOVE));
+        }
+
+        setStyle("-fx-background-color: #1a1a2e;");
+
+        setupUI();
+        setupControls();
+    }
+
+    private void setupUI() {
+        // Main game canvas layers
+        boardRenderer = new BoardRenderer(CELL_SIZE, 3);
+
+        StackPane canvasPane = new StackPane(boardRenderer);
+        canvasPane.setStyle("-fx-background-color: #16213e; -fx-padding: 10;");
+        if (Metrics.ENABLED) {
+            metricsOverlay = new MetricsOverlay();
+            StackPane.setAlignment(metricsOverlay, Pos.TOP_LEFT);
+            canvasPane.getChildren().add(metricsOverlay);
+        }
+        setCenter(canvasPane);
+
+        // Right panel
+        VBox rightPanel = new VBox(20);
+        rightPanel.setPadding(new Insets(20));
+        rightPanel.setStyle("-fx-background-color: #16213e;");
+        rightPanel.setPrefWidth(200);
+
+        // Score display
+        VBox scoreBox = createInfoBox("SCORE");
+        scoreLabel = new CounterLabel(0);
+        scoreLabel.setStyle("-fx-font-size: 24px; -fx-text-fill: #00ff88; -fx-font-weight: bold;");
+        scoreBox.getChildren().add(scoreLabel);
+
+        // Level display
+        VBox levelBox = createInfoBox("LEVEL");
+        levelLabel = new CounterLabel(1);
+        levelLabel.setStyle("-fx-font-size: 24px; -fx-text-fill: #00ff88; -fx-font-weight: bold;");
+        levelBox.getChildren().add(levelLabel);
+
+        // Lines display
+        VBox linesBox = createInfoBox("LINES");
+        linesLabel = new CounterLabel(0);
+        linesLabel.setStyle("-fx-font-size: 24px; -fx-text-fill: #00ff88; -fx-font-weight: bold;");
+        linesBox.getChildren().add(linesLabel);
+
+        // Next piece
+        VBox nextBox = createInfoBox("NEXT");
+        nextPiecePreview = new PiecePreview(120, 120, 25);
+        nextBox.getChildren().add(nextPiecePreview);
+
+        // Held piece
+        VBox heldBox = createInfoBox("HOLD");
+        heldPiecePreview = new PiecePreview(120, 120, 25);
+        heldBox.getChildren().add(heldPiecePreview);
+
+        // Controls info
+        VBox controlsBox = createInfoBox("CONTROLS");
+        Label controls = new Label(autoPlay ? "AI playing\nP Pause\nESC Menu"
+            : "← → Move\n↓ Soft Drop\nSPACE Hard Drop\n↑ Rotate\nC Hold\nP Pause\nESC Menu");
+        controls.setStyle("-fx-font-size: 11px; -fx-text-fill: #ccc;");
+        controlsBox.getChildren().add(controls);
+
+        rightPanel.getChildren().addAll(scoreBox, levelBox, linesBox, nextBox, heldBox, controlsBox);
+        setRight(rightPanel);
+    }
+
+    private VBox createInfoBox(String title) {
+        VBox box = new VBox(5);
+        box.setAlignment(Pos.CENTER);
+        box.setStyle("-fx-background-color: #0f3460; -fx-padding: 10; -fx-background-radius: 5;");
+
+        Label titleLabel = new Label(title);
+        titleLabel.setStyle("-fx-font-size: 14px; -fx-text-fill: #aaa; -fx-font-weight: bold;");
+        box.getChildren().add(titleLabel);
+
+        return box;
+    }
+
+    private void setupControls() {
+        setOnKeyPressed(event -> {
+            KeyCode code = event.getCode();
+            // Ignore OS key repeat; held keys repeat on the simulation clock instead
+            if (!activeKeys.add(code)) return;
+            if (code == KeyCode.F3 && metricsOverlay != null) {
+                metricsOverlay.toggle();
+                return;
+            }
+            if (isGameOver) return;
+
+            if (code == KeyCode.ESCAPE) {
+                stopGame();
+                mainApp.returnToMenu();
+                return;
+            }
+
+            if (code == KeyCode.P) {
+                togglePause();
+                return;
+            }
+
+            if (isPaused || autoPlay) return;
+
+            // Applied by the simulation thread on its next tick
+            GameSimulation.Command command = KeyBindings.singlePlayer(code);
+            if (command != null) {
+                simulation.press(0, command);
+            }
+        });
+
+        setOnKeyReleased(event -> {
+            activeKeys.remove(event.getCode());
+            GameSimulation.Command command = KeyBindings.singlePlayer(event.getCode());
+            if (command != null) {
+                simulation.release(0, command);
+            }
+        });
+    }
+
+    /**
+     * Sets the panel up for a new game on the same board, simulation and nodes, so a
+     * finished panel can be shown again without rebuilding it.
+     */
+    public void reset() {
+        stopGame();
+        gameBoard.reset();
+        simulation.reset();
+        if (autoPlay) {
+            // The bot tells pieces apart by identity, and the board reuses its piece objects
+            simulation.setController(0, new BotController(autoPlayer, AI_TICKS_PER_MOVE));
+        }
+        recorder = null;
+        isGameOver = false;
+        isPaused = false;
+        activeKeys.clear();
+        boardRenderer.invalidate();
+        boardRenderer.clearOverlay();
+    }
+
+    public void startGame() {
+        recorder = Replays.record(autoPlay ? "ai" : "single", simulation, gameBoard);
+
+        // Game logic runs on the simulation thread; the pulse only draws its latest snapshot
+        gameLoop = new AnimationTimer() {
+            @Override
+            public void handle(long now) {
+                if (metricsOverlay != null) {
+                    metricsOverlay.frame(now);
+                }
+                if (isPaused) return;
+
+                BoardSnapshot snapshot = simulation.getSnapshot(0);
+                long start = Metrics.ENABLED ? System.nanoTime() : 0;
+                render(snapshot);
+                if (Metrics.ENABLED) {
+                    Metrics.RENDER.recordSince(start);
+                }
+
+                if (snapshot.isGameOver()) {
+                    gameOver(snapshot);
+                }
+            }
+        };
+
+        simulation.start();
+        gameLoop.start();
+    }
+
+    private void togglePause() {
+        isPaused = !isPaused;
+        simulation.setPaused(isPaused);
+        if (isPaused) {
+            GraphicsContext gc = boardRenderer.getOverlay();
+            double width = boardRenderer.getBoardWidth();
+            double height = boardRenderer.getBoardHeight();
+            gc.setFill(Color.rgb(0, 0, 0, 0.7));
+            gc.fillRect(0, 0, width, height);
+            gc.setFill(Color.WHITE);
+            gc.setFont(Font.font("Arial", FontWeight.BOLD, 36));
+            gc.fillText("PAUSED", width / 2 - 70, height / 2);
+        } else {
+            boardRenderer.clearOverlay();
+        }
+    }
+
+    private void render(BoardView board) {
+        // Each layer repaints itself only if its part of the board changed
+        boardRenderer.render(board);
+
+        nextPiecePreview.show(board.getNextPiece());
+        heldPiecePreview.show(board.getHeldPiece());
+
+        scoreLabel.setValue(board.getScore());
+        levelLabel.setValue(board.getLevel());
+        linesLabel.setValue(board.getLinesCleared());
+    }
+
+    private void gameOver(BoardView board) {
+        isGameOver = true;
+        gameLoop.stop();
+        Replays.finish(simulation, recorder);
+
+        // Only human scores go on the leaderboard
+        if (!autoPlay) {
+            LeaderboardManager.addScore(board.getScore());
+        }
+
+        GraphicsContext gc = boardRenderer.getOverlay();
+        double width = boardRenderer.getBoardWidth();
+        double height = boardRenderer.getBoardHeight();
+
+        gc.setFill(Color.rgb(0, 0, 0, 0.8));
+        gc.fillRect(0, 0, width, height);
+
+        gc.setFill(Color.RED);
+        gc.setFont(Font.font("Arial", FontWeight.BOLD, 36));
+        gc.fillText("GAME OVER", width / 2 - 110, height / 2 - 40);
+
+        gc.setFill(Color.WHITE);
+        gc.setFont(Font.font("Arial", FontWeight.NORMAL, 24));
+        gc.fillText("Score: " + board.getScore(), width / 2 - 70, height / 2 + 10);
+        gc.fillText("Press ESC for menu", width / 2 - 120, height / 2 + 50);
+    }
+
+    public void stopGame() {
+        if (gameLoop != null) {
+            gameLoop.stop();
+        }
+        Replays.finish(simulation, recorder);
+    }
+}
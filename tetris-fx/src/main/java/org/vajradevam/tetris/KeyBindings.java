@@ -0,0 +1,49 @@
+package org.vajradevam.tetris;
+
+import javafx.scene.input.KeyCode;
+
+/**
+ * Keyboard layouts shared by the game panels.
+ */
+public final class KeyBindings {
+    private KeyBindings() {}
+
+    /** Arrows, Space to hard drop and C to hold, for a player alone at the keyboard. */
+    public static GameSimulation.Command singlePlayer(KeyCode code) {
+        switch (code) {
+            case LEFT: return GameSimulation.Command.MOVE_LEFT;
+            case RIGHT: return GameSimulation.Command.MOVE_RIGHT;
+            case DOWN: return GameSimulation.Command.SOFT_DROP;
+            case UP: return GameSimulation.Command.ROTATE;
+            case SPACE: return GameSimulation.Command.HARD_DROP;
+            case C: return GameSimulation.Command.HOLD;
+            default: return null;
+        }
+    }
+
+    /** WASD, Q to hold and Shift+Space to hard drop, for the left of two players. */
+    public static GameSimulation.Command leftPlayer(KeyCode code, boolean shiftDown) {
+        switch (code) {
+            case A: return GameSimulation.Command.MOVE_LEFT;
+            case D: return GameSimulation.Command.MOVE_RIGHT;
+            case S: return GameSimulation.Command.SOFT_DROP;
+            case W: return GameSimulation.Command.ROTATE;
+            case Q: return GameSimulation.Command.HOLD;
+            case SPACE: return shiftDown ? GameSimulation.Command.HARD_DROP : null;
+            default: return null;
+        }
+    }
+
+    /** Arrows, Shift to hold and Enter to hard drop, for the right of two players. */
+    public static GameSimulation.Command rightPlayer(KeyCode code) {
+        switch (code) {
+            case LEFT: return GameSimulation.Command.MOVE_LEFT;
+            case RIGHT: return GameSimulation.Command.MOVE_RIGHT;
+            case DOWN: return GameSimulation.Command.SOFT_DROP;
+            case UP: return GameSimulation.Command.ROTATE;
+            case SHIFT: return GameSimulation.Command.HOLD;
+            case ENTER: return GameSimulation.Command.HARD_DROP;
+            default: return null;
+        }
+    }
+}
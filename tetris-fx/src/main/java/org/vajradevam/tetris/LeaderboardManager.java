@@ -0,0 +1,102 @@
+package org.vajradevam.tetris;
+
+import java.io.*;
+import java.nio.file.*;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.*;
+
+/**
+ * Keeps every score in a {@link ScoreLog} and shows the best {@value #MAX_ENTRIES}.
+ * Recording a score only queues it, so calling this from the FX thread never blocks
+ * a frame on disk I/O.
+ */
+public class LeaderboardManager {
+    private static final String SCORE_LOG_FILE = "tetris_scores.log";
+    private static final String LEGACY_FILE = "tetris_leaderboard.dat";
+    private static final int MAX_ENTRIES = 10;
+    private static final DateTimeFormatter DATE_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm");
+
+    public static class ScoreEntry implements Comparable<ScoreEntry> {
+        public int score;
+        public String date;
+
+        public ScoreEntry(int score, String date) {
+            this.score = score;
+            this.date = date;
+        }
+
+        @Override
+        public int compareTo(ScoreEntry other) {
+            return Integer.compare(other.score, this.score);
+        }
+    }
+
+    // Opened on first use, and closed on exit so queued scores reach the disk
+    private static final class Holder {
+        static final ScoreLog LOG = open();
+    }
+
+    // A log file that cannot be opened, e.g. in a read-only directory, costs only persistence:
+    // scores are still kept for this session
+    private static ScoreLog open() {
+        Path logFile = Paths.get(SCORE_LOG_FILE);
+        boolean fresh = !Files.exists(logFile);
+        try {
+            ScoreLog log = ScoreLog.open(logFile, MAX_ENTRIES);
+            if (fresh) {
+                importLegacyScores(log);
+            }
+            Runtime.getRuntime().addShutdownHook(new Thread(log::close, "score-log-close"));
+            return log;
+        } catch (IOException | RuntimeException e) {
+            e.printStackTrace();
+            return ScoreLog.inMemory(MAX_ENTRIES);
+        }
+    }
+
+    // Carries scores over from the old text leaderboard the first time the log is created
+    private static void importLegacyScores(ScoreLog log) {
+        File file = new File(LEGACY_FILE);
+        if (!file.exists()) return;
+
+        try (BufferedReader reader = new BufferedReader(new FileReader(file))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                String[] parts = line.split("\\|");
+                if (parts.length == 2) {
+                    long timestamp = LocalDateTime.parse(parts[1], DATE_FORMAT)
+                        .atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+                    log.add(timestamp, Integer.parseInt(parts[0]));
+                }
+            }
+        } catch (IOException | NumberFormatException | DateTimeParseException e) {
+            e.printStackTrace();
+        }
+    }
+
+    public static void addScore(int score) {
+        Holder.LOG.add(System.currentTimeMillis(), score);
+    }
+
+    public static List<ScoreEntry> loadScores() {
+        long start = Metrics.ENABLED ? System.nanoTime() : 0;
+        List<ScoreEntry> entries = new ArrayList<>();
+        for (ScoreLog.Entry entry : Holder.LOG.top()) {
+            String date = DATE_FORMAT.format(
+                LocalDateTime.ofInstant(Instant.ofEpochMilli(entry.timestamp), ZoneId.systemDefault()));
+            entries.add(new ScoreEntry(entry.score, date));
+        }
+        if (Metrics.ENABLED) {
+            Metrics.LEADERBOARD_IO.recordSince(start);
+        }
+        return entries;
+    }
+
+    public static void clearLeaderboard() {
+        Holder.LOG.clear();
+    }
+}
@@ -0,0 +1,136 @@
+package org.vajradevam.tetris;
+
+import javafx.geometry.Insets;
+import javafx.geometry.Pos;
+import javafx.scene.Node;
+import javafx.scene.control.Button;
+import javafx.scene.control.Label;
+import javafx.scene.layout.HBox;
+import javafx.scene.layout.VBox;
+import javafx.scene.text.Font;
+import javafx.scene.text.FontWeight;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class LeaderboardPanel extends VBox {
+    private TetrisGame mainApp;
+    private final Label noScores;
+    private final HBox header;
+    private final VBox scoresBox;
+    // One row per leaderboard place, built once and refilled by refresh()
+    private final List<HBox> rows = new ArrayList<>();
+
+    public LeaderboardPanel(TetrisGame mainApp) {
+        this.mainApp = mainApp;
+
+        setAlignment(Pos.TOP_CENTER);
+        setPadding(new Insets(30));
+        setSpacing(20);
+        setStyle("-fx-background-color: #1a1a2e;");
+
+        Label title = new Label("LEADERBOARD");
+        title.setStyle("-fx-font-size: 36px; -fx-font-weight: bold; -fx-text-fill: #00ff88;");
+
+        scoresBox = new VBox(10);
+        scoresBox.setAlignment(Pos.CENTER);
+        scoresBox.setPadding(new Insets(20));
+        scoresBox.setStyle("-fx-background-color: #16213e; -fx-background-radius: 10;");
+
+        noScores = new Label("No scores yet!");
+        noScores.setStyle("-fx-font-size: 18px; -fx-text-fill: #aaa;");
+
+        // Header
+        header = new HBox(20);
+        header.setAlignment(Pos.CENTER);
+
+        Label rankHeader = new Label("RANK");
+        rankHeader.setStyle("-fx-font-size: 16px; -fx-font-weight: bold; -fx-text-fill: #00ff88; -fx-min-width: 60;");
+
+        Label scoreHeader = new Label("SCORE");
+        scoreHeader.setStyle("-fx-font-size: 16px; -fx-font-weight: bold; -fx-text-fill: #00ff88; -fx-min-width: 100;");
+
+        Label dateHeader = new Label("DATE");
+        dateHeader.setStyle("-fx-font-size: 16px; -fx-font-weight: bold; -fx-text-fill: #00ff88; -fx-min-width: 150;");
+
+        header.getChildren().addAll(rankHeader, scoreHeader, dateHeader);
+        scoresBox.getChildren().addAll(noScores, header);
+
+        HBox buttonBox = new HBox(15);
+        buttonBox.setAlignment(Pos.CENTER);
+
+        Button backButton = new Button("Back to Menu");
+        Button clearButton = new Button("Clear Scores");
+
+        styleButton(backButton);
+        styleButton(clearButton);
+
+        backButton.setOnAction(e -> mainApp.returnToMenu());
+        clearButton.setOnAction(e -> {
+            LeaderboardManager.clearLeaderboard();
+            mainApp.returnToMenu();
+        });
+
+        buttonBox.getChildren().addAll(backButton, clearButton);
+
+        getChildren().addAll(title, scoresBox, buttonBox);
+        refresh();
+    }
+
+    /** Reloads the scores, reusing the rows built for earlier visits. */
+    public void refresh() {
+        List<LeaderboardManager.ScoreEntry> scores = LeaderboardManager.loadScores();
+
+        setShown(noScores, scores.isEmpty());
+        setShown(header, !scores.isEmpty());
+
+        while (rows.size() < scores.size()) {
+            rows.add(createRow(rows.size()));
+        }
+        for (int i = 0; i < rows.size(); i++) {
+            HBox row = rows.get(i);
+            setShown(row, i < scores.size());
+            if (i < scores.size()) {
+                LeaderboardManager.ScoreEntry entry = scores.get(i);
+                ((Label) row.getChildren().get(1)).setText(String.valueOf(entry.score));
+                ((Label) row.getChildren().get(2)).setText(entry.date);
+            }
+        }
+    }
+
+    private HBox createRow(int index) {
+        HBox scoreRow = new HBox(20);
+        scoreRow.setAlignment(Pos.CENTER);
+
+        Label rank = new Label("#" + (index + 1));
+        rank.setStyle("-fx-font-size: 18px; -fx-text-fill: white; -fx-min-width: 60;");
+
+        Label score = new Label();
+        score.setStyle("-fx-font-size: 18px; -fx-text-fill: #00ff88; -fx-min-width: 100;");
+
+        Label date = new Label();
+        date.setStyle("-fx-font-size: 14px; -fx-text-fill: #aaa; -fx-min-width: 150;");
+
+        scoreRow.getChildren().addAll(rank, score, date);
+        scoresBox.getChildren().add(scoreRow);
+        return scoreRow;
+    }
+
+    private static void setShown(Node node, boolean shown) {
+        node.setVisible(shown);
+        node.setManaged(shown);
+    }
+
+    private void styleButton(Button button) {
+        button.setPrefWidth(180);
+        button.setPrefHeight(40);
+        button.setStyle("-fx-background-color: #16213e; -fx-text-fill: white; " +
+                       "-fx-font-size: 16px; -fx-background-radius: 5;");
+        button.setOnMouseEntered(e -> button.setStyle(
+            "-fx-background-color: #0f4c75; -fx-text-fill: white; " +
+            "-fx-font-size: 16px; -fx-background-radius: 5;"));
+        button.setOnMouseExited(e -> button.setStyle(
+            "-fx-background-color: #16213e; -fx-text-fill: white; " +
+            "-fx-font-size: 16px; -fx-background-radius: 5;"));
+    }
+}
@@ -0,0 +1,76 @@
+package org.vajradevam.tetris;
+
+import javafx.scene.canvas.Canvas;
+import javafx.scene.canvas.GraphicsContext;
+import javafx.scene.paint.Color;
+import javafx.scene.text.Font;
+
+/**
+ * Debug overlay toggled with F3: frame rate, frame, render and tick percentiles over
+ * the last half second, the FX thread's allocation rate and garbage collections.
+ * Panels only create one when {@link Metrics#ENABLED}.
+ */
+class MetricsOverlay extends Canvas {
+    private static final long REFRESH_NANOS = 500_000_000L;
+    private static final Font FONT = Font.font("Monospaced", 12);
+
+    private final Histogram.Window frames = Metrics.FRAME.newWindow();
+    private final Histogram.Window renders = Metrics.RENDER.newWindow();
+    private final Histogram.Window ticks = Metrics.TICK.newWindow();
+
+    private long lastFrame;
+    private long lastRefresh;
+    private long lastAllocated;
+    private long lastGcCount;
+
+    MetricsOverlay() {
+        super(250, 100);
+        setMouseTransparent(true);
+        setVisible(false);
+    }
+
+    void toggle() {
+        setVisible(!isVisible());
+    }
+
+    /** Call at the start of every pulse with the pulse's timestamp. */
+    void frame(long now) {
+        if (lastFrame != 0) {
+            Metrics.FRAME.record(now - lastFrame);
+        }
+        lastFrame = now;
+        if (now - lastRefresh < REFRESH_NANOS) return;
+
+        double seconds = (now - lastRefresh) / 1e9;
+        frames.roll();
+        renders.roll();
+        ticks.roll();
+        long allocated = Metrics.threadAllocatedBytes();
+        long gcCount = Metrics.gcCount();
+        if (lastRefresh != 0 && isVisible()) {
+            draw(frames.getCount() / seconds, (allocated - lastAllocated) / seconds / (1 << 20), gcCount - lastGcCount);
+        }
+        lastRefresh = now;
+        lastAllocated = allocated;
+        lastGcCount = gcCount;
+    }
+
+    private void draw(double fps, double allocatedMb, long collections) {
+        GraphicsContext gc = getGraphicsContext2D();
+        gc.clearRect(0, 0, getWidth(), getHeight());
+        gc.setFill(Color.rgb(0, 0, 0, 0.6));
+        gc.fillRect(0, 0, getWidth(), getHeight());
+
+        gc.setFill(Color.LIME);
+        gc.setFont(FONT);
+        gc.fillText(String.format("FPS %5.1f", fps), 8, 16);
+        gc.fillText(String.format("frame  p99 %6.2f ms  max %6.2f", millis(frames.getPercentile(0.99)), millis(frames.getMax())), 8, 32);
+        gc.fillText(String.format("render p99 %6.2f ms  max %6.2f", millis(renders.getPercentile(0.99)), millis(renders.getMax())), 8, 48);
+        gc.fillText(String.format("tick   p99 %6.2f ms  max %6.2f", millis(ticks.getPercentile(0.99)), millis(ticks.getMax())), 8, 64);
+        gc.fillText(String.format("alloc %6.2f MB/s  gc %d", allocatedMb, collections), 8, 80);
+    }
+
+    private static double millis(long nanos) {
+        return nanos / 1e6;
+    }
+}
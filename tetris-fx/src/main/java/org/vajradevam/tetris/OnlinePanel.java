@@ -0,0 +1,230 @@
+package org.vajradevam.tetris;
+
+import javafx.animation.AnimationTimer;
+import javafx.geometry.Insets;
+import javafx.geometry.Pos;
+import javafx.scene.canvas.GraphicsContext;
+import javafx.scene.control.Label;
+import javafx.scene.input.KeyCode;
+import javafx.scene.layout.*;
+import javafx.scene.paint.Color;
+import javafx.scene.text.Font;
+import javafx.scene.text.FontWeight;
+
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Match hosted by a game server. Keys go straight to the server, which runs the
+ * game; this panel only draws the boards the {@link GameClient} keeps up to date,
+ * using the same renderers as the local modes.
+ */
+public class OnlinePanel extends BorderPane {
+    private static final int CELL_SIZE = 30;
+    private static final int OPPONENT_CELL_SIZE = 14;
+
+    private final TetrisGame mainApp;
+    private final GameClient client;
+
+    private BoardRenderer boardRenderer;
+    private BoardRenderer[] opponentRenderers;
+    private PiecePreview nextPiecePreview;
+    private PiecePreview heldPiecePreview;
+    private CounterLabel scoreLabel;
+    private CounterLabel levelLabel;
+    private CounterLabel linesLabel;
+    private final Label status;
+    private final TilePane opponents;
+
+    private AnimationTimer gameLoop;
+    private boolean[] drawnGameOver;
+    private boolean isFinished;
+    private final Set<KeyCode> activeKeys = new HashSet<>();
+
+    public OnlinePanel(TetrisGame mainApp, GameClient client) {
+        this.mainApp = mainApp;
+        this.client = client;
+
+        setStyle("-fx-background-color: #1a1a2e;");
+
+        status = new Label("Waiting for opponents...");
+        status.setStyle("-fx-font-size: 14px; -fx-text-fill: #aaa; -fx-padding: 10;");
+        setTop(status);
+
+        opponents = new TilePane(10, 10);
+        opponents.setPadding(new Insets(10));
+        opponents.setAlignment(Pos.CENTER);
+        setLeft(opponents);
+
+        setupUI();
+        setupControls();
+    }
+
+    private void setupUI() {
+        boardRenderer = new BoardRenderer(CELL_SIZE, 3);
+        StackPane canvasPane = new StackPane(boardRenderer);
+        canvasPane.setStyle("-fx-background-color: #16213e; -fx-padding: 10;");
+        setCenter(canvasPane);
+
+        VBox rightPanel = new VBox(20);
+        rightPanel.setPadding(new Insets(20));
+        rightPanel.setStyle("-fx-background-color: #16213e;");
+        rightPanel.setPrefWidth(200);
+
+        VBox scoreBox = createInfoBox("SCORE");
+        scoreLabel = new CounterLabel(0);
+        scoreLabel.setStyle("-fx-font-size: 24px; -fx-text-fill: #00ff88; -fx-font-weight: bold;");
+        scoreBox.getChildren().add(scoreLabel);
+
+        VBox levelBox = createInfoBox("LEVEL");
+        levelLabel = new CounterLabel(1);
+        levelLabel.setStyle("-fx-font-size: 24px; -fx-text-fill: #00ff88; -fx-font-weight: bold;");
+        levelBox.getChildren().add(levelLabel);
+
+        VBox linesBox = createInfoBox("LINES");
+        linesLabel = new CounterLabel(0);
+        linesLabel.setStyle("-fx-font-size: 24px; -fx-text-fill: #00ff88; -fx-font-weight: bold;");
+        linesBox.getChildren().add(linesLabel);
+
+        VBox nextBox = createInfoBox("NEXT");
+        nextPiecePreview = new PiecePreview(120, 120, 25);
+        nextBox.getChildren().add(nextPiecePreview);
+
+        VBox heldBox = createInfoBox("HOLD");
+        heldPiecePreview = new PiecePreview(120, 120, 25);
+        heldBox.getChildren().add(heldPiecePreview);
+
+        rightPanel.getChildren().addAll(scoreBox, levelBox, linesBox, nextBox, heldBox);
+        setRight(rightPanel);
+    }
+
+    private VBox createInfoBox(String title) {
+        VBox box = new VBox(5);
+        box.setAlignment(Pos.CENTER);
+        box.setStyle("-fx-background-color: #0f3460; -fx-padding: 10; -fx-background-radius: 5;");
+
+        Label titleLabel = new Label(title);
+        titleLabel.setStyle("-fx-font-size: 14px; -fx-text-fill: #aaa; -fx-font-weight: bold;");
+        box.getChildren().add(titleLabel);
+
+        return box;
+    }
+
+    private void setupControls() {
+        setOnKeyPressed(event -> {
+            KeyCode code = event.getCode();
+            // Ignore OS key repeat; held keys repeat on the server's clock instead
+            if (!activeKeys.add(code)) return;
+
+            if (code == KeyCode.ESCAPE) {
+                stopGame();
+                mainApp.returnToMenu();
+                return;
+            }
+
+            if (isFinished) return;
+
+            GameSimulation.Command command = KeyBindings.singlePlayer(code);
+            if (command != null) {
+                client.press(command);
+            }
+        });
+
+        setOnKeyReleased(event -> {
+            activeKeys.remove(event.getCode());
+            GameSimulation.Command command = KeyBindings.singlePlayer(event.getCode());
+            if (command != null) {
+                client.release(command);
+            }
+        });
+    }
+
+    public void startGame() {
+        gameLoop = new AnimationTimer() {
+            @Override
+            public void handle(long now) {
+                if (client.isClosed() && !client.isFinished()) {
+                    status.setText("Connection lost  |  ESC for Menu");
+                    stop();
+                    return;
+                }
+                if (!client.isStarted()) return;
+                if (opponentRenderers == null) {
+                    createOpponents();
+                }
+
+                int me = client.getPlayerIndex();
+                for (int p = 0; p < client.getPlayerCount(); p++) {
+                    BoardView board = client.getBoard(p);
+                    BoardRenderer renderer = p == me ? boardRenderer : opponentRenderers[p];
+                    renderer.render(board);
+                    if (board.isGameOver() && !drawnGameOver[p]) {
+                        drawnGameOver[p] = true;
+                        drawGameOver(renderer, p == me);
+                    }
+                    if (p == me) {
+                        nextPiecePreview.show(board.getNextPiece());
+                        heldPiecePreview.show(board.getHeldPiece());
+                        scoreLabel.setValue(board.getScore());
+                        levelLabel.setValue(board.getLevel());
+                        linesLabel.setValue(board.getLinesCleared());
+                    }
+                }
+
+                if (client.isFinished()) {
+                    finish();
+                }
+            }
+        };
+        gameLoop.start();
+    }
+
+    private void createOpponents() {
+        int players = client.getPlayerCount();
+        opponentRenderers = new BoardRenderer[players];
+        drawnGameOver = new boolean[players];
+        for (int p = 0; p < players; p++) {
+            if (p == client.getPlayerIndex()) continue;
+            opponentRenderers[p] = new BoardRenderer(OPPONENT_CELL_SIZE, 1);
+            opponents.getChildren().add(opponentRenderers[p]);
+        }
+        status.setText(players == 1 ? "Playing on the server  |  ESC for Menu"
+                                    : players + " player match  |  ESC for Menu");
+    }
+
+    private void drawGameOver(BoardRenderer renderer, boolean isMine) {
+        renderer.setActive(false);
+        if (!isMine) return;
+
+        GraphicsContext gc = renderer.getOverlay();
+        double width = renderer.getBoardWidth();
+        double height = renderer.getBoardHeight();
+        gc.setFill(Color.rgb(0, 0, 0, 0.6));
+        gc.fillRect(0, 0, width, height);
+        gc.setFill(Color.RED);
+        gc.setFont(Font.font("Arial", FontWeight.BOLD, 36));
+        gc.fillText("GAME OVER", width / 2 - 110, height / 2);
+    }
+
+    private void finish() {
+        isFinished = true;
+        gameLoop.stop();
+        client.close();
+
+        int winner = client.getWinner();
+        if (winner >= 0 && winner == client.getPlayerIndex()) {
+            status.setText("YOU WIN!  |  ESC for Menu");
+        } else if (winner >= 0) {
+            status.setText("Player " + (winner + 1) + " wins  |  ESC for Menu");
+        } else {
+            status.setText("Game over  |  ESC for Menu");
+        }
+    }
+
+    public void stopGame() {
+        if (gameLoop != null) {
+            gameLoop.stop();
+        }
+        client.close();
+    }
+}
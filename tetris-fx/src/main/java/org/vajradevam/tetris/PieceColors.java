@@ -0,0 +1,37 @@
+package org.vajradevam.tetris;
+
+import javafx.scene.paint.Color;
+
+/**
+ * Maps the colour indices stored by the headless engine to JavaFX colours.
+ */
+public final class PieceColors {
+    // Indexed by Tetromino.Type.getColorIndex(); slot 0 is the empty cell and the last
+    // slot is GameBoard.GARBAGE_COLOR
+    private static final Color[] COLORS = {
+        null,
+        Color.CYAN,     // I
+        Color.YELLOW,   // O
+        Color.PURPLE,   // T
+        Color.GREEN,    // S
+        Color.RED,      // Z
+        Color.BLUE,     // J
+        Color.ORANGE,   // L
+        Color.GRAY      // garbage
+    };
+
+    private PieceColors() {}
+
+    public static Color of(int colorIndex) {
+        return COLORS[colorIndex];
+    }
+
+    /** Number of colour indices, including the empty slot 0. */
+    public static int count() {
+        return COLORS.length;
+    }
+
+    public static Color of(Tetromino.Type type) {
+        return COLORS[type.getColorIndex()];
+    }
+}
@@ -0,0 +1,48 @@
+package org.vajradevam.tetris;
+
+import javafx.scene.canvas.Canvas;
+import javafx.scene.canvas.GraphicsContext;
+import javafx.scene.paint.Color;
+
+/**
+ * Small canvas showing the next or held piece. It is only repainted when the piece
+ * it shows changes.
+ */
+public class PiecePreview extends Canvas {
+    private static final Color BACKGROUND = Color.rgb(15, 52, 96);
+
+    private final int previewSize;
+    private final CellAtlas atlas;
+    private int drawnKey = -2;
+
+    public PiecePreview(double width, double height, int previewSize) {
+        super(width, height);
+        this.previewSize = previewSize;
+        this.atlas = CellAtlas.get(previewSize, 0);
+    }
+
+    public void show(Tetromino piece) {
+        int key = piece == null ? -1 : piece.getType().ordinal() * 4 + piece.getRotation();
+        if (key == drawnKey) return;
+        drawnKey = key;
+
+        GraphicsContext gc = getGraphicsContext2D();
+        gc.setFill(BACKGROUND);
+        gc.fillRect(0, 0, getWidth(), getHeight());
+
+        if (piece == null) return;
+
+        int[][] shape = piece.getShape();
+        int offsetX = (int)(getWidth() - shape[0].length * previewSize) / 2;
+        int offsetY = (int)(getHeight() - shape.length * previewSize) / 2;
+
+        int color = piece.getColorIndex();
+        for (int i = 0; i < shape.length; i++) {
+            for (int j = 0; j < shape[i].length; j++) {
+                if (shape[i][j] != 0) {
+                    atlas.drawCell(gc, color, offsetX + j * previewSize, offsetY + i * previewSize);
+                }
+            }
+        }
+    }
+}
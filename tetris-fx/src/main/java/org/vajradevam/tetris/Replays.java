@@ -0,0 +1,39 @@
+package org.vajradevam.tetris;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * Every game played in the UI is recorded to the {@code replays} directory, so that
+ * a reported bug or score can be played back later with {@link ReplayPlayer}.
+ */
+public class Replays {
+    private static final Path DIRECTORY = Paths.get("replays");
+    private static final DateTimeFormatter FILE_TIME = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss-SSS");
+
+    /** Starts recording the simulation's boards; returns null if the file cannot be created. */
+    public static ReplayRecorder record(String mode, GameSimulation simulation, GameBoard... boards) {
+        try {
+            Files.createDirectories(DIRECTORY);
+            Path file = DIRECTORY.resolve(mode + "-" + FILE_TIME.format(LocalDateTime.now()) + ".replay");
+            ReplayRecorder recorder = ReplayRecorder.create(file, boards);
+            simulation.setRecorder(recorder);
+            return recorder;
+        } catch (IOException e) {
+            e.printStackTrace();
+            return null;
+        }
+    }
+
+    /** Stops the simulation and finishes its replay file. */
+    public static void finish(GameSimulation simulation, ReplayRecorder recorder) {
+        simulation.stop();
+        if (recorder != null) {
+            recorder.close(simulation.getTickCount());
+        }
+    }
+}
@@ -0,0 +1,335 @@
+package org.vajradevam.tetris;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.zip.CRC32;
+
+/**
+ * Append-only binary log of every score ever recorded, with the best scores kept in
+ * memory.
+ *
+ * <p>Scores are appended as fixed 16-byte records by a background writer thread, so
+ * recording a score never waits for the disk. Every {@value #CHECKPOINT_INTERVAL}
+ * records the writer also saves a checkpoint (the current top scores plus the log
+ * offset they cover) by writing a temporary file and atomically renaming it. On
+ * startup the checkpoint is loaded and only the log records after it are scanned,
+ * through memory-mapped windows, so opening stays fast as the log grows.
+ */
+public class ScoreLog {
+    private static final int MAGIC = 0x5453434C; // "TSCL"
+    private static final int VERSION = 1;
+    private static final int HEADER_BYTES = 8;
+    private static final int RECORD_BYTES = 16;
+    private static final int CHECKPOINT_INTERVAL = 4096;
+    private static final int WRITE_BATCH = 256;
+    private static final long MAP_WINDOW = RECORD_BYTES * (1L << 22); // 64 MB
+
+    public static final class Entry {
+        public final long timestamp;
+        public final int score;
+
+        public Entry(long timestamp, int score) {
+            this.timestamp = timestamp;
+            this.score = score;
+        }
+    }
+
+    // Best first; ties go to the earlier score, as the old sorted list did
+    private static final Comparator<Entry> BEST_FIRST =
+        Comparator.comparingInt((Entry e) -> e.score).reversed().thenComparingLong(e -> e.timestamp);
+
+    // Sentinels asking the writer to truncate the log, and to finish up and stop
+    private static final Entry CLEAR = new Entry(Long.MIN_VALUE, Integer.MIN_VALUE);
+    private static final Entry CLOSE = new Entry(Long.MAX_VALUE, Integer.MIN_VALUE);
+
+    private final Path logFile;
+    private final Path checkpointFile;
+    private final int capacity;
+
+    // Min-heaps of the best `capacity` scores; the head is the one evicted next.
+    // `top` includes scores still queued for writing, `durableTop` only those on disk
+    // and is what checkpoints save.
+    private final PriorityQueue<Entry> top;
+    private final PriorityQueue<Entry> durableTop;
+    private final BlockingQueue<Entry> pending = new LinkedBlockingQueue<>();
+    private final Thread writer;
+    private volatile boolean closed;
+
+    private FileChannel channel;       // writer thread only, after open
+    private long sinceCheckpoint;      // writer thread only
+
+    private ScoreLog(Path logFile, Path checkpointFile, int capacity) {
+        this.logFile = logFile;
+        this.checkpointFile = checkpointFile;
+        this.capacity = capacity;
+        this.top = new PriorityQueue<>(capacity + 1, BEST_FIRST.reversed());
+        this.durableTop = new PriorityQueue<>(capacity + 1, BEST_FIRST.reversed());
+        this.writer = new Thread(this::writeLoop, "score-log-writer");
+        this.writer.setDaemon(true);
+    }
+
+    /**
+     * Opens (or creates) the log and rebuilds the in-memory top scores from the last
+     * checkpoint plus the records written after it.
+     */
+    public static ScoreLog open(Path logFile, int capacity) throws IOException {
+        Path checkpointFile = logFile.resolveSibling(logFile.getFileName() + ".ckpt");
+        ScoreLog log = new ScoreLog(logFile, checkpointFile, capacity);
+        try {
+            log.recover();
+        } catch (IOException | RuntimeException e) {
+            if (log.channel != null) {
+                log.channel.close();
+            }
+            throw e;
+        }
+        log.writer.start();
+        return log;
+    }
+
+    /** A log that keeps its top scores in memory only, for when the file cannot be used. */
+    public static ScoreLog inMemory(int capacity) {
+        return new ScoreLog(null, null, capacity);
+    }
+
+    /** Records a score; returns immediately and leaves the disk write to the writer thread. */
+    public void add(long timestamp, int score) {
+        Entry entry = new Entry(timestamp, score);
+        synchronized (top) {
+            offer(top, entry);
+        }
+        if (logFile != null) {
+            pending.offer(entry);
+        }
+    }
+
+    /** The best scores, best first. */
+    public List<Entry> top() {
+        List<Entry> entries;
+        synchronized (top) {
+            entries = new ArrayList<>(top);
+        }
+        entries.sort(BEST_FIRST);
+        return entries;
+    }
+
+    /** Forgets every score, including the ones already on disk. */
+    public void clear() {
+        synchronized (top) {
+            top.clear();
+        }
+        if (logFile != null) {
+            pending.offer(CLEAR);
+        }
+    }
+
+    /** Writes out everything queued so far, saves a checkpoint and stops the writer. */
+    public void close() {
+        if (closed || logFile == null) return;
+        closed = true;
+        pending.offer(CLOSE);
+        try {
+            writer.join(5000);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void offer(PriorityQueue<Entry> heap, Entry entry) {
+        if (heap.size() < capacity) {
+            heap.offer(entry);
+        } else if (BEST_FIRST.compare(entry, heap.peek()) < 0) {
+            heap.poll();
+            heap.offer(entry);
+        }
+    }
+
+    // --- Startup recovery ---
+
+    private void recover() throws IOException {
+        channel = FileChannel.open(logFile, StandardOpenOption.CREATE,
+                                   StandardOpenOption.READ, StandardOpenOption.WRITE);
+
+        if (channel.size() < HEADER_BYTES) {
+            ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+            header.putInt(MAGIC).putInt(VERSION).flip();
+            channel.truncate(0);
+            channel.write(header, 0);
+            Files.deleteIfExists(checkpointFile);
+        } else {
+            ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+            channel.read(header, 0);
+            header.flip();
+            if (header.getInt() != MAGIC || header.getInt() != VERSION) {
+                throw new IOException("Not a score log: " + logFile);
+            }
+        }
+
+        long offset = loadCheckpoint();
+        long end = scan(offset);
+        top.addAll(durableTop);
+
+        // Drop a torn record left by a crash in the middle of a write
+        if (end < channel.size()) {
+            channel.truncate(end);
+        }
+        channel.position(end);
+    }
+
+    private long loadCheckpoint() {
+        try {
+            if (!Files.exists(checkpointFile)) return HEADER_BYTES;
+
+            ByteBuffer buffer = ByteBuffer.wrap(Files.readAllBytes(checkpointFile));
+            if (buffer.remaining() < 28 || buffer.getInt() != MAGIC || buffer.getInt() != VERSION) {
+                return HEADER_BYTES;
+            }
+            long offset = buffer.getLong();
+            int count = buffer.getInt();
+            if (count < 0 || buffer.remaining() != count * 12 + 8 || offset > channel.size()) {
+                return HEADER_BYTES;
+            }
+
+            CRC32 crc = new CRC32();
+            crc.update(buffer.array(), 0, buffer.capacity() - 8);
+            List<Entry> entries = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                entries.add(new Entry(buffer.getLong(), buffer.getInt()));
+            }
+            if (buffer.getLong() != crc.getValue()) {
+                return HEADER_BYTES;
+            }
+
+            entries.forEach(entry -> offer(durableTop, entry));
+            return offset;
+        } catch (IOException e) {
+            e.printStackTrace();
+            return HEADER_BYTES;
+        }
+    }
+
+    // Reads records from `offset` through memory-mapped windows; returns the end of the last valid one
+    private long scan(long offset) throws IOException {
+        long size = channel.size();
+        long position = offset;
+
+        while (size - position >= RECORD_BYTES) {
+            long length = Math.min(MAP_WINDOW, (size - position) / RECORD_BYTES * RECORD_BYTES);
+            MappedByteBuffer window = channel.map(FileChannel.MapMode.READ_ONLY, position, length);
+
+            while (window.remaining() >= RECORD_BYTES) {
+                long timestamp = window.getLong();
+                int score = window.getInt();
+                int check = window.getInt();
+                if (check != checksum(timestamp, score)) {
+                    return position;
+                }
+                offer(durableTop, new Entry(timestamp, score));
+                position += RECORD_BYTES;
+            }
+        }
+
+        return position;
+    }
+
+    private static int checksum(long timestamp, int score) {
+        return MAGIC ^ score ^ (int) timestamp ^ (int) (timestamp >>> 32);
+    }
+
+    // --- Writer thread ---
+
+    private void writeLoop() {
+        List<Entry> batch = new ArrayList<>(WRITE_BATCH);
+        ByteBuffer buffer = ByteBuffer.allocate(WRITE_BATCH * RECORD_BYTES);
+
+        try {
+            boolean running = true;
+            while (running) {
+                batch.add(pending.take());
+                pending.drainTo(batch, WRITE_BATCH - 1);
+                running = write(batch, buffer);
+                batch.clear();
+            }
+            checkpoint();
+            channel.close();
+        } catch (IOException e) {
+            e.printStackTrace();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    // Appends a batch; returns false once the CLOSE sentinel has been reached
+    private boolean write(List<Entry> batch, ByteBuffer buffer) throws IOException {
+        long start = Metrics.ENABLED ? System.nanoTime() : 0;
+        boolean running = true;
+        buffer.clear();
+
+        for (Entry entry : batch) {
+            if (entry == CLOSE) {
+                running = false;
+                break;
+            }
+            if (entry == CLEAR) {
+                flush(buffer);
+                channel.truncate(HEADER_BYTES);
+                channel.position(HEADER_BYTES);
+                Files.deleteIfExists(checkpointFile);
+                durableTop.clear();
+                sinceCheckpoint = 0;
+                continue;
+            }
+            buffer.putLong(entry.timestamp).putInt(entry.score).putInt(checksum(entry.timestamp, entry.score));
+            offer(durableTop, entry);
+            sinceCheckpoint++;
+        }
+        flush(buffer);
+        channel.force(false);
+
+        if (sinceCheckpoint >= CHECKPOINT_INTERVAL) {
+            checkpoint();
+        }
+        if (Metrics.ENABLED) {
+            Metrics.LEADERBOARD_IO.recordSince(start);
+        }
+        return running;
+    }
+
+    private void flush(ByteBuffer buffer) throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+
+    private void checkpoint() throws IOException {
+        List<Entry> entries = new ArrayList<>(durableTop);
+
+        ByteBuffer buffer = ByteBuffer.allocate(20 + entries.size() * 12 + 8);
+        buffer.putInt(MAGIC).putInt(VERSION).putLong(channel.position()).putInt(entries.size());
+        for (Entry entry : entries) {
+            buffer.putLong(entry.timestamp).putInt(entry.score);
+        }
+        CRC32 crc = new CRC32();
+        crc.update(buffer.array(), 0, buffer.position());
+        buffer.putLong(crc.getValue());
+
+        Path temp = checkpointFile.resolveSibling(checkpointFile.getFileName() + ".tmp");
+        Files.write(temp, buffer.array());
+        Files.move(temp, checkpointFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        sinceCheckpoint = 0;
+    }
+}
@@ -0,0 +1,345 @@
+package org.vajradevam.tetris;
+
+import javafx.animation.AnimationTimer;
+import javafx.application.Application;
+import javafx.application.Platform;
+import javafx.geometry.Insets;
+import javafx.geometry.Pos;
+import javafx.scene.Parent;
+import javafx.scene.Scene;
+import javafx.scene.control.*;
+import javafx.scene.layout.*;
+import javafx.stage.Stage;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.function.Supplier;
+
+public class TetrisGame extends Application {
+    private Stage primaryStage;
+
+    // Screens are built once, by the pre-warm after start-up or on first use, and reused
+    private Scene menuScene;
+    private GamePanel singlePlayerPanel;
+    private Scene singlePlayerScene;
+    private GamePanel watchAiPanel;
+    private Scene watchAiScene;
+    private TwoPlayerPanel twoPlayerPanel;
+    private Scene twoPlayerScene;
+    private LeaderboardPanel leaderboardPanel;
+    private Scene leaderboardScene;
+    private Scene battleSetupScene;
+    private Label battleMessage;
+    private Scene onlineSetupScene;
+    private Label onlineMessage;
+
+    @Override
+    public void start(Stage primaryStage) {
+        this.primaryStage = primaryStage;
+        primaryStage.setTitle("Tetris Game");
+
+        showMainMenu();
+        prewarm();
+    }
+
+    /**
+     * Builds the other screens after the menu is up, one per frame so the menu stays
+     * responsive, and lays each out once so its styles are parsed before it is first
+     * shown. Nodes must be built on the FX thread; the score log is opened on a
+     * background thread instead.
+     */
+    private void prewarm() {
+        Thread scores = new Thread(LeaderboardManager::loadScores, "score-log-prewarm");
+        scores.setDaemon(true);
+        scores.start();
+
+        Iterator<Supplier<Scene>> screens = Arrays.<Supplier<Scene>>asList(
+            this::singlePlayerScene, this::twoPlayerScene, this::watchAiScene,
+            this::battleSetupScene, this::onlineSetupScene, this::leaderboardScene).iterator();
+        new AnimationTimer() {
+            @Override
+            public void handle(long now) {
+                if (!screens.hasNext()) {
+                    stop();
+                    return;
+                }
+                Parent root = screens.next().get().getRoot();
+                root.applyCss();
+                root.layout();
+            }
+        }.start();
+    }
+
+    private void showMainMenu() {
+        if (menuScene == null) {
+            menuScene = createMainMenu();
+        }
+        primaryStage.setScene(menuScene);
+        primaryStage.show();
+    }
+
+    private Scene createMainMenu() {
+        VBox menu = new VBox(20);
+        menu.setAlignment(Pos.CENTER);
+        menu.setPadding(new Insets(50));
+        menu.setStyle("-fx-background-color: #1a1a2e;");
+
+        Label title = new Label("TETRIS");
+        title.setStyle("-fx-font-size: 48px; -fx-font-weight: bold; -fx-text-fill: #00ff88;");
+
+        Button singlePlayer = new Button("Single Player");
+        Button twoPlayer = new Button("Two Player");
+        Button battle = new Button("Battle");
+        Button online = new Button("Play Online");
+        Button watchAi = new Button("Watch AI");
+        Button leaderboard = new Button("Leaderboard");
+        Button exit = new Button("Exit");
+
+        styleButton(singlePlayer);
+        styleButton(twoPlayer);
+        styleButton(battle);
+        styleButton(online);
+        styleButton(watchAi);
+        styleButton(leaderboard);
+        styleButton(exit);
+
+        singlePlayer.setOnAction(e -> startSinglePlayer());
+        twoPlayer.setOnAction(e -> startTwoPlayer());
+        battle.setOnAction(e -> showBattleSetup());
+        online.setOnAction(e -> showOnlineSetup());
+        watchAi.setOnAction(e -> startWatchAi());
+        leaderboard.setOnAction(e -> showLeaderboard());
+        exit.setOnAction(e -> primaryStage.close());
+
+        menu.getChildren().addAll(title, singlePlayer, twoPlayer, battle, online, watchAi, leaderboard, exit);
+
+        return new Scene(menu, 600, 700);
+    }
+
+    private void styleButton(Button button) {
+        button.setPrefWidth(250);
+        button.setPrefHeight(50);
+        button.setStyle("-fx-background-color: #16213e; -fx-text-fill: white; " +
+                       "-fx-font-size: 18px; -fx-background-radius: 5;");
+        button.setOnMouseEntered(e -> button.setStyle(
+            "-fx-background-color: #0f4c75; -fx-text-fill: white; " +
+            "-fx-font-size: 18px; -fx-background-radius: 5;"));
+        button.setOnMouseExited(e -> button.setStyle(
+            "-fx-background-color: #16213e; -fx-text-fill: white; " +
+            "-fx-font-size: 18px; -fx-background-radius: 5;"));
+    }
+
+    private Scene singlePlayerScene() {
+        if (singlePlayerScene == null) {
+            singlePlayerPanel = new GamePanel(this, false);
+            singlePlayerScene = new Scene(singlePlayerPanel, 800, 700);
+        }
+        return singlePlayerScene;
+    }
+
+    private Scene watchAiScene() {
+        if (watchAiScene == null) {
+            watchAiPanel = new GamePanel(this, false, true);
+            watchAiScene = new Scene(watchAiPanel, 800, 700);
+        }
+        return watchAiScene;
+    }
+
+    private Scene twoPlayerScene() {
+        if (twoPlayerScene == null) {
+            twoPlayerPanel = new TwoPlayerPanel(this);
+            twoPlayerScene = new Scene(twoPlayerPanel, 1200, 700);
+        }
+        return twoPlayerScene;
+    }
+
+    private void startSinglePlayer() {
+        primaryStage.setScene(singlePlayerScene());
+        singlePlayerPanel.reset();
+        singlePlayerPanel.requestFocus();
+        singlePlayerPanel.startGame();
+    }
+
+    private void startTwoPlayer() {
+        primaryStage.setScene(twoPlayerScene());
+        twoPlayerPanel.reset();
+        twoPlayerPanel.requestFocus();
+        twoPlayerPanel.startGame();
+    }
+
+    private void startWatchAi() {
+        primaryStage.setScene(watchAiScene());
+        watchAiPanel.reset();
+        watchAiPanel.requestFocus();
+        watchAiPanel.startGame();
+    }
+
+    private void showBattleSetup() {
+        primaryStage.setScene(battleSetupScene());
+        battleMessage.setText("");
+    }
+
+    private Scene battleSetupScene() {
+        if (battleSetupScene != null) return battleSetupScene;
+
+        VBox setup = new VBox(20);
+        setup.setAlignment(Pos.CENTER);
+        setup.setPadding(new Insets(50));
+        setup.setStyle("-fx-background-color: #1a1a2e;");
+
+        Label title = new Label("BATTLE");
+        title.setStyle("-fx-font-size: 36px; -fx-font-weight: bold; -fx-text-fill: #00ff88;");
+
+        Spinner<Integer> humans = new Spinner<>(0, 2, 1);
+        Spinner<Integer> bots = new Spinner<>(0, BattlePanel.MAX_PLAYERS, 3);
+        GridPane counts = new GridPane();
+        counts.setAlignment(Pos.CENTER);
+        counts.setHgap(15);
+        counts.setVgap(15);
+        counts.addRow(0, settingLabel("Players"), humans);
+        counts.addRow(1, settingLabel("AI opponents"), bots);
+
+        Label message = new Label();
+        message.setStyle("-fx-font-size: 14px; -fx-text-fill: #ff6b6b;");
+        battleMessage = message;
+
+        Button start = new Button("Start");
+        Button back = new Button("Back");
+        styleButton(start);
+        styleButton(back);
+
+        start.setOnAction(e -> {
+            int total = humans.getValue() + bots.getValue();
+            if (total < 2 || total > BattlePanel.MAX_PLAYERS) {
+                message.setText("A battle needs 2 to " + BattlePanel.MAX_PLAYERS + " boards");
+                return;
+            }
+            startBattle(humans.getValue(), bots.getValue());
+        });
+        back.setOnAction(e -> showMainMenu());
+
+        setup.getChildren().addAll(title, counts, message, start, back);
+        battleSetupScene = new Scene(setup, 600, 700);
+        return battleSetupScene;
+    }
+
+    private Label settingLabel(String text) {
+        Label label = new Label(text);
+        label.setStyle("-fx-font-size: 18px; -fx-text-fill: white;");
+        return label;
+    }
+
+    private void startBattle(int humans, int bots) {
+        BattlePanel battlePanel = new BattlePanel(this, humans, bots);
+        Scene scene = new Scene(battlePanel, 1200, 720);
+        primaryStage.setScene(scene);
+        battlePanel.requestFocus();
+        battlePanel.startGame();
+    }
+
+    private void showOnlineSetup() {
+        primaryStage.setScene(onlineSetupScene());
+        onlineMessage.setText("");
+    }
+
+    private Scene onlineSetupScene() {
+        if (onlineSetupScene != null) return onlineSetupScene;
+
+        VBox setup = new VBox(20);
+        setup.setAlignment(Pos.CENTER);
+        setup.setPadding(new Insets(50));
+        setup.setStyle("-fx-background-color: #1a1a2e;");
+
+        Label title = new Label("PLAY ONLINE");
+        title.setStyle("-fx-font-size: 36px; -fx-font-weight: bold; -fx-text-fill: #00ff88;");
+
+        TextField host = new TextField("localhost");
+        TextField port = new TextField(String.valueOf(NetProtocol.DEFAULT_PORT));
+        GridPane address = new GridPane();
+        address.setAlignment(Pos.CENTER);
+        address.setHgap(15);
+        address.setVgap(15);
+        address.addRow(0, settingLabel("Server"), host);
+        address.addRow(1, settingLabel("Port"), port);
+
+        Label message = new Label();
+        message.setStyle("-fx-font-size: 14px; -fx-text-fill: #ff6b6b;");
+        onlineMessage = message;
+
+        Button connect = new Button("Connect");
+        Button back = new Button("Back");
+        styleButton(connect);
+        styleButton(back);
+
+        connect.setOnAction(e -> {
+            String server = host.getText().trim();
+            int number;
+            try {
+                number = Integer.parseInt(port.getText().trim());
+            } catch (NumberFormatException ex) {
+                message.setText("Port must be a number");
+                return;
+            }
+            message.setText("Connecting...");
+            connect.setDisable(true);
+
+            // Connecting can block for seconds, so it happens off the FX thread
+            Thread connecting = new Thread(() -> {
+                try {
+                    GameClient client = GameClient.connect(server, number);
+                    Platform.runLater(() -> {
+                        connect.setDisable(false);
+                        message.setText("");
+                        if (primaryStage.getScene() == onlineSetupScene) {
+                            startOnline(client);
+                        } else {
+                            client.close(); // went back to the menu while connecting
+                        }
+                    });
+                } catch (IOException ex) {
+                    Platform.runLater(() -> {
+                        connect.setDisable(false);
+                        message.setText("Could not connect: " + ex.getMessage());
+                    });
+                }
+            }, "online-connect");
+            connecting.setDaemon(true);
+            connecting.start();
+        });
+        back.setOnAction(e -> showMainMenu());
+
+        setup.getChildren().addAll(title, address, message, connect, back);
+        onlineSetupScene = new Scene(setup, 600, 700);
+        return onlineSetupScene;
+    }
+
+    private void startOnline(GameClient client) {
+        OnlinePanel onlinePanel = new OnlinePanel(this, client);
+        Scene scene = new Scene(onlinePanel, 900, 700);
+        primaryStage.setScene(scene);
+        onlinePanel.requestFocus();
+        onlinePanel.startGame();
+    }
+
+    private Scene leaderboardScene() {
+        if (leaderboardScene == null) {
+            leaderboardPanel = new LeaderboardPanel(this);
+            leaderboardScene = new Scene(leaderboardPanel, 600, 500);
+        }
+        return leaderboardScene;
+    }
+
+    private void showLeaderboard() {
+        primaryStage.setScene(leaderboardScene());
+        leaderboardPanel.refresh();
+    }
+
+    public void returnToMenu() {
+        showMainMenu();
+    }
+
+    public static void main(String[] args) {
+        launch(args);
+    }
+}
@@ -0,0 +1,362 @@
+package org.vajradevam.tetris;
+
+import javafx.animation.AnimationTimer;
+import javafx.geometry.Insets;
+import javafx.geometry.Pos;
+import javafx.scene.canvas.GraphicsContext;
+import javafx.scene.control.Label;
+import javafx.scene.input.KeyCode;
+import javafx.scene.layout.*;
+import javafx.scene.paint.Color;
+import javafx.scene.text.Font;
+import javafx.scene.text.FontWeight;
+
+import java.util.HashSet;
+import java.util.Set;
+
+public class TwoPlayerPanel extends BorderPane {
+    private static final int CELL_SIZE = 25;
+
+    private static final int PLAYER_1 = 0;
+    private static final int PLAYER_2 = 1;
+
+    private GameBoard player1Board;
+    private GameBoard player2Board;
+    private GameSimulation simulation;
+    private ReplayRecorder recorder;
+
+    private BoardRenderer player1Renderer;
+    private BoardRenderer player2Renderer;
+    private PiecePreview p1NextPreview;
+    private PiecePreview p2NextPreview;
+    private PiecePreview p1HeldPreview;
+    private PiecePreview p2HeldPreview;
+
+    private CounterLabel p1ScoreLabel;
+    private CounterLabel p2ScoreLabel;
+    private CounterLabel p1LevelLabel;
+    private CounterLabel p2LevelLabel;
+
+    private AnimationTimer gameLoop;
+
+    private boolean player1GameOver;
+    private boolean player2GameOver;
+    private boolean isPaused;
+
+    private TetrisGame mainApp;
+    private Set<KeyCode> activeKeys;
+
+    public TwoPlayerPanel(TetrisGame mainApp) {
+        this.mainApp = mainApp;
+        this.player1GameOver = false;
+        this.player2GameOver = false;
+        this.isPaused = false;
+        this.activeKeys = new HashSet<>();
+
+        player1Board = new GameBoard();
+        player2Board = new GameBoard();
+        simulation = new GameSimulation(player1Board, player2Board);
+
+        setStyle("-fx-background-color: #1a1a2e;");
+
+        setupUI();
+        setupControls();
+    }
+
+    private void setupUI() {
+        HBox centerBox = new HBox(40);
+        centerBox.setAlignment(Pos.CENTER);
+        centerBox.setPadding(new Insets(20));
+
+        // Player 1 section
+        VBox player1Section = createPlayerSection("PLAYER 1 (WASD)", true);
+
+        // Player 2 section
+        VBox player2Section = createPlayerSection("PLAYER 2 (ARROWS)", false);
+
+        centerBox.getChildren().addAll(player1Section, player2Section);
+        setCenter(centerBox);
+
+        // Top info
+        Label pauseInfo = new Label("Press P to Pause | ESC for Menu");
+        pauseInfo.setStyle("-fx-font-size: 14px; -fx-text-fill: #aaa;");
+        StackPane topPane = new StackPane(pauseInfo);
+        topPane.setPadding(new Insets(10));
+        setTop(topPane);
+    }
+
+    private VBox createPlayerSection(String playerName, boolean isPlayer1) {
+        VBox section = new VBox(15);
+        section.setAlignment(Pos.CENTER);
+
+        Label nameLabel = new Label(playerName);
+        nameLabel.setStyle("-fx-font-size: 20px; -fx-text-fill: #00ff88; -fx-font-weight: bold;");
+
+        HBox gameArea = new HBox(10);
+        gameArea.setAlignment(Pos.CENTER);
+
+        // Left info panel
+        VBox leftPanel = new VBox(10);
+        leftPanel.setAlignment(Pos.CENTER);
+
+        VBox heldBox = createSmallInfoBox("HOLD");
+        PiecePreview heldPreview = new PiecePreview(80, 80, 18);
+        heldBox.getChildren().add(heldPreview);
+
+        VBox scoreBox = createSmallInfoBox("SCORE");
+        CounterLabel scoreLabel = new CounterLabel(0);
+        scoreLabel.setStyle("-fx-font-size: 18px; -fx-text-fill: #00ff88; -fx-font-weight: bold;");
+        scoreBox.getChildren().add(scoreLabel);
+
+        VBox levelBox = createSmallInfoBox("LEVEL");
+        CounterLabel levelLabel = new CounterLabel(1);
+        levelLabel.setStyle("-fx-font-size: 18px; -fx-text-fill: #00ff88; -fx-font-weight: bold;");
+        levelBox.getChildren().add(levelLabel);
+
+        leftPanel.getChildren().addAll(heldBox, scoreBox, levelBox);
+
+        // Main canvas layers
+        BoardRenderer renderer = new BoardRenderer(CELL_SIZE, 2);
+        StackPane canvasPane = new StackPane(renderer);
+        canvasPane.setStyle("-fx-background-color: #16213e; -fx-padding: 5;");
+
+        // Right panel
+        VBox rightPanel = new VBox(10);
+        rightPanel.setAlignment(Pos.CENTER);
+
+        VBox nextBox = createSmallInfoBox("NEXT");
+        PiecePreview nextPreview = new PiecePreview(80, 80, 18);
+        nextBox.getChildren().add(nextPreview);
+
+        VBox controlsBox = createSmallInfoBox("KEYS");
+        String controls = isPlayer1 ? "A/D Move\nS Drop\nW Rotate\nQ Hold" : "← / → Move\n↓ Drop\n↑ Rotate\nShift Hold";
+        Label controlsLabel = new Label(controls);
+        controlsLabel.setStyle("-fx-font-size: 10px; -fx-text-fill: #ccc;");
+        controlsBox.getChildren().add(controlsLabel);
+
+        rightPanel.getChildren().addAll(nextBox, controlsBox);
+
+        gameArea.getChildren().addAll(leftPanel, canvasPane, rightPanel);
+
+        section.getChildren().addAll(nameLabel, gameArea);
+
+        if (isPlayer1) {
+            player1Renderer = renderer;
+            p1NextPreview = nextPreview;
+            p1HeldPreview = heldPreview;
+            p1ScoreLabel = scoreLabel;
+            p1LevelLabel = levelLabel;
+        } else {
+            player2Renderer = renderer;
+            p2NextPreview = nextPreview;
+            p2HeldPreview = heldPreview;
+            p2ScoreLabel = scoreLabel;
+            p2LevelLabel = levelLabel;
+        }
+
+        return section;
+    }
+
+    private VBox createSmallInfoBox(String title) {
+        VBox box = new VBox(5);
+        box.setAlignment(Pos.CENTER);
+        box.setStyle("-fx-background-color: #0f3460; -fx-padding: 8; -fx-background-radius: 5;");
+        box.setPrefWidth(100);
+
+        Label titleLabel = new Label(title);
+        titleLabel.setStyle("-fx-font-size: 11px; -fx-text-fill: #aaa; -fx-font-weight: bold;");
+        box.getChildren().add(titleLabel);
+
+        return box;
+    }
+
+    private void setupControls() {
+        setOnKeyPressed(event -> {
+            KeyCode code = event.getCode();
+            // Ignore OS key repeat; held keys repeat on the simulation clock instead
+            if (!activeKeys.add(code)) return;
+
+            if (code == KeyCode.ESCAPE) {
+                stopGame();
+                mainApp.returnToMenu();
+                return;
+            }
+
+            if (code == KeyCode.P) {
+                togglePause();
+                return;
+            }
+
+            if (isPaused) return;
+
+            // Commands are applied by the simulation thread on its next tick
+
+            // Player 1 controls (WASD + Q for hold, Shift+Space to hard drop)
+            GameSimulation.Command command = KeyBindings.leftPlayer(code, event.isShiftDown());
+            if (command != null && !player1GameOver) {
+                simulation.press(PLAYER_1, command);
+            }
+
+            // Player 2 controls (Arrow keys + Shift for hold, Enter to hard drop)
+            command = KeyBindings.rightPlayer(code);
+            if (command != null && !player2GameOver) {
+                simulation.press(PLAYER_2, command);
+            }
+        });
+
+        setOnKeyReleased(event -> {
+            KeyCode code = event.getCode();
+            activeKeys.remove(code);
+
+            // Releasing a key that did nothing is harmless, so Shift is not checked here
+            GameSimulation.Command command = KeyBindings.leftPlayer(code, true);
+            if (command != null) {
+                simulation.release(PLAYER_1, command);
+            }
+            command = KeyBindings.rightPlayer(code);
+            if (command != null) {
+                simulation.release(PLAYER_2, command);
+            }
+        });
+    }
+
+    /**
+     * Sets the panel up for a new match on the same boards, simulation and nodes, so a
+     * finished panel can be shown again without rebuilding it.
+     */
+    public void reset() {
+        stopGame();
+        player1Board.reset();
+        player2Board.reset();
+        simulation.reset();
+        recorder = null;
+        player1GameOver = false;
+        player2GameOver = false;
+        isPaused = false;
+        activeKeys.clear();
+        for (BoardRenderer renderer : new BoardRenderer[] {player1Renderer, player2Renderer}) {
+            renderer.setActive(true);
+            renderer.invalidate();
+            renderer.clearOverlay();
+        }
+    }
+
+    public void startGame() {
+        recorder = Replays.record("versus", simulation, player1Board, player2Board);
+
+        // Game logic runs on the simulation thread; the pulse only draws its latest snapshots
+        gameLoop = new AnimationTimer() {
+            @Override
+            public void handle(long now) {
+                if (isPaused) return;
+
+                BoardSnapshot p1 = simulation.getSnapshot(PLAYER_1);
+                BoardSnapshot p2 = simulation.getSnapshot(PLAYER_2);
+                render(p1, p2);
+
+                if (p1.isGameOver() && !player1GameOver) {
+                    player1GameOver = true;
+                    drawGameOver(player1Renderer);
+                }
+                if (p2.isGameOver() && !player2GameOver) {
+                    player2GameOver = true;
+                    drawGameOver(player2Renderer);
+                }
+                if (player1GameOver || player2GameOver) {
+                    checkGameEnd(p1, p2);
+                }
+            }
+        };
+
+        simulation.start();
+        gameLoop.start();
+    }
+
+    private void togglePause() {
+        isPaused = !isPaused;
+        simulation.setPaused(isPaused);
+        if (isPaused) {
+            drawPaused(player1Renderer, !player1GameOver);
+            drawPaused(player2Renderer, !player2GameOver);
+        } else {
+            player1Renderer.clearOverlay();
+            player2Renderer.clearOverlay();
+            if (player1GameOver) drawGameOver(player1Renderer);
+            if (player2GameOver) drawGameOver(player2Renderer);
+        }
+    }
+
+    private void render(BoardView player1, BoardView player2) {
+        // Each layer repaints itself only if its part of the board changed
+        player1Renderer.render(player1);
+        player2Renderer.render(player2);
+
+        p1NextPreview.show(player1.getNextPiece());
+        p2NextPreview.show(player2.getNextPiece());
+
+        p1HeldPreview.show(player1.getHeldPiece());
+        p2HeldPreview.show(player2.getHeldPiece());
+
+        p1ScoreLabel.setValue(player1.getScore());
+        p1LevelLabel.setValue(player1.getLevel());
+
+        p2ScoreLabel.setValue(player2.getScore());
+        p2LevelLabel.setValue(player2.getLevel());
+    }
+
+    private void drawGameOver(BoardRenderer renderer) {
+        renderer.setActive(false);
+
+        GraphicsContext gc = renderer.getOverlay();
+        double width = renderer.getBoardWidth();
+        double height = renderer.getBoardHeight();
+        gc.setFill(Color.rgb(0, 0, 0, 0.6));
+        gc.fillRect(0, 0, width, height);
+        gc.setFill(Color.RED);
+        gc.setFont(Font.font("Arial", FontWeight.BOLD, 24));
+        gc.fillText("GAME OVER", width / 2 - 65, height / 2);
+    }
+
+    private void drawPaused(BoardRenderer renderer, boolean isActive) {
+        if (!isActive) return;
+
+        GraphicsContext gc = renderer.getOverlay();
+        double width = renderer.getBoardWidth();
+        double height = renderer.getBoardHeight();
+        gc.setFill(Color.rgb(0, 0, 0, 0.7));
+        gc.fillRect(0, 0, width, height);
+        gc.setFill(Color.WHITE);
+        gc.setFont(Font.font("Arial", FontWeight.BOLD, 24));
+        gc.fillText("PAUSED", width / 2 - 50, height / 2);
+    }
+
+    private void checkGameEnd(BoardView player1, BoardView player2) {
+        gameLoop.stop();
+        Replays.finish(simulation, recorder);
+
+        if (player1GameOver && player2GameOver) {
+            // Both players lost
+        } else if (player1GameOver) {
+            showWinner("PLAYER 2 WINS!", player2.getScore());
+        } else if (player2GameOver) {
+            showWinner("PLAYER 1 WINS!", player1.getScore());
+        }
+    }
+
+    private void showWinner(String message, int score) {
+        GraphicsContext gc = player1Renderer.getOverlay();
+        gc.setFill(Color.rgb(0, 200, 0, 0.3));
+        gc.fillRect(0, 0, player1Renderer.getBoardWidth(), player1Renderer.getBoardHeight());
+
+        gc = player2Renderer.getOverlay();
+        gc.setFill(Color.rgb(0, 200, 0, 0.3));
+        gc.fillRect(0, 0, player2Renderer.getBoardWidth(), player2Renderer.getBoardHeight());
+    }
+
+    public void stopGame() {
+        if (gameLoop != null) {
+            gameLoop.stop();
+        }
+        Replays.finish(simulation, recorder);
+    }
+}
@@ -0,0 +1,300 @@
+package org.vajradevam.tetris;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.StandardSocketOptions;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.SocketChannel;
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+/**
+ * Opens many client connections to a {@link TetrisServer} from one thread and plays
+ * random keys on all of them, to see how many sessions a server process can carry.
+ *
+ * <pre>
+ * java -cp tetris-server/target/tetris-server.jar org.vajradevam.tetris.LoadGenerator \
+ *     --clients 2000 --seconds 30 --inputs 5
+ * </pre>
+ *
+ * <p>Every client decodes the diffs it receives into {@link RemoteBoard}s like a real
+ * one would, and joins another match whenever one ends. Once a second it prints how
+ * many clients are connected and playing, the traffic, and the time from sending a
+ * key to receiving the next update of the sender's own board.
+ */
+public class LoadGenerator {
+    private static final long REPORT_INTERVAL_NANOS = 1_000_000_000L;
+    private static final int SELECT_MILLIS = 2;
+    // Hard drops are rarer than other keys so games last a while
+    private static final GameSimulation.Command[] KEYS = {
+        GameSimulation.Command.MOVE_LEFT, GameSimulation.Command.MOVE_RIGHT, GameSimulation.Command.ROTATE,
+        GameSimulation.Command.MOVE_LEFT, GameSimulation.Command.MOVE_RIGHT, GameSimulation.Command.ROTATE,
+        GameSimulation.Command.SOFT_DROP, GameSimulation.Command.HOLD, GameSimulation.Command.HARD_DROP
+    };
+
+    private static final class Client {
+        final SocketChannel channel;
+        final ByteBuffer in = ByteBuffer.allocate(64 * 1024);
+        final ByteBuffer out = ByteBuffer.allocate(256);
+        SelectionKey key;
+        RemoteBoard[] boards;
+        int player = -1;
+        long nextInput;
+        long inputSentAt;
+
+        Client(SocketChannel channel) {
+            this.channel = channel;
+        }
+    }
+
+    private String host = "localhost";
+    private int port = NetProtocol.DEFAULT_PORT;
+    private int clients = 1000;
+    private int seconds = 30;
+    private double inputsPerSecond = 4;
+    private long seed = 1;
+
+    private Selector selector;
+    private SplittableRandom random;
+    private int connected;
+    private int playing;
+    private long framesReceived;
+    private long bytesReceived;
+    private long inputsSent;
+    private long gamesFinished;
+    private long[] latencies = new long[1024];
+    private int latencyCount;
+
+    public static void main(String[] args) throws IOException {
+        LoadGenerator generator = new LoadGenerator();
+        if (!generator.parse(args)) {
+            System.err.println("Usage: LoadGenerator [--host H] [--port N] [--clients N] [--seconds N]");
+            System.err.println("                     [--inputs PER_SECOND] [--seed N]");
+            System.exit(2);
+        }
+        generator.run();
+    }
+
+    private boolean parse(String[] args) {
+        try {
+            for (int i = 0; i < args.length; i += 2) {
+                String value = args[i + 1];
+                switch (args[i]) {
+                    case "--host": host = value; break;
+                    case "--port": port = Integer.parseInt(value); break;
+                    case "--clients": clients = Integer.parseInt(value); break;
+                    case "--seconds": seconds = Integer.parseInt(value); break;
+                    case "--inputs": inputsPerSecond = Double.parseDouble(value); break;
+                    case "--seed": seed = Long.parseLong(value); break;
+                    default: return false;
+                }
+            }
+        } catch (ArrayIndexOutOfBoundsException | NumberFormatException e) {
+            return false;
+        }
+        return clients > 0 && seconds > 0 && inputsPerSecond > 0;
+    }
+
+    private void run() throws IOException {
+        selector = Selector.open();
+        random = new SplittableRandom(seed);
+        InetSocketAddress address = new InetSocketAddress(host, port);
+        System.out.printf("Connecting %d clients to %s, %.1f keys per second each, for %d s%n",
+                          clients, address, inputsPerSecond, seconds);
+
+        for (int c = 0; c < clients; c++) {
+            SocketChannel channel = SocketChannel.open();
+            channel.configureBlocking(false);
+            channel.setOption(StandardSocketOptions.TCP_NODELAY, true);
+            Client client = new Client(channel);
+            client.key = channel.register(selector, SelectionKey.OP_CONNECT, client);
+            channel.connect(address);
+        }
+
+        long start = System.nanoTime();
+        long end = start + seconds * 1_000_000_000L;
+        long nextReport = start + REPORT_INTERVAL_NANOS;
+        long lastReport = start;
+        while (System.nanoTime() < end) {
+            selector.select(this::handle, SELECT_MILLIS);
+
+            long now = System.nanoTime();
+            for (SelectionKey key : selector.keys()) {
+                Client client = (Client) key.attachment();
+                if (client.player >= 0 && now >= client.nextInput) {
+                    sendKey(client, now);
+                }
+            }
+
+            if (now >= nextReport) {
+                report(now - lastReport);
+                lastReport = now;
+                nextReport = now + REPORT_INTERVAL_NANOS;
+            }
+        }
+
+        for (SelectionKey key : selector.keys()) {
+            key.channel().close();
+        }
+        selector.close();
+        System.out.printf("%d games finished%n", gamesFinished);
+    }
+
+    private void handle(SelectionKey key) {
+        Client client = (Client) key.attachment();
+        try {
+            if (key.isConnectable()) {
+                client.channel.finishConnect();
+                connected++;
+                key.interestOps(SelectionKey.OP_READ);
+                hello(client);
+            }
+            if (key.isValid() && key.isReadable()) {
+                read(client);
+            }
+            if (key.isValid() && key.isWritable()) {
+                flush(client);
+            }
+        } catch (IOException e) {
+            System.err.println("Client dropped: " + e.getMessage());
+            drop(client);
+        }
+    }
+
+    private void read(Client client) throws IOException {
+        ByteBuffer in = client.in;
+        int read = client.channel.read(in);
+        if (read < 0) {
+            throw new IOException("Server closed the connection");
+        }
+        bytesReceived += read;
+
+        in.flip();
+        int length;
+        while ((length = NetProtocol.completeFrame(in)) >= 0) {
+            int end = in.position() + NetProtocol.HEADER_BYTES + length;
+            in.position(in.position() + 2);
+            byte type = in.get();
+            framesReceived++;
+
+            if (type == NetProtocol.START) {
+                int players = in.get();
+                client.boards = new RemoteBoard[players];
+                for (int p = 0; p < players; p++) {
+                    client.boards[p] = new RemoteBoard();
+                }
+                client.player = in.get();
+                client.nextInput = System.nanoTime();
+                playing++;
+            } else if (type == NetProtocol.STATE) {
+                int count = in.get();
+                for (int k = 0; k < count; k++) {
+                    int player = in.get();
+                    client.boards[player].readDiff(in);
+                    if (player == client.player && client.inputSentAt != 0) {
+                        recordLatency(System.nanoTime() - client.inputSentAt);
+                        client.inputSentAt = 0;
+                    }
+                }
+            } else if (type == NetProtocol.END) {
+                client.player = -1;
+                client.inputSentAt = 0;
+                playing--;
+                gamesFinished++;
+                hello(client);
+            }
+            in.position(end);
+        }
+        in.compact();
+    }
+
+    private void hello(Client client) throws IOException {
+        int start = NetProtocol.beginFrame(client.out, NetProtocol.HELLO);
+        client.out.put((byte) NetProtocol.VERSION);
+        NetProtocol.endFrame(client.out, start);
+        flush(client);
+    }
+
+    // A tap: press and release in the same write, like a quick keystroke
+    private void sendKey(Client client, long now) {
+        ByteBuffer out = client.out;
+        if (out.remaining() < 2 * (NetProtocol.HEADER_BYTES + 2)) return;
+
+        int command = KEYS[random.nextInt(KEYS.length)].ordinal();
+        putInput(out, NetProtocol.PRESS, command);
+        putInput(out, NetProtocol.RELEASE, command);
+        inputsSent++;
+        if (client.inputSentAt == 0) {
+            client.inputSentAt = now;
+        }
+        // Exponential gaps, so keys from different clients do not arrive in lockstep
+        client.nextInput = now + (long) (-Math.log(1 - random.nextDouble()) / inputsPerSecond * 1e9);
+
+        try {
+            flush(client);
+        } catch (IOException e) {
+            drop(client);
+        }
+    }
+
+    private static void putInput(ByteBuffer out, byte kind, int command) {
+        int start = NetProtocol.beginFrame(out, NetProtocol.INPUT);
+        out.put(kind).put((byte) command);
+        NetProtocol.endFrame(out, start);
+    }
+
+    private void flush(Client client) throws IOException {
+        ByteBuffer out = client.out;
+        out.flip();
+        client.channel.write(out);
+        out.compact();
+        int ops = out.position() > 0 ? SelectionKey.OP_READ | SelectionKey.OP_WRITE : SelectionKey.OP_READ;
+        if (client.key.interestOps() != ops) {
+            client.key.interestOps(ops);
+        }
+    }
+
+    private void drop(Client client) {
+        if (client.channel.isConnected()) {
+            connected--;
+        }
+        if (client.player >= 0) {
+            playing--;
+            client.player = -1;
+        }
+        client.key.cancel();
+        try {
+            client.channel.close();
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
+
+    private void recordLatency(long nanos) {
+        if (latencyCount == latencies.length) {
+            latencies = Arrays.copyOf(latencies, latencies.length * 2);
+        }
+        latencies[latencyCount++] = nanos;
+    }
+
+    private void report(long nanos) {
+        double seconds = nanos / 1e9;
+        Arrays.sort(latencies, 0, latencyCount);
+        System.out.printf("%d connected, %d playing  %.0f frames/s  %.0f KB/s in  %.0f keys/s  "
+                          + "key to update p50 %.2f ms p99 %.2f ms%n",
+                          connected, playing, framesReceived / seconds, bytesReceived / 1024.0 / seconds,
+                          inputsSent / seconds, percentile(50) / 1e6, percentile(99) / 1e6);
+        framesReceived = 0;
+        bytesReceived = 0;
+        inputsSent = 0;
+        latencyCount = 0;
+    }
+
+    private long percentile(int percent) {
+        if (latencyCount == 0) return 0;
+        int index = (int) Math.ceil(percent / 100.0 * latencyCount) - 1;
+        return latencies[Math.max(0, Math.min(latencyCount - 1, index))];
+    }
+}
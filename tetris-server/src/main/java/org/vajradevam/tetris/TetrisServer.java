@@ -0,0 +1,479 @@
+package org.vajradevam.tetris;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.StandardSocketOptions;
+import java.nio.ByteBuffer;
+import java.nio.channels.CancelledKeyException;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.util.ArrayDeque;
+import java.util.Queue;
+import java.util.SplittableRandom;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Hosts versus matches over TCP. The server owns every {@link GameBoard}; clients
+ * only send key presses and releases and get back diffs of what changed, see
+ * {@link NetProtocol}.
+ *
+ * <pre>
+ * java -jar tetris-server/target/tetris-server.jar --port 7420 --match-size 2 --threads 4
+ * </pre>
+ *
+ * <p>A non-blocking selector thread accepts connections and reads input. Matches run
+ * on a {@link SessionScheduler}: each one sleeps in its timing wheel until its next
+ * gravity drop, or until input wakes it, then a pool thread advances its
+ * {@link GameSimulation} over the ticks that passed, skipping the idle ones, and
+ * sends every client one frame with the diffs of all boards in the match, measured
+ * against what that client was last sent. A client that stops reading just has
+ * frames skipped until its socket drains; the next diff then covers everything it
+ * missed.
+ */
+public class TetrisServer {
+    public static final int DEFAULT_TICK_RATE = 60;
+    private static final int MAX_CATCH_UP_TICKS = 8;
+    private static final int ACCEPT_BACKLOG = 4096;
+    private static final int READ_BUFFER_BYTES = 256;
+    private static final int WRITE_BUFFER_BYTES = 16 * 1024;
+    // Client frames carry at most two bytes
+    private static final int MAX_CLIENT_FRAME = 2;
+    private static final long STATS_INTERVAL_NANOS = 10_000_000_000L;
+    // Largest possible diff of one board: both header bytes, every row, piece, previews, counters
+    private static final int MAX_DIFF_BYTES = 2 + 4 + GameBoard.getRows() * GameBoard.getCols() / 2 + 5 + 3 + 15;
+    private static final GameSimulation.Command[] COMMANDS = GameSimulation.Command.values();
+
+    // The output buffer is shared by the selector thread and the match's pool thread, under the session's lock
+    private static final class Session {
+        final SocketChannel channel;
+        final ByteBuffer in = ByteBuffer.allocate(READ_BUFFER_BYTES);
+        final ByteBuffer out = ByteBuffer.allocate(WRITE_BUFFER_BYTES);
+        SelectionKey key;
+        boolean waiting;
+        volatile Match match;
+        int player;
+        // What this client has been sent of each board in its match
+        RemoteBoard[] sent;
+
+        Session(SocketChannel channel) {
+            this.channel = channel;
+        }
+    }
+
+    private final class Match implements SessionScheduler.Task {
+        final GameBoard[] boards;
+        final GameSimulation simulation;
+        // Cleared by the selector thread when a player disconnects, read by the pool thread running the match
+        final AtomicReferenceArray<Session> sessions;
+        final boolean[] over;
+        volatile int connected;
+        SessionScheduler.Handle handle;
+        // When tick 0 was due; moved forward if the match ever falls too far behind
+        long startNanos;
+
+        Match(GameBoard[] boards, GameSimulation simulation) {
+            this.boards = boards;
+            this.simulation = simulation;
+            this.sessions = new AtomicReferenceArray<>(boards.length);
+            this.over = new boolean[boards.length];
+            this.connected = boards.length;
+        }
+
+        @Override
+        public long run(long now) {
+            // Ticks due by now; at least one, so input that woke the match is applied at once
+            long needed = Math.max(1, (now - startNanos) / tickNanos + 1 - simulation.getTickCount());
+            long skipped = Math.min(needed - 1, simulation.getIdleTicks());
+            simulation.skipTicks(skipped);
+            needed -= skipped;
+            if (needed > MAX_CATCH_UP_TICKS) {
+                // Too far behind; drop the backlog rather than fast-forwarding the game
+                startNanos += (needed - MAX_CATCH_UP_TICKS) * tickNanos;
+                needed = MAX_CATCH_UP_TICKS;
+            }
+            for (long t = 0; t < needed; t++) {
+                simulation.tick();
+            }
+
+            int alive = 0, winner = -1;
+            for (int p = 0; p < boards.length; p++) {
+                over[p] = boards[p].isGameOver();
+                if (!over[p]) {
+                    alive++;
+                    winner = p;
+                }
+            }
+            for (int p = 0; p < sessions.length(); p++) {
+                Session session = sessions.get(p);
+                if (session != null) {
+                    sendState(session, this);
+                }
+            }
+
+            boolean decided = matchSize == 1 ? alive == 0 : alive <= 1;
+            if (decided || connected == 0) {
+                end(this, matchSize == 1 ? -1 : winner);
+                return -1;
+            }
+
+            // Sleep through the ticks in which nothing can happen without input
+            long next = simulation.getTickCount() + simulation.getIdleTicks();
+            return startNanos + next * tickNanos - now;
+        }
+
+        @Override
+        public void failed(Throwable e) {
+            // A broken match ends without a winner; its players stay connected
+            e.printStackTrace();
+            end(this, -1);
+        }
+    }
+
+    private final Selector selector;
+    private final ServerSocketChannel server;
+    private final SessionScheduler scheduler;
+    private final int matchSize;
+    private final int tickRate;
+    private final long tickNanos;
+    private final int stateReserve;
+    private final SplittableRandom seeds = new SplittableRandom();
+    private final ArrayDeque<Session> waiting = new ArrayDeque<>();
+    // Sessions whose socket failed on a pool thread, closed by the selector thread
+    private final Queue<Session> failed = new ConcurrentLinkedQueue<>();
+    private volatile boolean running;
+
+    private int sessions;
+    private long matchesPlayed;
+    private final AtomicInteger activeMatches = new AtomicInteger();
+    private final LongAdder bytesSent = new LongAdder();
+
+    public TetrisServer(int port, int matchSize, int tickRate, int threads) throws IOException {
+        this.scheduler = new SessionScheduler(threads);
+        this.matchSize = matchSize;
+        this.tickRate = tickRate;
+        this.tickNanos = 1_000_000_000L / tickRate;
+        this.stateReserve = NetProtocol.HEADER_BYTES + 1 + matchSize * MAX_DIFF_BYTES;
+        this.selector = Selector.open();
+        this.server = ServerSocketChannel.open();
+        server.setOption(StandardSocketOptions.SO_REUSEADDR, true);
+        server.bind(new InetSocketAddress(port), ACCEPT_BACKLOG);
+        server.configureBlocking(false);
+        server.register(selector, SelectionKey.OP_ACCEPT);
+    }
+
+    public static void main(String[] args) throws IOException {
+        int port = NetProtocol.DEFAULT_PORT;
+        int matchSize = 2;
+        int tickRate = DEFAULT_TICK_RATE;
+        int threads = Runtime.getRuntime().availableProcessors();
+        try {
+            for (int i = 0; i < args.length; i += 2) {
+                String value = args[i + 1];
+                switch (args[i]) {
+                    case "--port": port = Integer.parseInt(value); break;
+                    case "--match-size": matchSize = Integer.parseInt(value); break;
+                    case "--tick-rate": tickRate = Integer.parseInt(value); break;
+                    case "--threads": threads = Integer.parseInt(value); break;
+                    default: throw new IllegalArgumentException(args[i]);
+                }
+            }
+            if (matchSize < 1 || matchSize > ReplayFormat.MAX_PLAYERS || tickRate < 1 || threads < 1) {
+                throw new IllegalArgumentException();
+            }
+        } catch (RuntimeException e) {
+            System.err.println("Usage: TetrisServer [--port N] [--match-size 1-16] [--tick-rate N] [--threads N]");
+            System.exit(2);
+        }
+
+        TetrisServer server = new TetrisServer(port, matchSize, tickRate, threads);
+        System.out.printf("Listening on port %d: %d players per match, %d ticks per second, %d threads%n",
+                          port, matchSize, tickRate, threads);
+        server.run();
+    }
+
+    /** Serves until {@link #stop} is called. */
+    public void run() throws IOException {
+        running = true;
+        scheduler.start();
+        long lastStats = System.nanoTime();
+
+        while (running) {
+            selector.select(this::handle, STATS_INTERVAL_NANOS / 1_000_000);
+
+            Session session;
+            while ((session = failed.poll()) != null) {
+                close(session);
+            }
+
+            long now = System.nanoTime();
+            if (now - lastStats >= STATS_INTERVAL_NANOS) {
+                printStats(now - lastStats);
+                lastStats = now;
+            }
+        }
+
+        scheduler.stop();
+        for (SelectionKey key : selector.keys()) {
+            key.channel().close();
+        }
+        selector.close();
+    }
+
+    public void stop() {
+        running = false;
+        selector.wakeup();
+    }
+
+    private void handle(SelectionKey key) {
+        if (!key.isValid()) return;
+        if (key.isAcceptable()) {
+            accept();
+            return;
+        }
+
+        Session session = (Session) key.attachment();
+        try {
+            if (key.isReadable()) {
+                read(session);
+            }
+            if (key.isValid() && key.isWritable()) {
+                synchronized (session) {
+                    flush(session);
+                }
+            }
+        } catch (IOException e) {
+            // Clients disconnecting is routine; nothing worth printing
+            close(session);
+        }
+    }
+
+    private void accept() {
+        try {
+            SocketChannel channel;
+            while ((channel = server.accept()) != null) {
+                channel.configureBlocking(false);
+                channel.setOption(StandardSocketOptions.TCP_NODELAY, true);
+                Session session = new Session(channel);
+                session.key = channel.register(selector, SelectionKey.OP_READ, session);
+                sessions++;
+            }
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
+
+    private void read(Session session) throws IOException {
+        ByteBuffer in = session.in;
+        if (session.channel.read(in) < 0) {
+            close(session);
+            return;
+        }
+
+        in.flip();
+        while (in.remaining() >= NetProtocol.HEADER_BYTES) {
+            int length = in.getShort(in.position()) & 0xFFFF;
+            if (length > MAX_CLIENT_FRAME) {
+                close(session);
+                return;
+            }
+            if (in.remaining() < NetProtocol.HEADER_BYTES + length) break;
+
+            int end = in.position() + NetProtocol.HEADER_BYTES + length;
+            in.position(in.position() + 2);
+            byte type = in.get();
+            if (type == NetProtocol.HELLO && length == 1) {
+                if (in.get() != NetProtocol.VERSION) {
+                    close(session);
+                    return;
+                }
+                join(session);
+            } else if (type == NetProtocol.INPUT && length == 2) {
+                input(session, in.get(), in.get());
+            } else {
+                close(session);
+                return;
+            }
+            in.position(end);
+        }
+        in.compact();
+    }
+
+    private void input(Session session, int kind, int command) {
+        Match match = session.match;
+        if (match == null || command < 0 || command >= COMMANDS.length) return;
+        if (kind == NetProtocol.PRESS) {
+            match.simulation.press(session.player, COMMANDS[command]);
+        } else if (kind == NetProtocol.RELEASE) {
+            match.simulation.release(session.player, COMMANDS[command]);
+        } else {
+            return;
+        }
+        match.handle.wake();
+    }
+
+    private void join(Session session) {
+        if (session.waiting || session.match != null) return;
+        session.waiting = true;
+        waiting.add(session);
+
+        while (waiting.size() >= matchSize) {
+            startMatch();
+        }
+    }
+
+    private void startMatch() {
+        // Every board gets the same pieces, so a match is decided by play alone
+        long seed = seeds.nextLong();
+        GameBoard[] boards = new GameBoard[matchSize];
+        for (int p = 0; p < matchSize; p++) {
+            boards[p] = new GameBoard(new SevenBagGenerator(seed));
+        }
+        GameSimulation simulation = new GameSimulation(tickRate, boards);
+        if (matchSize > 1) {
+            simulation.setGarbageEnabled(true, seed);
+        }
+        Match match = new Match(boards, simulation);
+
+        for (int p = 0; p < matchSize; p++) {
+            Session session = waiting.poll();
+            session.waiting = false;
+            session.match = match;
+            session.player = p;
+            session.sent = new RemoteBoard[matchSize];
+            for (int q = 0; q < matchSize; q++) {
+                session.sent[q] = new RemoteBoard();
+            }
+            match.sessions.set(p, session);
+
+            synchronized (session) {
+                ByteBuffer out = session.out;
+                if (out.remaining() >= NetProtocol.HEADER_BYTES + 2) {
+                    int start = NetProtocol.beginFrame(out, NetProtocol.START);
+                    out.put((byte) matchSize).put((byte) p);
+                    NetProtocol.endFrame(out, start);
+                }
+            }
+        }
+        matchesPlayed++;
+        activeMatches.incrementAndGet();
+        match.startNanos = System.nanoTime();
+        match.handle = scheduler.schedule(match, 0);
+    }
+
+    private void sendState(Session session, Match match) {
+        synchronized (session) {
+            ByteBuffer out = session.out;
+            // A client that is not keeping up skips this frame; its next diff covers the gap
+            if (out.remaining() < stateReserve) return;
+            writeState(session, match, out);
+            send(session);
+        }
+    }
+
+    private void writeState(Session session, Match match, ByteBuffer out) {
+        int start = NetProtocol.beginFrame(out, NetProtocol.STATE);
+        int countAt = out.position();
+        out.put((byte) 0);
+        int count = 0;
+        for (int p = 0; p < match.boards.length; p++) {
+            if (session.sent[p].writeDiff(p, match.boards[p], match.over[p], out)) {
+                count++;
+            }
+        }
+
+        if (count == 0) {
+            out.position(start);
+        } else {
+            out.put(countAt, (byte) count);
+            NetProtocol.endFrame(out, start);
+        }
+    }
+
+    private void end(Match match, int winner) {
+        activeMatches.decrementAndGet();
+        for (int p = 0; p < match.sessions.length(); p++) {
+            Session session = match.sessions.get(p);
+            if (session == null) continue;
+            synchronized (session) {
+                session.match = null;
+                session.sent = null;
+                ByteBuffer out = session.out;
+                if (out.remaining() >= NetProtocol.HEADER_BYTES + 1) {
+                    int start = NetProtocol.beginFrame(out, NetProtocol.END);
+                    out.put((byte) winner);
+                    NetProtocol.endFrame(out, start);
+                }
+                send(session);
+            }
+        }
+    }
+
+    // Called with the session's lock held, on the match's pool thread
+    private void send(Session session) {
+        if (session.out.position() == 0) return;
+        try {
+            flush(session);
+        } catch (IOException | CancelledKeyException e) {
+            // The key can be cancelled by the selector thread closing the session at any point
+            failed.offer(session);
+            selector.wakeup();
+        }
+    }
+
+    // Writes as much as the socket takes, and waits for OP_WRITE if anything is left
+    private void flush(Session session) throws IOException {
+        ByteBuffer out = session.out;
+        out.flip();
+        bytesSent.add(session.channel.write(out));
+        out.compact();
+        int ops = out.position() > 0 ? SelectionKey.OP_READ | SelectionKey.OP_WRITE : SelectionKey.OP_READ;
+        if (!session.key.isValid()) return; // closed; nothing left to wait for
+        if (session.key.interestOps() != ops) {
+            session.key.interestOps(ops);
+            if (ops != SelectionKey.OP_READ) {
+                // Changed from a pool thread; make the selector pick it up now
+                selector.wakeup();
+            }
+        }
+    }
+
+    private void close(Session session) {
+        if (!session.channel.isOpen()) return;
+        session.key.cancel();
+        try {
+            session.channel.close();
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+        sessions--;
+
+        if (session.waiting) {
+            waiting.remove(session);
+        }
+        Match match = session.match;
+        if (match != null) {
+            // The board plays on without input until it tops out
+            match.sessions.set(session.player, null);
+            match.connected--;
+            session.match = null;
+            if (match.connected == 0) {
+                match.handle.wake();
+            }
+        }
+    }
+
+    private void printStats(long nanos) {
+        double seconds = nanos / 1e9;
+        long[] runs = scheduler.takeStats();
+        System.out.printf("%d sessions, %d waiting, %d matches (%d played), %.0f KB/s out, "
+                          + "%.0f match runs/s, late by %.2f ms mean, %.2f ms max, %d failed%n",
+                          sessions, waiting.size(), activeMatches.get(), matchesPlayed,
+                          bytesSent.sumThenReset() / 1024.0 / seconds, runs[0] / seconds, runs[1] / 1e6, runs[2] / 1e6,
+                          runs[3]);
+    }
+}